@@ -0,0 +1,145 @@
+package com.civmc;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+
+/**
+ * Minimal Bukkit objects for benchmarks and harnesses, which run without a server.
+ * Only the methods the measured code calls are answered; everything else returns null, false or zero.
+ * Chunks are not cached, so a fake getChunk() allocates like a server call but skips the server's chunk map.
+ */
+public final class BukkitFakes {
+    
+    private BukkitFakes() {
+    }
+    
+    public static World world(String name) {
+        UUID uid = UUID.nameUUIDFromBytes(name.getBytes());
+        World[] self = new World[1];
+        self[0] = fake(World.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                    return name;
+                case "getUID":
+                    return uid;
+                case "getChunkAt":
+                    if (args[0] instanceof Location location) {
+                        return chunk(self[0], location.getBlockX() >> 4, location.getBlockZ() >> 4);
+                    }
+                    if (args[0] instanceof Block block) {
+                        return chunk(self[0], block.getX() >> 4, block.getZ() >> 4);
+                    }
+                    return chunk(self[0], (Integer) args[0], (Integer) args[1]);
+                default:
+                    return null;
+            }
+        });
+        return self[0];
+    }
+    
+    public static Chunk chunk(World world, int chunkX, int chunkZ) {
+        return fake(Chunk.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getX":
+                    return chunkX;
+                case "getZ":
+                    return chunkZ;
+                case "getWorld":
+                    return world;
+                case "equals":
+                    return args[0] instanceof Chunk other && other.getWorld() == world
+                            && other.getX() == chunkX && other.getZ() == chunkZ;
+                case "hashCode":
+                    return 31 * chunkX + chunkZ;
+                default:
+                    return null;
+            }
+        });
+    }
+    
+    // getLocation() returns a new Location on every call, as CraftBlock does
+    public static Block block(World world, int x, int y, int z) {
+        return fake(Block.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getX":
+                    return x;
+                case "getY":
+                    return y;
+                case "getZ":
+                    return z;
+                case "getWorld":
+                    return world;
+                case "getLocation":
+                    return new Location(world, x, y, z);
+                case "getChunk":
+                    return chunk(world, x >> 4, z >> 4);
+                default:
+                    return null;
+            }
+        });
+    }
+    
+    public static Player player(UUID uuid, World world) {
+        return fake(Player.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return uuid;
+                case "getWorld":
+                    return world;
+                default:
+                    return null;
+            }
+        });
+    }
+    
+    private static <T> T fake(Class<T> type, InvocationHandler answers) {
+        Object fake = Proxy.newProxyInstance(BukkitFakes.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            if (method.getDeclaringClass() == Object.class) {
+                                Object answer = answers.invoke(proxy, method, args);
+                                return answer != null ? answer : proxy == args[0];
+                            }
+                            break;
+                        case "hashCode":
+                            if (method.getParameterCount() == 0) {
+                                Object answer = answers.invoke(proxy, method, args);
+                                return answer != null ? answer : System.identityHashCode(proxy);
+                            }
+                            break;
+                        case "toString":
+                            if (method.getParameterCount() == 0) {
+                                return type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                    Object answer = answers.invoke(proxy, method, args);
+                    return answer != null ? answer : defaultValue(method);
+                });
+        return type.cast(fake);
+    }
+    
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return Boolean.FALSE;
+        if (type == char.class) return '\0';
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        if (type == double.class) return 0d;
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        return 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,189 @@
+package com.civmc.data.index;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Checks {@link ClaimBitmap} against a HashSet of chunk keys. First a single thread applies random sets, clears,
+ * clearAll and Builder rebuilds and compares after every step. Then one writer sets and clears chunks while
+ * reader threads check chunks nobody writes: claimed ones must never read as wilderness and unclaimed ones never
+ * as claimed, through region copies, table growth and emptied regions being dropped. Exits with status 1 on a mismatch.
+ * Run with: mvn -P jmh test-compile exec:exec -Djmh.main=com.civmc.data.index.ClaimBitmapReferenceCheck [-Djmh.args="ops readers"]
+ */
+public final class ClaimBitmapReferenceCheck {
+
+    // Spans several regions either side of zero, so negative coordinates and region edges are covered
+    private static final int DENSE = 48;
+    private static final int WIDE = 600;
+    // Far from the rest: regions there only ever hold churned chunks, so they are emptied and dropped
+    private static final int FAR = 5000;
+
+    public static void main(String[] args) throws Exception {
+        int ops = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int readers = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        sequential(ops);
+        concurrent(ops, readers);
+    }
+
+    private static void sequential(int ops) {
+        Random random = new Random(42);
+        ClaimBitmap bitmap = new ClaimBitmap();
+        Set<Long> reference = new HashSet<>();
+
+        for (int op = 0; op < ops; op++) {
+            int[] chunk = randomChunk(random);
+            int x = chunk[0];
+            int z = chunk[1];
+            int roll = random.nextInt(10_000);
+            if (roll == 0) {
+                bitmap.clearAll();
+                reference.clear();
+            } else if (roll <= 2) {
+                // A rebuild from the reference, as ClaimIndex.rebuild does from the claim map
+                ClaimBitmap.Builder builder = new ClaimBitmap.Builder();
+                for (long key : reference) {
+                    builder.set((int) (key >> 32), (int) key);
+                }
+                bitmap.replaceWith(builder);
+            } else if (roll < 5_200) {
+                bitmap.set(x, z);
+                reference.add(ClaimIndex.chunkKey(x, z));
+            } else {
+                bitmap.clear(x, z);
+                reference.remove(ClaimIndex.chunkKey(x, z));
+            }
+
+            if (bitmap.isClaimed(x, z) != reference.contains(ClaimIndex.chunkKey(x, z))) {
+                fail("after op " + op + ", chunk " + x + "," + z + " reads " + bitmap.isClaimed(x, z));
+            }
+            if (op % 50_000 == 0 || op == ops - 1) {
+                compareAll(bitmap, reference, "after op " + op);
+            }
+        }
+        System.out.println(ops + " random operations match the reference (" + reference.size() + " chunks claimed at the end)");
+    }
+
+    private static void concurrent(int ops, int readerCount) throws Exception {
+        ClaimBitmap bitmap = new ClaimBitmap();
+        Set<Long> reference = new HashSet<>();
+        // One residue class of chunks is claimed up front and another left unclaimed; the writer touches neither.
+        // Readers watch the dense area, where every chunk of the claimed class is set
+        for (int x = -WIDE; x < WIDE; x += 7) {
+            for (int z = -WIDE; z < WIDE; z += 7) {
+                if (isStable(x, z, 0)) {
+                    bitmap.set(x, z);
+                    reference.add(ClaimIndex.chunkKey(x, z));
+                }
+            }
+        }
+        for (int x = -DENSE; x < DENSE; x++) {
+            for (int z = -DENSE; z < DENSE; z++) {
+                if (isStable(x, z, 0)) {
+                    bitmap.set(x, z);
+                    reference.add(ClaimIndex.chunkKey(x, z));
+                }
+            }
+        }
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        CountDownLatch started = new CountDownLatch(readerCount);
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread[] readers = new Thread[readerCount];
+        for (int r = 0; r < readerCount; r++) {
+            readers[r] = new Thread(() -> {
+                started.countDown();
+                long count = 0;
+                do {
+                    for (int x = -DENSE; x < DENSE && failure.get() == null; x++) {
+                        for (int z = -DENSE; z < DENSE; z++) {
+                            if (isStable(x, z, 0) && !bitmap.isClaimed(x, z)) {
+                                failure.compareAndSet(null, "stable claimed chunk " + x + "," + z + " read as wilderness");
+                            } else if (isStable(x, z, 1) && bitmap.isClaimed(x, z)) {
+                                failure.compareAndSet(null, "stable wilderness chunk " + x + "," + z + " read as claimed");
+                            }
+                            count++;
+                        }
+                    }
+                } while (writing.get() && failure.get() == null);
+                reads.addAndGet(count);
+            }, "ClaimBitmapReader-" + r);
+            readers[r].start();
+        }
+        started.await();
+
+        Random random = new Random(7);
+        for (int op = 0; op < ops && failure.get() == null; op++) {
+            int[] chunk = randomChunk(random);
+            int x = chunk[0];
+            int z = chunk[1];
+            if (isStable(x, z, 0) || isStable(x, z, 1)) continue;
+
+            if (random.nextInt(100) < 52) {
+                bitmap.set(x, z);
+                reference.add(ClaimIndex.chunkKey(x, z));
+            } else {
+                bitmap.clear(x, z);
+                reference.remove(ClaimIndex.chunkKey(x, z));
+            }
+        }
+        writing.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        if (failure.get() != null) {
+            fail(failure.get());
+        }
+        compareAll(bitmap, reference, "after the concurrent writes");
+        System.out.println(ops + " writes with " + readerCount + " concurrent readers: " + reads.get() +
+                " reads of untouched chunks, none flickered");
+    }
+
+    // Stable chunks only exist in the dense and wide areas; the far area is all churn
+    private static boolean isStable(int x, int z, int residue) {
+        return Math.abs(x) < FAR / 2 && Math.floorMod(x + 2 * z, 3) == residue;
+    }
+
+    private static int[] randomChunk(Random random) {
+        int area = random.nextInt(10);
+        if (area < 5) {
+            return new int[] {random.nextInt(2 * DENSE) - DENSE, random.nextInt(2 * DENSE) - DENSE};
+        }
+        if (area < 8) {
+            return new int[] {random.nextInt(2 * WIDE) - WIDE, random.nextInt(2 * WIDE) - WIDE};
+        }
+        // Sparse chunks in their own regions, so regions empty out again
+        return new int[] {FAR + 32 * random.nextInt(40), -FAR - 32 * random.nextInt(40)};
+    }
+
+    private static void compareAll(ClaimBitmap bitmap, Set<Long> reference, String when) {
+        for (int x = -WIDE; x < WIDE; x++) {
+            for (int z = -WIDE; z < WIDE; z++) {
+                if (bitmap.isClaimed(x, z) != reference.contains(ClaimIndex.chunkKey(x, z))) {
+                    fail(when + ", chunk " + x + "," + z + " reads " + bitmap.isClaimed(x, z));
+                }
+            }
+        }
+        for (int i = 0; i < 40; i++) {
+            for (int j = 0; j < 40; j++) {
+                int x = FAR + 32 * i;
+                int z = -FAR - 32 * j;
+                if (bitmap.isClaimed(x, z) != reference.contains(ClaimIndex.chunkKey(x, z))) {
+                    fail(when + ", chunk " + x + "," + z + " reads " + bitmap.isClaimed(x, z));
+                }
+            }
+        }
+    }
+
+    private static void fail(String message) {
+        System.out.println("Mismatch " + message);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,172 @@
+package com.civmc.data.index;
+
+import com.civmc.model.Claim;
+import com.civmc.model.ClaimFlags;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to index every claim at startup: {@link ClaimIndex#rebuild} with its bitmap builders, one
+ * {@link ClaimIndex#put} per claim with in-place bitmap writes, and put's bitmap work as it was when every
+ * set copied the whole region table. Claims come in territories of up to 100 chunks scattered over one world,
+ * one in ten with monster spawning off. The legacy variant takes tens of seconds per shot at 300k claims.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ClaimIndexRebuildBenchmark {
+
+    @Param({"10000", "100000", "300000"})
+    public int claims;
+
+    private List<Claim> dataset;
+
+    @Setup
+    public void setUp() {
+        ClaimFlags noMonsters = ClaimFlags.defaults().toBuilder().setMonsterSpawn(false).build();
+        Random random = new Random(42);
+        Set<Long> taken = new HashSet<>();
+        dataset = new ArrayList<>(claims);
+        while (dataset.size() < claims) {
+            // A territory grows outwards from a random centre
+            int centreX = random.nextInt(40_000) - 20_000;
+            int centreZ = random.nextInt(40_000) - 20_000;
+            String civId = "civ-" + dataset.size();
+            int size = 1 + random.nextInt(100);
+            for (int i = 0; i < size && dataset.size() < claims; i++) {
+                int x = centreX + random.nextInt(11) - 5;
+                int z = centreZ + random.nextInt(11) - 5;
+                if (!taken.add(ClaimIndex.chunkKey(x, z))) continue;
+
+                Claim claim = new Claim("world", x, z, civId);
+                if (random.nextInt(10) == 0) {
+                    claim.setFlags(noMonsters);
+                }
+                dataset.add(claim);
+            }
+        }
+    }
+
+    @Benchmark
+    public ClaimIndex rebuild() {
+        ClaimIndex index = new ClaimIndex();
+        index.rebuild(dataset);
+        return index;
+    }
+
+    @Benchmark
+    public ClaimIndex putEach() {
+        ClaimIndex index = new ClaimIndex();
+        for (Claim claim : dataset) {
+            index.put(claim);
+        }
+        return index;
+    }
+
+    // ClaimIndex.put before the builders and in-place writes: the chunk map plus three copy-on-write bitmaps
+    @Benchmark
+    public ChunkClaimMap legacyPutEach() {
+        ChunkClaimMap map = new ChunkClaimMap();
+        LegacyClaimBitmap claimed = new LegacyClaimBitmap();
+        LegacyClaimBitmap monsterVetoes = new LegacyClaimBitmap();
+        LegacyClaimBitmap animalVetoes = new LegacyClaimBitmap();
+        for (Claim claim : dataset) {
+            claimed.set(claim.getChunkX(), claim.getChunkZ());
+            map.put(ClaimIndex.chunkKey(claim.getChunkX(), claim.getChunkZ()), claim);
+            if (!claim.getFlags().isMonsterSpawn()) {
+                monsterVetoes.set(claim.getChunkX(), claim.getChunkZ());
+            }
+            if (!claim.getFlags().isAnimalSpawn()) {
+                animalVetoes.set(claim.getChunkX(), claim.getChunkZ());
+            }
+        }
+        return map;
+    }
+
+    // ClaimBitmap.set as it was: every write copied the region and the whole table, then republished it
+    private static final class LegacyClaimBitmap {
+        private static final int REGION_SHIFT = 5;
+        private static final int REGION_MASK = (1 << REGION_SHIFT) - 1;
+        private static final int WORDS_PER_REGION = (1 << (REGION_SHIFT * 2)) / 64;
+
+        private volatile long[] keys = new long[16];
+        private volatile long[][] regions = new long[16][];
+        private int size;
+
+        synchronized void set(int chunkX, int chunkZ) {
+            long regionKey = ClaimIndex.chunkKey(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+            long[] current = find(keys, regions, regionKey);
+            long[] bits = current != null ? current.clone() : new long[WORDS_PER_REGION];
+            int bit = ((chunkZ & REGION_MASK) << REGION_SHIFT) | (chunkX & REGION_MASK);
+            bits[bit >>> 6] |= 1L << bit;
+
+            int capacity = current == null && (size + 1) * 2 > keys.length ? keys.length * 2 : keys.length;
+            long[] newKeys = new long[capacity];
+            long[][] newRegions = new long[capacity][];
+            if (capacity == keys.length) {
+                System.arraycopy(keys, 0, newKeys, 0, keys.length);
+                System.arraycopy(regions, 0, newRegions, 0, regions.length);
+            } else {
+                for (int i = 0; i < keys.length; i++) {
+                    if (regions[i] != null) {
+                        put(newKeys, newRegions, keys[i], regions[i]);
+                    }
+                }
+            }
+            if (put(newKeys, newRegions, regionKey, bits)) {
+                size++;
+            }
+            keys = newKeys;
+            regions = newRegions;
+        }
+
+        private static long[] find(long[] keys, long[][] regions, long key) {
+            int mask = keys.length - 1;
+            int index = mix(key) & mask;
+            while (regions[index] != null && keys[index] != key) {
+                index = (index + 1) & mask;
+            }
+            return regions[index];
+        }
+
+        // Returns true when the key was new
+        private static boolean put(long[] keys, long[][] regions, long key, long[] bits) {
+            int mask = keys.length - 1;
+            int index = mix(key) & mask;
+            while (regions[index] != null) {
+                if (keys[index] == key) {
+                    regions[index] = bits;
+                    return false;
+                }
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            regions[index] = bits;
+            return true;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.civmc.data.index;
+
+import com.civmc.BukkitFakes;
+import com.civmc.model.Claim;
+import org.bukkit.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Claim lookups per second: the old "world:x:z" string-keyed map against {@link ClaimIndex},
+ * for chunks that are claimed and for wilderness, which most protection events hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ClaimLookupBenchmark {
+
+    private static final int PROBES = 4096;
+
+    @Param({"1000", "50000"})
+    public int claims;
+
+    private World world;
+    // Read once: getName() on the fake world is a proxy call, on a server it is a field read
+    private String worldName;
+    private ClaimIndex index;
+    // DataManager.claims and getClaim(String, int, int) as they were before the index
+    private Map<String, Claim> legacy;
+    private int[] claimedX;
+    private int[] claimedZ;
+    private int[] wildernessX;
+    private int[] wildernessZ;
+
+    @Setup
+    public void setUp() {
+        world = BukkitFakes.world("world");
+        worldName = world.getName();
+        index = new ClaimIndex();
+        legacy = new ConcurrentHashMap<>();
+
+        Random random = new Random(42);
+        int radius = (int) Math.sqrt(claims) * 4;
+        Set<Long> taken = new HashSet<>();
+        Claim[] all = new Claim[claims];
+        for (int i = 0; i < claims; i++) {
+            int x;
+            int z;
+            do {
+                x = random.nextInt(radius * 2) - radius;
+                z = random.nextInt(radius * 2) - radius;
+            } while (!taken.add(ClaimIndex.chunkKey(x, z)));
+
+            Claim claim = new Claim("world", x, z, "civ-" + (i % 500));
+            all[i] = claim;
+            index.put(claim);
+            legacy.put(claim.getClaimKey(), claim);
+        }
+
+        claimedX = new int[PROBES];
+        claimedZ = new int[PROBES];
+        wildernessX = new int[PROBES];
+        wildernessZ = new int[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            Claim claim = all[random.nextInt(claims)];
+            claimedX[i] = claim.getChunkX();
+            claimedZ[i] = claim.getChunkZ();
+
+            int x;
+            int z;
+            do {
+                x = random.nextInt(radius * 2) - radius;
+                z = random.nextInt(radius * 2) - radius;
+            } while (taken.contains(ClaimIndex.chunkKey(x, z)));
+            wildernessX[i] = x;
+            wildernessZ[i] = z;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void legacyClaimed(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++) {
+            blackhole.consume(legacyGet(worldName, claimedX[i], claimedZ[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void indexClaimed(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++) {
+            blackhole.consume(index.get(world, claimedX[i], claimedZ[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void legacyWilderness(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++) {
+            blackhole.consume(legacyGet(worldName, wildernessX[i], wildernessZ[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public void indexWilderness(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++) {
+            blackhole.consume(index.get(world, wildernessX[i], wildernessZ[i]));
+        }
+    }
+
+    private Claim legacyGet(String worldName, int chunkX, int chunkZ) {
+        String key = worldName + ":" + chunkX + ":" + chunkZ;
+        return legacy.get(key);
+    }
+}
@@ -0,0 +1,85 @@
+package com.civmc.data.index;
+
+import com.civmc.model.CivRole;
+import com.civmc.model.Civilization;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Top 10 civilizations by members, as /cv list and every %civ_top_n_*% placeholder read it:
+ * the old copy-and-sort of getTopCivilizations against {@link Leaderboards#top}, plus the cost of
+ * keeping the boards current when one civilization is saved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LeaderboardBenchmark {
+
+    private static final int TOP = 10;
+
+    @Param({"500", "5000"})
+    public int civilizations;
+
+    // DataManager.civilizations
+    private Map<String, Civilization> civs;
+    private Civilization[] saved;
+    private Leaderboards leaderboards;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        civs = new ConcurrentHashMap<>();
+        leaderboards = new Leaderboards();
+        saved = new Civilization[civilizations];
+        for (int i = 0; i < civilizations; i++) {
+            Civilization civ = LeaderboardCheck.randomCivilization(random, i);
+            civs.put(civ.getUuid(), civ);
+            leaderboards.update(civ);
+            saved[i] = civ;
+        }
+    }
+
+    // CivilizationManager.getTopCivilizations before the leaderboards
+    @Benchmark
+    public List<Civilization> legacySortTop() {
+        return civs.values().stream()
+                .sorted((a, b) -> Integer.compare(b.getTotalMemberCount(), a.getTotalMemberCount()))
+                .limit(TOP)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> leaderboardTop() {
+        return leaderboards.top(Leaderboards.Metric.MEMBERS, TOP);
+    }
+
+    // A member joins one civilization and it is saved: all four boards are updated
+    @Benchmark
+    public void leaderboardUpdate() {
+        Civilization civ = saved[next++ % saved.length];
+        civ.addMember("member-" + next, CivRole.MEMBER);
+        civ.setBankBalance(civ.getBankBalance() + 1);
+        leaderboards.update(civ);
+        civ.removeMember("member-" + next);
+    }
+}
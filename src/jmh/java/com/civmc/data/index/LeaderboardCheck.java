@@ -0,0 +1,106 @@
+package com.civmc.data.index;
+
+import com.civmc.model.CivRole;
+import com.civmc.model.Civilization;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Applies random member, claim, level and bank changes and removals to civilizations, updating
+ * {@link Leaderboards} the way saveCivilization and deleteCivilization do, then compares every metric's
+ * top 10 with a full sort of the same civilizations. Exits with status 1 on a mismatch.
+ * Run with: mvn -P jmh test-compile exec:exec -Djmh.main=com.civmc.data.index.LeaderboardCheck [-Djmh.args="updates civilizations"]
+ */
+public final class LeaderboardCheck {
+
+    private static final int TOP = 10;
+
+    public static void main(String[] args) {
+        int updates = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        Random random = new Random(42);
+        Map<String, Civilization> civs = new ConcurrentHashMap<>();
+        Leaderboards leaderboards = new Leaderboards();
+        List<Civilization> all = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Civilization civ = randomCivilization(random, i);
+            civs.put(civ.getUuid(), civ);
+            leaderboards.update(civ);
+            all.add(civ);
+        }
+
+        for (int i = 0; i < updates && !all.isEmpty(); i++) {
+            Civilization civ = all.get(random.nextInt(all.size()));
+            // Now and then a civilization disbands, as deleteCivilization does
+            if (random.nextInt(250) == 0) {
+                civs.remove(civ.getUuid());
+                leaderboards.remove(civ.getUuid());
+                all.remove(civ);
+                continue;
+            }
+
+            switch (random.nextInt(4)) {
+                case 0 -> civ.addMember("joined-" + i, CivRole.MEMBER);
+                case 1 -> civ.getClaims().add("world:" + i + ":0");
+                case 2 -> civ.setLevel(1 + random.nextInt(10));
+                default -> civ.setBankBalance(random.nextInt(100_000));
+            }
+            leaderboards.update(civ);
+        }
+
+        boolean ok = true;
+        for (Leaderboards.Metric metric : Leaderboards.Metric.values()) {
+            List<String> expected = fullSort(civs, metric.name());
+            List<String> actual = leaderboards.top(metric, TOP);
+            if (!expected.equals(actual)) {
+                System.out.println(metric + ": expected " + expected + " but the leaderboard has " + actual);
+                ok = false;
+            }
+        }
+        if (!ok) {
+            System.exit(1);
+        }
+        System.out.println(updates + " changes over " + count + " civilizations, " + civs.size()
+                + " left: every metric's top " + TOP + " matches a full sort");
+    }
+
+    static Civilization randomCivilization(Random random, int i) {
+        Civilization civ = new Civilization("Civ" + i, "leader-" + i);
+        civ.setUuid(String.format(Locale.ROOT, "civ-%05d", i));
+        int members = random.nextInt(30);
+        for (int m = 0; m < members; m++) {
+            civ.addMember("member-" + i + "-" + m, CivRole.MEMBER);
+        }
+        int claims = random.nextInt(50);
+        for (int c = 0; c < claims; c++) {
+            civ.getClaims().add("world:" + i + ":" + c);
+        }
+        civ.setLevel(1 + random.nextInt(10));
+        civ.setBankBalance(random.nextInt(100_000));
+        return civ;
+    }
+
+    // Same order as the boards: best score first, civilization UUID breaking ties
+    private static List<String> fullSort(Map<String, Civilization> civs, String metric) {
+        ToDoubleFunction<Civilization> score = switch (metric) {
+            case "MEMBERS" -> Civilization::getTotalMemberCount;
+            case "CLAIMS" -> civ -> civ.getClaims().size();
+            case "LEVEL" -> Civilization::getLevel;
+            default -> Civilization::getBankBalance;
+        };
+        return civs.values().stream()
+                .sorted(Comparator.comparingDouble(score).reversed().thenComparing(Civilization::getUuid))
+                .limit(TOP)
+                .map(Civilization::getUuid)
+                .collect(Collectors.toList());
+    }
+}
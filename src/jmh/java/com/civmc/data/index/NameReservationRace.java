@@ -0,0 +1,52 @@
+package com.civmc.data.index;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Races concurrent reservations of one name, in different casings, against {@link CivilizationNameIndex}
+ * and checks that exactly one of them wins every round. Exits with status 1 on the first round that breaks.
+ * Run with: mvn -P jmh test-compile exec:exec -Djmh.main=com.civmc.data.index.NameReservationRace [-Djmh.args="rounds threads"]
+ */
+public final class NameReservationRace {
+
+    public static void main(String[] args) throws Exception {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        String[] casings = {"Rome", "ROME", "rome", " Rome "};
+
+        for (int round = 0; round < rounds; round++) {
+            CivilizationNameIndex index = new CivilizationNameIndex();
+            CyclicBarrier start = new CyclicBarrier(threads);
+            CountDownLatch done = new CountDownLatch(threads);
+            AtomicInteger winners = new AtomicInteger();
+
+            for (int t = 0; t < threads; t++) {
+                String name = casings[t % casings.length];
+                String civId = "civ-" + t;
+                Thread thread = new Thread(() -> {
+                    try {
+                        start.await();
+                        if (index.reserve(name, civId)) {
+                            winners.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+                thread.start();
+            }
+            done.await();
+
+            String owner = index.get("rome");
+            if (winners.get() != 1 || owner == null) {
+                System.out.println("Round " + round + ": " + winners.get() + " reservations won, index holds " + owner);
+                System.exit(1);
+            }
+        }
+        System.out.println(rounds + " rounds of " + threads + " racing reservations: exactly one winner each");
+    }
+}
@@ -0,0 +1,247 @@
+package com.civmc.data.storage;
+
+import com.civmc.CivilizationMC;
+import com.civmc.config.ConfigManager;
+import com.civmc.model.CivRole;
+import com.civmc.model.Civilization;
+import com.civmc.model.Claim;
+import com.civmc.model.ClaimFlags;
+import com.civmc.model.Invitation;
+import com.civmc.model.TrustFlag;
+import com.civmc.model.War;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs {@link MySQLStorageProvider} against an in-memory H2 database in MySQL mode: the schema, the batched
+ * REPLACE INTO upserts, the delete paths and the pool's borrow timeout. Exits with status 1 on the first failed check.
+ * H2 is not MySQL: the DDL and statements are the provider's own, but the driver's batch rewriting is not exercised.
+ * Run with: mvn -P jmh test-compile exec:exec -Djmh.main=com.civmc.data.storage.MySQLStorageCheck
+ */
+public final class MySQLStorageCheck {
+    
+    private static final int CIVS = 50;
+    private static final int CLAIMS_PER_CIV = 40;
+    private static final int POOL_SIZE = 2;
+    private static final int TIMEOUT_SECONDS = 1;
+    // rewriteBatchedStatements is already present, so the provider leaves the URL alone and H2 ignores it
+    private static final String URL = "jdbc:h2:mem:civmc-check;MODE=MySQL;DB_CLOSE_DELAY=-1;" +
+            "IGNORE_UNKNOWN_SETTINGS=TRUE;rewriteBatchedStatements=true";
+    
+    public static void main(String[] args) throws Exception {
+        CivilizationMC plugin = mock(CivilizationMC.class);
+        ConfigManager config = mock(ConfigManager.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("MySQLStorageCheck"));
+        when(plugin.getConfigManager()).thenReturn(config);
+        when(config.getDatabaseUrl()).thenReturn(URL);
+        when(config.getDatabaseUsername()).thenReturn("sa");
+        when(config.getDatabasePassword()).thenReturn("");
+        when(config.getDatabasePoolSize()).thenReturn(POOL_SIZE);
+        when(config.getDatabaseConnectionTimeoutSeconds()).thenReturn(TIMEOUT_SECONDS);
+        
+        MySQLStorageProvider provider = new MySQLStorageProvider(plugin);
+        check(provider.initialize(), "schema is created");
+        check(provider.initialize(), "schema creation is repeatable");
+        
+        try (Connection db = DriverManager.getConnection(URL, "sa", "")) {
+            checkUpserts(provider, db);
+            checkDeletes(provider, db);
+        }
+        checkPoolTimeout(provider);
+        
+        provider.close();
+        try {
+            provider.borrowConnection();
+            check(false, "a closed provider refuses to lend connections");
+        } catch (SQLException expected) {
+            // Closed as expected
+        }
+        System.out.println("All MySQL storage checks passed against H2 in MySQL mode");
+    }
+    
+    private static void checkUpserts(MySQLStorageProvider provider, Connection db) throws SQLException {
+        Map<String, Civilization> civilizations = new LinkedHashMap<>();
+        Map<String, Claim> claims = new LinkedHashMap<>();
+        Map<String, War> wars = new LinkedHashMap<>();
+        Map<String, Invitation> invitations = new LinkedHashMap<>();
+        
+        ClaimFlags noExplosions = ClaimFlags.defaults().toBuilder().setExplosions(false).build();
+        int trusts = 0;
+        Civilization previous = null;
+        for (int c = 0; c < CIVS; c++) {
+            Civilization civ = new Civilization("Civ" + c, UUID.randomUUID().toString());
+            for (int m = 0; m < 3; m++) {
+                civ.addMember(UUID.randomUUID().toString(), CivRole.MEMBER);
+            }
+            if (previous != null) {
+                civ.getAllies().add(previous.getUuid());
+            }
+            civilizations.put(civ.getUuid(), civ);
+            previous = civ;
+            
+            for (int i = 0; i < CLAIMS_PER_CIV; i++) {
+                Claim claim = new Claim("world", c, i, civ.getUuid());
+                if (i % 4 == 0) {
+                    claim.addTrust(UUID.randomUUID().toString(), EnumSet.of(TrustFlag.ACCESS, TrustFlag.BUILD));
+                    trusts++;
+                }
+                if (i % 5 == 0) {
+                    claim.setFlags(noExplosions);
+                }
+                claims.put(claim.getClaimKey(), claim);
+            }
+            
+            Invitation invitation = new Invitation(UUID.randomUUID().toString(), civ.getUuid(),
+                    civ.getLeaderUUID(), System.currentTimeMillis() + 60_000);
+            invitations.put(invitation.getId(), invitation);
+        }
+        List<String> civIds = new ArrayList<>(civilizations.keySet());
+        for (int w = 0; w < 10; w++) {
+            War war = new War(UUID.randomUUID().toString(), civIds.get(w), civIds.get(w + 10), "check");
+            wars.put(war.getId(), war);
+        }
+        
+        check(provider.saveCivilizations(civilizations), "civilizations are saved");
+        check(provider.saveClaims(claims), "claims are saved");
+        check(provider.saveWars(wars), "wars are saved");
+        check(provider.saveInvitations(invitations), "invitations are saved");
+        checkCounts(db, CIVS, CIVS * CLAIMS_PER_CIV, trusts, "after the first full save");
+        
+        // Saving the same state again replaces rows instead of adding to them
+        check(provider.saveCivilizations(civilizations) && provider.saveClaims(claims), "the full saves repeat");
+        checkCounts(db, CIVS, CIVS * CLAIMS_PER_CIV, trusts, "after repeating the full save");
+        
+        // A delta: one claim changes owner and flags, another loses its trust
+        Claim reowned = claims.get("world:0:1");
+        reowned.setCivId(civIds.get(1));
+        reowned.setFlags(noExplosions);
+        Claim untrusted = claims.get("world:0:0");
+        untrusted.removeTrust(untrusted.getTrusts().iterator().next().getPlayerUUID());
+        Civilization renamed = civilizations.get(civIds.get(2));
+        renamed.setName("Renamed");
+        check(provider.saveChanges(List.of(renamed), List.of(reowned, untrusted), List.of(), List.of()),
+                "a delta is saved in one transaction");
+        checkCounts(db, CIVS, CIVS * CLAIMS_PER_CIV, trusts - 1, "after the delta");
+        
+        Map<String, Claim> loadedClaims = provider.loadClaims();
+        check(loadedClaims.size() == claims.size(), "every claim loads back");
+        check(civIds.get(1).equals(loadedClaims.get("world:0:1").getCivId()), "the re-owned claim loads its new owner");
+        check(noExplosions.equals(loadedClaims.get("world:0:1").getFlags()), "changed flags load back");
+        check(loadedClaims.get("world:0:0").getTrusts().isEmpty(), "a removed trust stays removed");
+        check(loadedClaims.get("world:0:4").isTrusted(claims.get("world:0:4").getTrusts().iterator().next().getPlayerUUID(),
+                TrustFlag.BUILD), "trust flags load back");
+        
+        Map<String, Civilization> loadedCivs = provider.loadCivilizations();
+        check(loadedCivs.size() == CIVS, "every civilization loads back");
+        check("Renamed".equals(loadedCivs.get(civIds.get(2)).getName()), "the renamed civilization loads its new name");
+        check(loadedCivs.get(civIds.get(0)).getClaims().size() == CLAIMS_PER_CIV - 1, "claim sets follow the claims table");
+        check(loadedCivs.get(civIds.get(1)).getClaims().size() == CLAIMS_PER_CIV + 1, "claim sets include re-owned claims");
+        check(loadedCivs.get(civIds.get(5)).getAllMembers().size() == 4, "members load back");
+        check(loadedCivs.get(civIds.get(5)).getAllies().contains(civIds.get(4)), "relations load back");
+        
+        check(provider.loadWars().size() == wars.size(), "every war loads back");
+        check(provider.loadInvitations().size() == invitations.size(), "every invitation loads back");
+    }
+    
+    private static void checkDeletes(MySQLStorageProvider provider, Connection db) throws SQLException {
+        Map<String, Civilization> civilizations = provider.loadCivilizations();
+        Civilization disbanded = civilizations.values().stream()
+                .filter(civ -> civ.getClaims().size() == CLAIMS_PER_CIV)
+                .findFirst().orElseThrow();
+        int disbandedTrusts = count(db, "SELECT COUNT(*) FROM claim_trusts t JOIN claims c ON c.world = t.world " +
+                "AND c.chunk_x = t.chunk_x AND c.chunk_z = t.chunk_z WHERE c.civ_id = '" + disbanded.getUuid() + "'");
+        check(disbandedTrusts > 0, "the disbanded civilization has trusted claims");
+        
+        int claimsBefore = count(db, "SELECT COUNT(*) FROM claims");
+        int trustsBefore = count(db, "SELECT COUNT(*) FROM claim_trusts");
+        String trustedKey = "world:0:4";
+        check(provider.deleteClaim(trustedKey), "a claim is deleted");
+        check(count(db, "SELECT COUNT(*) FROM claims") == claimsBefore - 1, "the claim row is gone");
+        check(count(db, "SELECT COUNT(*) FROM claim_trusts") == trustsBefore - 1, "the claim's trusts are gone");
+        
+        claimsBefore--;
+        trustsBefore--;
+        check(provider.deleteCivilization(disbanded.getUuid()), "a civilization is deleted");
+        check(count(db, "SELECT COUNT(*) FROM civilizations WHERE uuid = '" + disbanded.getUuid() + "'") == 0,
+                "the civilization row is gone");
+        check(count(db, "SELECT COUNT(*) FROM civ_members WHERE civ_uuid = '" + disbanded.getUuid() + "'") == 0,
+                "its members are gone");
+        check(count(db, "SELECT COUNT(*) FROM civ_relations WHERE civ_uuid = '" + disbanded.getUuid() + "'") == 0,
+                "its relations are gone");
+        check(count(db, "SELECT COUNT(*) FROM claims") == claimsBefore - CLAIMS_PER_CIV, "its claims are gone");
+        check(count(db, "SELECT COUNT(*) FROM claim_trusts") == trustsBefore - disbandedTrusts, "its claim trusts are gone");
+        
+        String warId = provider.loadWars().keySet().iterator().next();
+        String inviteId = provider.loadInvitations().keySet().iterator().next();
+        check(provider.deleteWar(warId) && !provider.loadWars().containsKey(warId), "a war is deleted");
+        check(provider.deleteInvitation(inviteId) && !provider.loadInvitations().containsKey(inviteId),
+                "an invitation is deleted");
+        
+        check(provider.deleteClaim(trustedKey) && provider.deleteCivilization(disbanded.getUuid())
+                && provider.deleteWar(warId) && provider.deleteInvitation(inviteId), "deleting what is gone succeeds");
+    }
+    
+    private static void checkPoolTimeout(MySQLStorageProvider provider) throws SQLException {
+        List<Connection> borrowed = new ArrayList<>();
+        for (int i = 0; i < POOL_SIZE; i++) {
+            borrowed.add(provider.borrowConnection());
+        }
+        
+        long started = System.nanoTime();
+        try {
+            provider.borrowConnection();
+            check(false, "an exhausted pool times out");
+        } catch (SQLException expected) {
+            long waitedMillis = (System.nanoTime() - started) / 1_000_000;
+            check(waitedMillis >= TIMEOUT_SECONDS * 900L && waitedMillis < TIMEOUT_SECONDS * 5_000L,
+                    "an exhausted pool waits about the configured timeout (waited " + waitedMillis + "ms)");
+        }
+        check(!provider.saveClaim(new Claim("world", 999, 999, UUID.randomUUID().toString())),
+                "a save reports failure while the pool is exhausted");
+        
+        Connection released = borrowed.remove(0);
+        provider.releaseConnection(released);
+        borrowed.add(provider.borrowConnection());
+        check(borrowed.contains(released), "a released connection is lent again");
+        for (Connection connection : borrowed) {
+            provider.releaseConnection(connection);
+        }
+    }
+    
+    private static void checkCounts(Connection db, int civs, int claims, int trusts, String when) throws SQLException {
+        check(count(db, "SELECT COUNT(*) FROM civilizations") == civs, "civilization rows " + when);
+        check(count(db, "SELECT COUNT(*) FROM civ_members") == civs * 4, "member rows " + when);
+        check(count(db, "SELECT COUNT(*) FROM civ_relations") == civs - 1, "relation rows " + when);
+        check(count(db, "SELECT COUNT(*) FROM claims") == claims, "claim rows " + when);
+        check(count(db, "SELECT COUNT(*) FROM claim_trusts") == trusts, "claim trust rows " + when);
+    }
+    
+    private static int count(Connection db, String sql) throws SQLException {
+        try (Statement statement = db.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+    
+    private static void check(boolean passed, String description) {
+        if (!passed) {
+            System.out.println("FAILED: " + description);
+            System.exit(1);
+        }
+        System.out.println("ok: " + description);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,155 @@
+package com.civmc.listeners;
+
+import com.civmc.BukkitFakes;
+import com.civmc.CivilizationMC;
+import com.civmc.data.DataManager;
+import com.civmc.data.index.ClaimIndex;
+import com.civmc.model.Claim;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cost per move packet of PlayerListener.onPlayerMove against the old handler, which compared
+ * getChunk() results and looked up two claims on every chunk change.
+ * 300 players walk back and forth at walking speed (0.2 blocks per packet) through 4x4-chunk territories,
+ * so most packets stay in their chunk. The plugin and DataManager are mocks answering from a real
+ * {@link ClaimIndex}; the current handler pays their dispatch on every packet, the old one never.
+ * Neither variant sends messages: no civilization resolves, and the old handler only records the change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PlayerMoveBenchmark {
+    
+    private static final int PLAYERS = 300;
+    private static final int MOVES = 400;
+    private static final int EVENTS = PLAYERS * MOVES;
+    private static final double STEP = 0.2;
+    
+    // Player by player interleaved, the way packets arrive within a tick
+    private PlayerMoveEvent[] events;
+    private PlayerListener listener;
+    // DataManager.claims as it was before the claim index
+    private Map<String, Claim> legacy;
+    
+    @Setup
+    public void setUp() {
+        World world = BukkitFakes.world("world");
+        ClaimIndex index = new ClaimIndex();
+        legacy = new ConcurrentHashMap<>();
+        
+        // Every other 4x4-chunk square is a territory, the rest wilderness
+        for (int x = -64; x < 64; x++) {
+            for (int z = -64; z < 64; z++) {
+                int squareX = Math.floorDiv(x, 4);
+                int squareZ = Math.floorDiv(z, 4);
+                if (((squareX + squareZ) & 1) == 0) {
+                    Claim claim = new Claim("world", x, z, "civ-" + squareX + ":" + squareZ);
+                    index.put(claim);
+                    legacy.put(claim.getClaimKey(), claim);
+                }
+            }
+        }
+        
+        Random random = new Random(42);
+        events = new PlayerMoveEvent[EVENTS];
+        for (int p = 0; p < PLAYERS; p++) {
+            Player player = BukkitFakes.player(new UUID(random.nextLong(), random.nextLong()), world);
+            double x = random.nextInt(1600) - 800;
+            double z = random.nextInt(1600) - 800;
+            double angle = random.nextDouble() * Math.PI * 2;
+            double dx = Math.cos(angle) * STEP;
+            double dz = Math.sin(angle) * STEP;
+            
+            // Out for half the moves and back again, so replaying the sequence never jumps
+            Location from = new Location(world, x, 64, z);
+            for (int m = 0; m < MOVES; m++) {
+                double sign = m < MOVES / 2 ? 1 : -1;
+                Location to = new Location(world, from.getX() + dx * sign, 64, from.getZ() + dz * sign);
+                events[m * PLAYERS + p] = new PlayerMoveEvent(player, from, to);
+                from = to;
+            }
+        }
+        
+        CivilizationMC plugin = mock(CivilizationMC.class);
+        DataManager dataManager = mock(DataManager.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("PlayerMoveBenchmark"));
+        when(plugin.getDataManager()).thenReturn(dataManager);
+        when(dataManager.getProtectionEpoch()).thenReturn(0L);
+        when(dataManager.getClaim(any(World.class), anyInt(), anyInt())).thenAnswer(call ->
+                index.get(call.<World>getArgument(0), call.<Integer>getArgument(1), call.<Integer>getArgument(2)));
+        when(dataManager.getClaim(any(Location.class))).thenAnswer(call -> {
+            Location location = call.getArgument(0);
+            return index.get(location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        });
+        listener = new PlayerListener(plugin);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void legacyHandler(Blackhole blackhole) {
+        for (PlayerMoveEvent event : events) {
+            legacyMove(event, blackhole);
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void currentHandler() {
+        for (PlayerMoveEvent event : events) {
+            listener.onPlayerMove(event);
+        }
+    }
+    
+    // PlayerListener.onPlayerMove before per-player territory state; handleClaimEntry replaced by the blackhole
+    private void legacyMove(PlayerMoveEvent event, Blackhole blackhole) {
+        if (event.getFrom().getChunk().equals(event.getTo().getChunk())) {
+            return;
+        }
+        
+        Claim fromClaim = legacyGetClaim(event.getFrom());
+        Claim toClaim = legacyGetClaim(event.getTo());
+        if (fromClaim != toClaim) {
+            blackhole.consume(toClaim);
+        }
+    }
+    
+    private Claim legacyGetClaim(Location location) {
+        if (location == null || location.getWorld() == null) return null;
+        
+        int chunkX = location.getChunk().getX();
+        int chunkZ = location.getChunk().getZ();
+        String worldName = location.getWorld().getName();
+        
+        return legacy.get(worldName + ":" + chunkX + ":" + chunkZ);
+    }
+}
\ No newline at end of file
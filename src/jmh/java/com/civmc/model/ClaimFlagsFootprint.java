@@ -0,0 +1,71 @@
+package com.civmc.model;
+
+import com.civmc.data.storage.json.JsonCodec;
+import com.google.gson.Gson;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.Random;
+
+/**
+ * Retained heap of the flags of a 100k-claim dataset, before and after ClaimFlags became an interned bitfield.
+ * Both sides load the same JSON: the old one with plain Gson into the old field-per-flag class,
+ * the new one through JsonCodec and ClaimFlagsAdapter. Sizes come from JOL and include the 100k-slot array.
+ * Run with: mvn -P jmh test-compile exec:exec -Djmh.main=com.civmc.model.ClaimFlagsFootprint [-Djmh.args=claims]
+ */
+public final class ClaimFlagsFootprint {
+    
+    public static void main(String[] args) {
+        int claims = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        
+        // Defaults everywhere, except pvp switched on in one claim in ten
+        Gson legacyGson = new Gson();
+        Random random = new Random(42);
+        String[] dataset = new String[claims];
+        for (int i = 0; i < claims; i++) {
+            LegacyClaimFlags flags = new LegacyClaimFlags();
+            if (random.nextInt(10) == 0) {
+                flags.pvp = ClaimFlags.FlagValue.ON;
+            }
+            dataset[i] = legacyGson.toJson(flags);
+        }
+        
+        Object[] before = new Object[claims];
+        for (int i = 0; i < claims; i++) {
+            before[i] = legacyGson.fromJson(dataset[i], LegacyClaimFlags.class);
+        }
+        
+        Gson gson = new JsonCodec(false, false).getGson();
+        Object[] after = new Object[claims];
+        for (int i = 0; i < claims; i++) {
+            after[i] = gson.fromJson(dataset[i], ClaimFlags.class);
+        }
+        
+        report("before (field per flag)", GraphLayout.parseInstance((Object) before), claims);
+        report("after (interned bitfield)", GraphLayout.parseInstance((Object) after), claims);
+    }
+    
+    private static void report(String label, GraphLayout layout, int claims) {
+        System.out.printf("%-26s %,12d bytes  %,9d objects  %6.1f bytes/claim%n",
+                label, layout.totalSize(), layout.totalCount(), layout.totalSize() / (double) claims);
+    }
+    
+    // ClaimFlags as it was before the bitfield: one object per claim, as Gson created it
+    private static final class LegacyClaimFlags {
+        private ClaimFlags.FlagValue pvp = ClaimFlags.FlagValue.INHERIT;
+        private boolean explosionsBlocked = true;
+        private ClaimFlags.AccessLevel interact = ClaimFlags.AccessLevel.MEMBERS_ONLY;
+        private ClaimFlags.AccessLevel containers = ClaimFlags.AccessLevel.MEMBERS_ONLY;
+        private ClaimFlags.AccessLevel redstone = ClaimFlags.AccessLevel.MEMBERS_ONLY;
+        private boolean mobSpawnHostile = true;
+        private boolean mobSpawnPassive = true;
+        private boolean fireSpread;
+        private boolean blockSpread;
+        private boolean fluidFlow;
+        private boolean explosions = true;
+        private boolean monsterSpawn = true;
+        private boolean animalSpawn = true;
+        private boolean potions;
+        private String entryMessage = "";
+        private String exitMessage = "";
+    }
+}
\ No newline at end of file
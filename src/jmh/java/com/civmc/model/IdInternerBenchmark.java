@@ -0,0 +1,73 @@
+package com.civmc.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A playerToCiv lookup for an online player, as every listener does per event: keyed by
+ * getUniqueId().toString() before IdInterner, by {@link IdInterner#of(UUID)} now.
+ * 5000 civilization members, 300 of them online.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class IdInternerBenchmark {
+    
+    private static final int MEMBERS = 5000;
+    private static final int ONLINE = 300;
+    
+    private UUID[] online;
+    // DataManager.playerToCiv
+    private Map<String, String> playerToCiv;
+    
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        playerToCiv = new ConcurrentHashMap<>();
+        online = new UUID[ONLINE];
+        for (int i = 0; i < MEMBERS; i++) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            playerToCiv.put(IdInterner.intern(uuid.toString()), IdInterner.intern("civ-" + (i % 100)));
+            if (i < ONLINE) {
+                online[i] = uuid;
+                // As on join: the player's string is cached from then on
+                IdInterner.of(uuid);
+            }
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ONLINE)
+    public void toStringLookup(Blackhole blackhole) {
+        for (UUID uuid : online) {
+            blackhole.consume(playerToCiv.get(uuid.toString()));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ONLINE)
+    public void internedLookup(Blackhole blackhole) {
+        for (UUID uuid : online) {
+            blackhole.consume(playerToCiv.get(IdInterner.of(uuid)));
+        }
+    }
+}
\ No newline at end of file
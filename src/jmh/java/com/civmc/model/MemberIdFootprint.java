@@ -0,0 +1,68 @@
+package com.civmc.model;
+
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Retained heap of the member ids held by DataManager.playerToCiv and the civilizations' member sets,
+ * with a separate String per holder as loaders produced them, and with ids interned through {@link IdInterner}.
+ * Sizes come from JOL and cover the maps and sets as well as the strings.
+ * Run with: mvn -P jmh test-compile exec:exec -Djmh.main=com.civmc.model.MemberIdFootprint [-Djmh.args=members]
+ */
+public final class MemberIdFootprint {
+    
+    private static final int CIVILIZATIONS = 100;
+    
+    public static void main(String[] args) {
+        int members = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        
+        Random random = new Random(42);
+        String[] ids = new String[members];
+        for (int i = 0; i < members; i++) {
+            ids[i] = new UUID(random.nextLong(), random.nextLong()).toString();
+        }
+        
+        Object before = build(ids, false);
+        Object after = build(ids, true);
+        
+        report("before (copy per holder)", GraphLayout.parseInstance(before), members);
+        report("after (interned)", GraphLayout.parseInstance(after), members);
+    }
+    
+    private static Object[] build(String[] ids, boolean intern) {
+        Map<String, String> playerToCiv = new ConcurrentHashMap<>();
+        @SuppressWarnings("unchecked")
+        Set<String>[] roles = new Set[CIVILIZATIONS];
+        String[] civIds = new String[CIVILIZATIONS];
+        for (int c = 0; c < CIVILIZATIONS; c++) {
+            roles[c] = ConcurrentHashMap.newKeySet();
+            civIds[c] = "civ-" + c;
+        }
+        
+        for (int i = 0; i < ids.length; i++) {
+            int civ = i % CIVILIZATIONS;
+            // Each loader deserialized its own copy of the id, characters included
+            String indexed = new String(ids[i].toCharArray());
+            String member = new String(ids[i].toCharArray());
+            String civId = new String(civIds[civ].toCharArray());
+            if (intern) {
+                indexed = IdInterner.intern(indexed);
+                member = IdInterner.intern(member);
+                civId = IdInterner.intern(civId);
+            }
+            playerToCiv.put(indexed, civId);
+            roles[civ].add(member);
+        }
+        return new Object[] {playerToCiv, roles};
+    }
+    
+    private static void report(String label, GraphLayout layout, int members) {
+        System.out.printf("%-26s %,12d bytes  %,9d objects  %6.1f bytes/member%n",
+                label, layout.totalSize(), layout.totalCount(), layout.totalSize() / (double) members);
+    }
+}
\ No newline at end of file
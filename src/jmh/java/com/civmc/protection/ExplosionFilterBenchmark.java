@@ -0,0 +1,135 @@
+package com.civmc.protection;
+
+import com.civmc.BukkitFakes;
+import com.civmc.CivilizationMC;
+import com.civmc.config.ConfigManager;
+import com.civmc.data.DataManager;
+import com.civmc.data.index.ClaimIndex;
+import com.civmc.model.Claim;
+import com.civmc.model.ClaimFlags;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cost of filtering one explosion's block list: the old per-block getClaim(block.getLocation()) against
+ * {@link ProtectionService#removeExplosionProtected}, for blasts of one TNT up to a cannon volley.
+ * The blast sits on a corner of four chunks, two of them claimed with explosions off.
+ * The plugin and DataManager are mocks answering from a real {@link ClaimIndex}; the new filter pays
+ * their dispatch once per event and chunk, the old one is measured without it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ExplosionFilterBenchmark {
+    
+    @Param({"64", "256", "1024"})
+    public int blastSize;
+    
+    private List<Block> blast;
+    private ProtectionService protection;
+    // DataManager.claims as it was before the claim index
+    private Map<String, Claim> legacy;
+    
+    @Setup
+    public void setUp() {
+        World world = BukkitFakes.world("world");
+        ClaimIndex index = new ClaimIndex();
+        legacy = new ConcurrentHashMap<>();
+        
+        ClaimFlags protectedFlags = ClaimFlags.defaults().toBuilder().setExplosions(false).build();
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            // Background claims away from the blast, so the index has a realistic size
+            Claim claim = new Claim("world", 100 + random.nextInt(500), 100 + random.nextInt(500), "civ-" + (i % 200));
+            index.put(claim);
+            legacy.put(claim.getClaimKey(), claim);
+        }
+        for (int[] chunk : new int[][] {{0, 0}, {-1, 0}}) {
+            Claim claim = new Claim("world", chunk[0], chunk[1], "defender");
+            claim.setFlags(protectedFlags);
+            index.put(claim);
+            legacy.put(claim.getClaimKey(), claim);
+        }
+        
+        // Blocks of a sphere around the chunk corner at block (0, 64, 0)
+        blast = new ArrayList<>();
+        int radius = (int) Math.ceil(Math.cbrt(blastSize * 3 / (4 * Math.PI))) + 1;
+        for (int x = -radius; x <= radius; x++) {
+            for (int y = -radius; y <= radius; y++) {
+                for (int z = -radius; z <= radius; z++) {
+                    if (x * x + y * y + z * z <= radius * radius) {
+                        blast.add(BukkitFakes.block(world, x, 64 + y, z));
+                    }
+                }
+            }
+        }
+        // The server orders blocks by the rays that reached them, not by chunk
+        Collections.shuffle(blast, random);
+        blast = new ArrayList<>(blast.subList(0, Math.min(blastSize, blast.size())));
+        
+        CivilizationMC plugin = mock(CivilizationMC.class);
+        ConfigManager config = mock(ConfigManager.class);
+        DataManager dataManager = mock(DataManager.class);
+        when(plugin.getConfigManager()).thenReturn(config);
+        when(plugin.getDataManager()).thenReturn(dataManager);
+        when(dataManager.getClaim(any(World.class), anyInt(), anyInt())).thenAnswer(call ->
+                index.get(call.<World>getArgument(0), call.<Integer>getArgument(1), call.<Integer>getArgument(2)));
+        protection = new ProtectionService(plugin);
+    }
+    
+    @Benchmark
+    public int legacyPerBlock() {
+        List<Block> blocks = new ArrayList<>(blast);
+        blocks.removeIf(block -> {
+            Claim claim = legacyGetClaim(block.getLocation());
+            return claim != null && !claim.getFlags().isExplosions();
+        });
+        return blocks.size();
+    }
+    
+    @Benchmark
+    public int batchedByChunk() {
+        List<Block> blocks = new ArrayList<>(blast);
+        protection.removeExplosionProtected(blocks);
+        return blocks.size();
+    }
+    
+    // The listeners' getClaim(Location) before the claim index
+    private Claim legacyGetClaim(Location location) {
+        if (location == null || location.getWorld() == null) return null;
+        
+        int chunkX = location.getChunk().getX();
+        int chunkZ = location.getChunk().getZ();
+        String worldName = location.getWorld().getName();
+        
+        return legacy.get(worldName + ":" + chunkX + ":" + chunkZ);
+    }
+}
\ No newline at end of file
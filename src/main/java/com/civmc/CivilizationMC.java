@@ -9,6 +9,7 @@ import com.civmc.listeners.*;
 import com.civmc.manager.CivilizationManager;
 import com.civmc.messages.MessageManager;
 import com.civmc.placeholders.CivPlaceholders;
+import com.civmc.protection.ProtectionService;
 import net.milkbowl.vault.economy.Economy;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.RegisteredServiceProvider;
@@ -24,6 +25,7 @@ public class CivilizationMC extends JavaPlugin {
     private DataManager dataManager;
     private CivilizationManager civilizationManager;
     private EconomyManager economyManager;
+    private ProtectionService protectionService;
     private Economy economy;
     private Logger logger;
     
@@ -70,9 +72,8 @@ public class CivilizationMC extends JavaPlugin {
     public void onDisable() {
         logger.info("Disabling CivilizationMC...");
         
-        // Save all data
+        // Drain pending writes and save all data
         if (dataManager != null) {
-            dataManager.saveAll();
             dataManager.close();
         }
         
@@ -108,6 +109,9 @@ public class CivilizationMC extends JavaPlugin {
             // Economy manager
             economyManager = new EconomyManager(this);
             
+            // Protection checks shared by the listeners
+            protectionService = new ProtectionService(this);
+            
             return true;
         } catch (Exception e) {
             logger.severe("Error initializing managers: " + e.getMessage());
@@ -152,8 +156,8 @@ public class CivilizationMC extends JavaPlugin {
         
         Bukkit.getScheduler().runTaskTimerAsynchronously(this, () -> {
             if (dataManager != null) {
-                dataManager.saveAll();
-                logger.info("Auto-saved civilization data.");
+                int saved = dataManager.saveDirty();
+                logger.info("Auto-saved " + saved + " changed entities in " + dataManager.getLastFlushMillis() + "ms.");
             }
         }, interval, interval);
         
@@ -169,6 +173,10 @@ public class CivilizationMC extends JavaPlugin {
         return configManager;
     }
     
+    public ProtectionService getProtectionService() {
+        return protectionService;
+    }
+    
     public MessageManager getMessageManager() {
         return messageManager;
     }
@@ -1,7 +1,11 @@
 package com.civmc.commands;
 
 import com.civmc.CivilizationMC;
+import com.civmc.data.DataManager;
+import com.civmc.data.PersistenceExecutor;
 import com.civmc.model.Civilization;
+import com.civmc.protection.ProtectionService;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -11,6 +15,7 @@ import org.bukkit.entity.Player;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class CivAdminCommand implements CommandExecutor, TabCompleter {
@@ -56,6 +61,8 @@ public class CivAdminCommand implements CommandExecutor, TabCompleter {
                 return handleForceJoin(sender, args);
             case "backup":
                 return handleBackup(sender);
+            case "migrate":
+                return handleMigrate(sender, args);
             case "debug":
                 return handleDebug(sender);
             case "help":
@@ -77,6 +84,7 @@ public class CivAdminCommand implements CommandExecutor, TabCompleter {
             plugin.getConfigManager().reload();
             plugin.getMessageManager().reload();
             plugin.getCivilizationManager().reloadConfiguration();
+            plugin.getProtectionService().reload();
             sender.sendMessage(ChatColor.GREEN + "Configuration reloaded successfully!");
         } catch (Exception e) {
             sender.sendMessage(ChatColor.RED + "Failed to reload configuration: " + e.getMessage());
@@ -153,6 +161,8 @@ public class CivAdminCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(ChatColor.YELLOW + "Claims: " + ChatColor.WHITE + civ.getClaims().size());
         sender.sendMessage(ChatColor.YELLOW + "Wars: " + ChatColor.WHITE + civ.getWars().size());
         sender.sendMessage(ChatColor.YELLOW + "Allies: " + ChatColor.WHITE + civ.getAllies().size());
+        sender.sendMessage(ChatColor.YELLOW + "Spawns Blocked: " + ChatColor.WHITE +
+                plugin.getProtectionService().getSpawnVetoes(civ.getUuid()) + ChatColor.GRAY + " (since startup)");
         sender.sendMessage(ChatColor.YELLOW + "Created: " + ChatColor.WHITE + new java.util.Date(civ.getCreatedAt()));
         
         // Leader info
@@ -379,6 +389,41 @@ public class CivAdminCommand implements CommandExecutor, TabCompleter {
         return true;
     }
     
+    private boolean handleMigrate(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("civilization.admin.migrate")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to migrate storage!");
+            return true;
+        }
+        
+        if (args.length < 2) {
+            sender.sendMessage(ChatColor.RED + "Usage: /cvadmin migrate <json|sqlite|mysql> [restart]");
+            return true;
+        }
+        
+        String storageType = args[1];
+        boolean restart = args.length >= 3 && args[2].equalsIgnoreCase("restart");
+        sender.sendMessage(ChatColor.YELLOW + "Migrating data to " + storageType.toUpperCase() + " in the background...");
+        
+        // Progress messages are relayed back to the main thread
+        Consumer<String> progress = message -> Bukkit.getScheduler().runTask(plugin, () ->
+                sender.sendMessage(ChatColor.GRAY + "[Migration] " + ChatColor.WHITE + message));
+        
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            boolean success = plugin.getDataManager().migrateStorage(storageType, restart, progress);
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (success) {
+                    sender.sendMessage(ChatColor.GREEN + "Migration finished. Changes made until the server stops " +
+                            "are copied over on shutdown; set storage.type to " + storageType.toUpperCase() +
+                            " and restart to switch over.");
+                } else {
+                    sender.sendMessage(ChatColor.RED + "Migration did not complete. Check the console for details.");
+                }
+            });
+        });
+        
+        return true;
+    }
+    
     private boolean handleDebug(CommandSender sender) {
         if (!sender.hasPermission("civilization.admin.reload")) {
             sender.sendMessage(ChatColor.RED + "You don't have permission!");
@@ -391,6 +436,25 @@ public class CivAdminCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage("Test prefix: " + plugin.getMessageManager().getMessage("prefix"));
         sender.sendMessage("Test help message: " + plugin.getMessageManager().getMessage("no-permission"));
         
+        DataManager dataManager = plugin.getDataManager();
+        sender.sendMessage("Last autosave: " + dataManager.getLastFlushEntities() + " entities in " +
+                dataManager.getLastFlushMillis() + "ms");
+        sender.sendMessage("Autosaves: " + dataManager.getTotalFlushes() + " runs, " +
+                dataManager.getTotalFlushedEntities() + " entities written");
+        
+        PersistenceExecutor persistence = dataManager.getPersistenceExecutor();
+        sender.sendMessage("Persistence queue: " + persistence.getQueueDepth() + "/" + persistence.getCapacity() +
+                " (peak " + persistence.getPeakDepth() + ")");
+        sender.sendMessage("Persistence tasks: " + persistence.getCompleted() + " done, " +
+                persistence.getCoalesced() + " coalesced, " + persistence.getFailed() + " failed, " +
+                persistence.getRejected() + " rejected, " + persistence.getBackpressureWaits() + " backpressure waits");
+        
+        ProtectionService protection = plugin.getProtectionService();
+        sender.sendMessage("Protection cache: " + protection.getHits() + " hits, " + protection.getMisses() +
+                " misses, " + protection.getBypassed() + " bypassed, " + protection.getInvalidations() +
+                " invalidations (" + protection.getCachedPlayers() + " players)");
+        sender.sendMessage("Spawns blocked by claims: " + protection.getTotalSpawnVetoes());
+        
         return true;
     }
     
@@ -399,6 +463,7 @@ public class CivAdminCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage(ChatColor.YELLOW + "/cvadmin reload" + ChatColor.WHITE + " - Reload configuration");
         sender.sendMessage(ChatColor.YELLOW + "/cvadmin save" + ChatColor.WHITE + " - Force save all data");
         sender.sendMessage(ChatColor.YELLOW + "/cvadmin backup" + ChatColor.WHITE + " - Create data backup");
+        sender.sendMessage(ChatColor.YELLOW + "/cvadmin migrate <type> [restart]" + ChatColor.WHITE + " - Copy data to another storage type");
         sender.sendMessage(ChatColor.YELLOW + "/cvadmin list" + ChatColor.WHITE + " - List all civilizations");
         sender.sendMessage(ChatColor.YELLOW + "/cvadmin info <civ>" + ChatColor.WHITE + " - Detailed civilization info");
         sender.sendMessage(ChatColor.YELLOW + "/cvadmin delete <civ>" + ChatColor.WHITE + " - Delete civilization");
@@ -414,7 +479,7 @@ public class CivAdminCommand implements CommandExecutor, TabCompleter {
         
         if (args.length == 1) {
             List<String> subcommands = Arrays.asList(
-                    "reload", "save", "backup", "list", "info", "delete", "setlevel", 
+                    "reload", "save", "backup", "migrate", "list", "info", "delete", "setlevel", 
                     "setmoney", "addmoney", "forcejoin", "help"
             );
             return subcommands.stream()
@@ -424,6 +489,10 @@ public class CivAdminCommand implements CommandExecutor, TabCompleter {
         
         if (args.length == 2) {
             switch (args[0].toLowerCase()) {
+                case "migrate":
+                    return Arrays.asList("json", "sqlite", "mysql").stream()
+                            .filter(type -> type.startsWith(args[1].toLowerCase()))
+                            .collect(Collectors.toList());
                 case "forcejoin":
                     return plugin.getServer().getOnlinePlayers().stream()
                             .map(Player::getName)
@@ -1,6 +1,7 @@
 package com.civmc.commands;
 
 import com.civmc.CivilizationMC;
+import com.civmc.data.index.Leaderboards;
 import com.civmc.economy.EconomyManager;
 import com.civmc.manager.CivilizationManager;
 import com.civmc.manager.CivilizationManager.CreateCivilizationResult;
@@ -243,19 +244,36 @@ public class CivCommand implements CommandExecutor, TabCompleter {
             return true;
         }
         
-        List<Civilization> topCivs = civManager.getTopCivilizations(10);
+        Leaderboards.Metric metric = args.length > 1 ? Leaderboards.Metric.fromName(args[1]) : Leaderboards.Metric.MEMBERS;
+        if (metric == null) {
+            player.sendMessage(ChatColor.RED + "Usage: /cv list [members|claims|level|bank]");
+            return true;
+        }
+        
+        List<Civilization> topCivs = civManager.getTopCivilizations(metric, 10);
         
         if (topCivs.isEmpty()) {
             player.sendMessage(ChatColor.YELLOW + "No civilizations exist yet!");
             return true;
         }
         
-        player.sendMessage(ChatColor.GOLD + "=== Top Civilizations ===");
+        player.sendMessage(ChatColor.GOLD + "=== Top Civilizations (" + metric.name().toLowerCase() + ") ===");
         for (int i = 0; i < topCivs.size(); i++) {
             Civilization civ = topCivs.get(i);
+            String detail;
+            switch (metric) {
+                case LEVEL:
+                    detail = "level " + civ.getLevel();
+                    break;
+                case BANK:
+                    detail = plugin.getEconomyManager().formatMoney(civ.getBankBalance());
+                    break;
+                default:
+                    detail = civ.getTotalMemberCount() + " members, " + civ.getClaims().size() + " claims";
+                    break;
+            }
             player.sendMessage(ChatColor.YELLOW + String.valueOf(i + 1) + ". " + ChatColor.WHITE + civ.getName() + 
-                    ChatColor.GRAY + " (" + civ.getTotalMemberCount() + " members, " + 
-                    civ.getClaims().size() + " claims)");
+                    ChatColor.GRAY + " (" + detail + ")");
         }
         
         return true;
@@ -1301,6 +1319,11 @@ public class CivCommand implements CommandExecutor, TabCompleter {
                             .map(Player::getName)
                             .filter(name -> name.toLowerCase().startsWith(args[1].toLowerCase()))
                             .collect(Collectors.toList());
+                case "list":
+                    return Arrays.stream(Leaderboards.Metric.values())
+                            .map(metric -> metric.name().toLowerCase())
+                            .filter(name -> name.startsWith(args[1].toLowerCase()))
+                            .collect(Collectors.toList());
                 case "info":
                     return plugin.getDataManager().getAllCivilizations().values().stream()
                             .map(Civilization::getName)
@@ -94,6 +94,50 @@ public class ConfigManager {
         return config.getString("storage.mysql.password", "");
     }
     
+    public int getDatabasePoolSize() {
+        return Math.max(1, config.getInt("storage.mysql.pool-size", 10));
+    }
+    
+    public int getDatabaseConnectionTimeoutSeconds() {
+        return Math.max(1, config.getInt("storage.mysql.connection-timeout-seconds", 10));
+    }
+    
+    public boolean isJsonWriteBehind() {
+        return config.getBoolean("storage.json.write-behind", true);
+    }
+    
+    public int getJsonFlushIntervalSeconds() {
+        return Math.max(1, config.getInt("storage.json.flush-interval-seconds", 5));
+    }
+    
+    public boolean isJsonPrettyPrint() {
+        return config.getBoolean("storage.json.pretty", false);
+    }
+    
+    public boolean isJsonGzip() {
+        return config.getBoolean("storage.json.gzip", false);
+    }
+    
+    public boolean isJournalEnabled() {
+        return config.getBoolean("storage.journal.enabled", true);
+    }
+    
+    public boolean isJournalFsync() {
+        return config.getBoolean("storage.journal.fsync", false);
+    }
+    
+    public int getJournalCompactSizeMb() {
+        return Math.max(1, config.getInt("storage.journal.compact-size-mb", 16));
+    }
+    
+    public int getMigrationBatchSize() {
+        return Math.max(1, config.getInt("storage.migration.batch-size", 500));
+    }
+    
+    public int getPersistenceQueueSize() {
+        return Math.max(16, config.getInt("performance.persistence-queue-size", 10000));
+    }
+    
     // Economy settings
     public boolean isEconomyEnabled() {
         return config.getBoolean("economy.enabled", true);
@@ -168,6 +212,20 @@ public class ConfigManager {
         return config.getInt("protection.message-cooldown-seconds", 2);
     }
     
+    public boolean isWildernessBuildingAllowed() {
+        return config.getBoolean("protection.allow-wilderness-building", true);
+    }
+    
+    public boolean isWildernessInteractionAllowed() {
+        return config.getBoolean("protection.allow-wilderness-interaction", true);
+    }
+    
+    // Material name patterns for one classification category; the built-in list applies when unset
+    public List<String> getMaterialPatterns(String category, List<String> defaults) {
+        String path = "protection.materials." + category;
+        return config.isList(path) ? config.getStringList(path) : defaults;
+    }
+    
     // War settings
     public boolean isWarEnabled() {
         return config.getBoolean("war.enabled", true);
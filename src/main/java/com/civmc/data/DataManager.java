@@ -5,14 +5,42 @@ import com.civmc.data.storage.StorageProvider;
 import com.civmc.data.storage.JsonStorageProvider;
 import com.civmc.data.storage.SQLiteStorageProvider;
 import com.civmc.data.storage.MySQLStorageProvider;
+import com.civmc.data.storage.StorageMigrator;
+import com.civmc.data.index.CivilizationNameIndex;
+import com.civmc.data.index.ClaimIndex;
+import com.civmc.data.index.Leaderboards;
+import com.civmc.data.index.OwnerIndex;
+import com.civmc.data.journal.JournalRecord;
+import com.civmc.data.journal.MutationJournal;
 import com.civmc.model.*;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 public class DataManager {
@@ -27,32 +55,69 @@ public class DataManager {
     private final Map<String, War> wars = new ConcurrentHashMap<>();
     private final Map<String, Invitation> invitations = new ConcurrentHashMap<>();
     
+    // Read-only live views handed out by the getAll* methods, so callers never copy a whole map
+    private final Map<String, Civilization> civilizationsView = Collections.unmodifiableMap(civilizations);
+    private final Map<String, Claim> claimsView = Collections.unmodifiableMap(claims);
+    private final Map<String, War> warsView = Collections.unmodifiableMap(wars);
+    private final Map<String, Invitation> invitationsView = Collections.unmodifiableMap(invitations);
+    
+    // Spatial index for protection checks (world id + packed chunk key)
+    private final ClaimIndex claimIndex = new ClaimIndex();
+    private final CivilizationNameIndex civNames = new CivilizationNameIndex();
+    private final Leaderboards leaderboards = new Leaderboards();
+    
+    // Secondary indexes, kept in step with the maps above by the save and delete methods
+    private final OwnerIndex claimsByCiv = new OwnerIndex(); // civUUID -> claim keys
+    private final OwnerIndex warsByCiv = new OwnerIndex(); // civUUID -> war ids, both sides
+    private final OwnerIndex invitationsByTarget = new OwnerIndex(); // playerUUID -> invitation ids
+    // Earliest expiry first; entries of deleted or re-saved invitations are skipped when they come up
+    private final PriorityQueue<InvitationExpiry> invitationExpiry =
+            new PriorityQueue<>(Comparator.comparingLong(entry -> entry.expiresAt));
+    
     // Player mappings
     private final Map<String, String> playerToCiv = new ConcurrentHashMap<>(); // playerUUID -> civUUID
     
+    // Single writer for all storage operations
+    private static final String ALL_KEYS = "*";
+    private static final String DELTA_KEY = "delta";
+    private final PersistenceExecutor persistence;
+    
+    // Write-ahead journal of mutations (null when disabled)
+    private MutationJournal journal;
+    private final Object flushLock = new Object();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    // Deletes that could not be queued or applied; the journal may not be enabled to cover them
+    private final Queue<JournalRecord> deferredDeletes = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean migrating = new AtomicBoolean();
+    // Storage type of the last verified migration; its copy is brought up to date by close()
+    private volatile String migrationTarget;
+    // Deletes since that migration's snapshot; the catch-up's full save would not remove them from the target
+    private final Queue<JournalRecord> migrationDeletes = new ConcurrentLinkedQueue<>();
+    
+    // Bumped whenever a claim, trust or membership may have changed; protection caches compare against it
+    private final AtomicLong protectionEpoch = new AtomicLong();
+    
+    // Autosave metrics
+    private volatile int lastFlushEntities;
+    private volatile int lastDeltaSaved;
+    private volatile long lastFlushMillis;
+    private final AtomicLong totalFlushes = new AtomicLong();
+    private final AtomicLong totalFlushedEntities = new AtomicLong();
+    
     public DataManager(CivilizationMC plugin) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
+        this.persistence = new PersistenceExecutor(logger, plugin.getConfigManager().getPersistenceQueueSize());
     }
     
     public boolean initialize() {
         try {
             String storageType = plugin.getConfigManager().getStorageType();
             
-            switch (storageType.toUpperCase()) {
-                case "JSON":
-                    storageProvider = new JsonStorageProvider(plugin);
-                    break;
-                case "SQLITE":
-                    storageProvider = new SQLiteStorageProvider(plugin);
-                    break;
-                case "MYSQL":
-                    storageProvider = new MySQLStorageProvider(plugin);
-                    break;
-                default:
-                    logger.warning("Unknown storage type: " + storageType + ". Using JSON.");
-                    storageProvider = new JsonStorageProvider(plugin);
-                    break;
+            storageProvider = createStorageProvider(storageType);
+            if (storageProvider == null) {
+                logger.warning("Unknown storage type: " + storageType + ". Using JSON.");
+                storageProvider = new JsonStorageProvider(plugin);
             }
             
             if (!storageProvider.initialize()) {
@@ -61,6 +126,7 @@ public class DataManager {
             }
             
             loadData();
+            openJournal();
             
             logger.info("DataManager initialized with " + storageType + " storage.");
             return true;
@@ -71,83 +137,249 @@ public class DataManager {
         }
     }
     
-    private void loadData() {
+    private StorageProvider createStorageProvider(String storageType) {
+        switch (storageType.toUpperCase()) {
+            case "JSON":
+                return new JsonStorageProvider(plugin);
+            case "SQLITE":
+                return new SQLiteStorageProvider(plugin);
+            case "MYSQL":
+                return new MySQLStorageProvider(plugin);
+            default:
+                return null;
+        }
+    }
+    
+    // Copies the current data into another storage type; blocks until verified, so run it off the main thread
+    public boolean migrateStorage(String storageType, boolean restart, Consumer<String> progress) {
+        StorageProvider target = createStorageProvider(storageType);
+        if (target == null) {
+            progress.accept("Unknown storage type: " + storageType);
+            return false;
+        }
+        if (target.getClass() == storageProvider.getClass()) {
+            progress.accept("Data is already stored as " + storageType.toUpperCase());
+            return false;
+        }
+        if (!migrating.compareAndSet(false, true)) {
+            progress.accept("A migration is already running");
+            return false;
+        }
+        
+        // Recorded from before the snapshot, so no delete can fall between the copy and the catch-up
+        String previousTarget = migrationTarget;
+        migrationTarget = storageType.toUpperCase();
+        boolean verified = false;
         try {
-            // Load civilizations
-            Map<String, Civilization> loadedCivs = storageProvider.loadCivilizations();
-            civilizations.clear();
-            civilizations.putAll(loadedCivs);
+            // Make sure the source holds everything that is in memory right now
+            saveAll();
+            if (!storageProvider.flush()) {
+                progress.accept("Could not flush the current storage; nothing was migrated");
+                return false;
+            }
             
-            // Build player -> civ mapping
-            playerToCiv.clear();
-            for (Civilization civ : civilizations.values()) {
-                for (String playerUUID : civ.getAllMembers()) {
-                    playerToCiv.put(playerUUID, civ.getUuid());
+            StorageMigrator migrator = new StorageMigrator(logger, storageProvider, target,
+                    plugin.getConfigManager().getMigrationBatchSize(),
+                    new File(plugin.getDataFolder(), StorageMigrator.CHECKPOINT_FILE), progress);
+            if (restart) {
+                migrator.discardCheckpoint();
+            }
+            verified = migrator.migrate();
+            return verified;
+        } catch (Exception e) {
+            logger.severe("Migration failed: " + e.getMessage());
+            e.printStackTrace();
+            progress.accept("Migration failed: " + e.getMessage());
+            return false;
+        } finally {
+            target.close();
+            if (!verified) {
+                migrationTarget = previousTarget;
+                if (previousTarget == null) {
+                    migrationDeletes.clear();
                 }
             }
+            migrating.set(false);
+        }
+    }
+    
+    private void loadData() {
+        long started = System.nanoTime();
+        Map<String, Long> timings = new ConcurrentHashMap<>();
+        
+        // The four entity sets are independent, so they are read concurrently
+        ExecutorService loader = Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "CivilizationMC-Load");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        try {
+            CompletableFuture<Map<String, Civilization>> civsFuture =
+                    timed("civilizations", timings, storageProvider::loadCivilizations, loader);
+            CompletableFuture<Map<String, Claim>> claimsFuture =
+                    timed("claims", timings, storageProvider::loadClaims, loader);
+            CompletableFuture<Map<String, War>> warsFuture =
+                    timed("wars", timings, storageProvider::loadWars, loader);
+            CompletableFuture<Map<String, Invitation>> invitationsFuture =
+                    timed("invitations", timings, storageProvider::loadInvitations, loader);
             
-            // Load claims
-            Map<String, Claim> loadedClaims = storageProvider.loadClaims();
-            claims.clear();
-            claims.putAll(loadedClaims);
+            // Each index is built as soon as its source set is available
+            CompletableFuture<Void> playerIndex = civsFuture.thenAcceptAsync(loadedCivs -> {
+                long phaseStart = System.nanoTime();
+                civilizations.clear();
+                civilizations.putAll(loadedCivs);
+                
+                playerToCiv.clear();
+                civNames.clear();
+                leaderboards.clear();
+                for (Civilization civ : loadedCivs.values()) {
+                    civ.markPersisted(civ.getVersion());
+                    civNames.update(civ.getUuid(), civ.getName());
+                    leaderboards.update(civ);
+                    for (String playerUUID : civ.getAllMembers()) {
+                        playerToCiv.put(playerUUID, civ.getUuid());
+                    }
+                }
+                timings.put("player-index", elapsedMillis(phaseStart));
+            }, loader);
             
-            // Load wars
-            Map<String, War> loadedWars = storageProvider.loadWars();
-            wars.clear();
-            wars.putAll(loadedWars);
+            CompletableFuture<Void> spatialIndex = claimsFuture.thenAcceptAsync(loadedClaims -> {
+                long phaseStart = System.nanoTime();
+                claims.clear();
+                claims.putAll(loadedClaims);
+                claimIndex.rebuild(loadedClaims.values());
+                claimsByCiv.clear();
+                loadedClaims.forEach((key, claim) -> claimsByCiv.put(key, claim.getCivId()));
+                loadedClaims.values().forEach(claim -> claim.markPersisted(claim.getVersion()));
+                timings.put("spatial-index", elapsedMillis(phaseStart));
+            }, loader);
             
-            // Load invitations
-            Map<String, Invitation> loadedInvitations = storageProvider.loadInvitations();
-            invitations.clear();
-            invitations.putAll(loadedInvitations);
+            CompletableFuture<Void> warsLoaded = warsFuture.thenAccept(loadedWars -> {
+                wars.clear();
+                wars.putAll(loadedWars);
+                warsByCiv.clear();
+                loadedWars.values().forEach(this::indexWar);
+                loadedWars.values().forEach(war -> war.markPersisted(war.getVersion()));
+            });
             
-            // Clean expired invitations
-            cleanExpiredInvitations();
+            CompletableFuture<Void> invitationsLoaded = invitationsFuture.thenAccept(loadedInvitations -> {
+                invitations.clear();
+                invitations.putAll(loadedInvitations);
+                invitationsByTarget.clear();
+                synchronized (invitationExpiry) {
+                    invitationExpiry.clear();
+                }
+                loadedInvitations.values().forEach(this::indexInvitation);
+                loadedInvitations.values().forEach(invitation -> invitation.markPersisted(invitation.getVersion()));
+                
+                // Clean expired invitations
+                cleanExpiredInvitations();
+            });
+            
+            CompletableFuture.allOf(playerIndex, spatialIndex, warsLoaded, invitationsLoaded).join();
+            
+            long verifyStart = System.nanoTime();
+            verifyClaimOwnership();
+            timings.put("verify", elapsedMillis(verifyStart));
             
             logger.info("Loaded " + civilizations.size() + " civilizations, " + 
                        claims.size() + " claims, " + 
                        wars.size() + " wars, " + 
-                       invitations.size() + " invitations");
+                       invitations.size() + " invitations in " + elapsedMillis(started) + "ms");
+            logger.info("Load phases: " + formatTimings(timings));
                        
         } catch (Exception e) {
-            logger.severe("Failed to load data: " + e.getMessage());
-            e.printStackTrace();
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            logger.severe("Failed to load data: " + cause.getMessage());
+            cause.printStackTrace();
+        } finally {
+            loader.shutdown();
+        }
+    }
+    
+    private <T> CompletableFuture<T> timed(String phase, Map<String, Long> timings, Supplier<T> task, ExecutorService executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            long phaseStart = System.nanoTime();
+            T result = task.get();
+            timings.put(phase, elapsedMillis(phaseStart));
+            return result;
+        }, executor);
+    }
+    
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+    
+    private static String formatTimings(Map<String, Long> timings) {
+        StringBuilder builder = new StringBuilder();
+        for (String phase : new String[] {"civilizations", "claims", "wars", "invitations", "player-index", "spatial-index", "verify"}) {
+            Long millis = timings.get(phase);
+            if (millis == null) continue;
+            
+            if (builder.length() > 0) builder.append(", ");
+            builder.append(phase).append('=').append(millis).append("ms");
         }
+        return builder.toString();
     }
     
+    // The claim map is authoritative: repair each civilization's claim set against it
+    private void verifyClaimOwnership() {
+        int missing = 0;
+        int stale = 0;
+        int orphaned = 0;
+        
+        for (Claim claim : claims.values()) {
+            Civilization owner = civilizations.get(claim.getCivId());
+            if (owner == null) {
+                orphaned++;
+            } else if (owner.getClaims().add(claim.getClaimKey())) {
+                owner.markDirty();
+                missing++;
+            }
+        }
+        
+        for (Civilization civ : civilizations.values()) {
+            for (String claimKey : civ.getClaims()) {
+                Claim claim = claims.get(claimKey);
+                if (claim == null || !civ.getUuid().equals(claim.getCivId())) {
+                    civ.getClaims().remove(claimKey);
+                    civ.markDirty();
+                    stale++;
+                }
+            }
+        }
+        
+        if (missing > 0 || stale > 0) {
+            logger.warning("Repaired civilization claim sets: " + missing + " missing and " + stale + " stale entries");
+        }
+        if (orphaned > 0) {
+            logger.warning(orphaned + " claims belong to civilizations that no longer exist");
+        }
+    }
+    
+    // Full saves go through the writer queue too, so they never race per-entity writes
     public void saveAll() {
         try {
             CompletableFuture.allOf(
-                CompletableFuture.runAsync(() -> {
-                    try {
-                        storageProvider.saveCivilizations(civilizations);
-                    } catch (Exception e) {
-                        logger.severe("Failed to save civilizations: " + e.getMessage());
-                        e.printStackTrace();
+                persistence.submitBlocking(PersistenceExecutor.Lane.CIVILIZATIONS, ALL_KEYS, () -> {
+                    if (!storageProvider.saveCivilizations(civilizations)) {
+                        throw new IllegalStateException("Failed to save civilizations");
                     }
                 }),
-                CompletableFuture.runAsync(() -> {
-                    try {
-                        storageProvider.saveClaims(claims);
-                    } catch (Exception e) {
-                        logger.severe("Failed to save claims: " + e.getMessage());
-                        e.printStackTrace();
+                persistence.submitBlocking(PersistenceExecutor.Lane.CLAIMS, ALL_KEYS, () -> {
+                    if (!storageProvider.saveClaims(claims)) {
+                        throw new IllegalStateException("Failed to save claims");
                     }
                 }),
-                CompletableFuture.runAsync(() -> {
-                    try {
-                        storageProvider.saveWars(wars);
-                    } catch (Exception e) {
-                        logger.severe("Failed to save wars: " + e.getMessage());
-                        e.printStackTrace();
+                persistence.submitBlocking(PersistenceExecutor.Lane.WARS, ALL_KEYS, () -> {
+                    if (!storageProvider.saveWars(wars)) {
+                        throw new IllegalStateException("Failed to save wars");
                     }
                 }),
-                CompletableFuture.runAsync(() -> {
-                    try {
-                        storageProvider.saveInvitations(invitations);
-                    } catch (Exception e) {
-                        logger.severe("Failed to save invitations: " + e.getMessage());
-                        e.printStackTrace();
+                persistence.submitBlocking(PersistenceExecutor.Lane.INVITATIONS, ALL_KEYS, () -> {
+                    if (!storageProvider.saveInvitations(invitations)) {
+                        throw new IllegalStateException("Failed to save invitations");
                     }
                 })
             ).join();
@@ -159,9 +391,137 @@ public class DataManager {
         }
     }
     
+    // Autosave: writes only entities changed since their last successful delta save.
+    // Runs on the writer thread, so it never races the per-entity writes queued there; blocks until done
+    public int saveDirty() {
+        if (persistence.isWriterThread()) {
+            return flushDirty();
+        }
+        
+        try {
+            persistence.submitBlocking(PersistenceExecutor.Lane.JOURNAL, DELTA_KEY, this::runDeltaSave).join();
+            return lastDeltaSaved;
+        } catch (CompletionException e) {
+            logger.severe("Failed to save changed data: " + e.getMessage());
+            return 0;
+        }
+    }
+    
+    // Shared by autosave and early compaction, so either one may replace the other while queued
+    private void runDeltaSave() {
+        try {
+            lastDeltaSaved = flushDirty();
+        } finally {
+            compacting.set(false);
+        }
+    }
+    
+    private int flushDirty() {
+        synchronized (flushLock) {
+            long started = System.nanoTime();
+            
+            // Seal first so every journaled mutation is covered by the snapshot below
+            boolean sealed = journal != null && journal.seal();
+            
+            Map<Versioned, Long> versions = new IdentityHashMap<>();
+            List<Civilization> dirtyCivs = collectDirty(civilizations.values(), versions);
+            List<Claim> dirtyClaims = collectDirty(claims.values(), versions);
+            List<War> dirtyWars = collectDirty(wars.values(), versions);
+            List<Invitation> dirtyInvitations = collectDirty(invitations.values(), versions);
+            
+            try {
+                // Deletes go first, so a key deleted and put again within the segment is written by the snapshot
+                boolean deleted = !sealed || applyDeletes(journal.getSealedDeletes()).isEmpty();
+                List<JournalRecord> deferred = new ArrayList<>();
+                JournalRecord record;
+                while ((record = deferredDeletes.poll()) != null) {
+                    deferred.add(record);
+                }
+                deferredDeletes.addAll(applyDeletes(deferred));
+                if (!versions.isEmpty() && !storageProvider.saveChanges(dirtyCivs, dirtyClaims, dirtyWars, dirtyInvitations)) {
+                    logger.warning("Autosave failed; " + versions.size() + " changed entities will be retried");
+                    return 0;
+                }
+                if (!storageProvider.flush()) {
+                    logger.warning("Autosave could not flush storage; " + versions.size() + " changed entities will be retried");
+                    return 0;
+                }
+                // The sealed segment is the only durable copy of its mutations until all of them reached storage
+                if (sealed) {
+                    if (deleted) {
+                        journal.discardSealed();
+                    } else {
+                        logger.warning("Some journaled deletes could not be applied; keeping the sealed journal segment");
+                    }
+                }
+            } catch (Exception e) {
+                logger.severe("Failed to save changed data: " + e.getMessage());
+                e.printStackTrace();
+                return 0;
+            }
+            
+            // Entities modified while the write was running keep a newer version and stay dirty
+            versions.forEach(Versioned::markPersisted);
+            recordFlush(versions.size(), started);
+            return versions.size();
+        }
+    }
+    
+    private static <T extends Versioned> List<T> collectDirty(Collection<T> entities, Map<Versioned, Long> versions) {
+        List<T> dirty = new ArrayList<>();
+        for (T entity : entities) {
+            if (entity.isDirty()) {
+                versions.put(entity, entity.getVersion());
+                dirty.add(entity);
+            }
+        }
+        return dirty;
+    }
+    
+    private void recordFlush(int entities, long startNanos) {
+        lastFlushEntities = entities;
+        lastFlushMillis = elapsedMillis(startNanos);
+        totalFlushes.incrementAndGet();
+        totalFlushedEntities.addAndGet(entities);
+    }
+    
+    public int getLastFlushEntities() {
+        return lastFlushEntities;
+    }
+    
+    public long getLastFlushMillis() {
+        return lastFlushMillis;
+    }
+    
+    public long getTotalFlushes() {
+        return totalFlushes.get();
+    }
+    
+    public long getTotalFlushedEntities() {
+        return totalFlushedEntities.get();
+    }
+    
+    public long getProtectionEpoch() {
+        return protectionEpoch.get();
+    }
+    
+    public PersistenceExecutor getPersistenceExecutor() {
+        return persistence;
+    }
+    
     public void close() {
         try {
+            // Wait for queued writes; later saves run on this thread
+            persistence.drain(30, TimeUnit.SECONDS);
             saveAll();
+            if (journal != null) {
+                // Leaves an empty journal behind when the final delta save succeeds
+                saveDirty();
+                journal.close();
+            }
+            if (migrationTarget != null) {
+                catchUpMigration();
+            }
             if (storageProvider != null) {
                 storageProvider.close();
             }
@@ -171,8 +531,253 @@ public class DataManager {
         }
     }
     
+    // Writes made after a migration's snapshot only reached the current storage; copy them before the switch-over
+    private void catchUpMigration() {
+        String storageType = migrationTarget;
+        StorageProvider target = createStorageProvider(storageType);
+        if (!target.initialize()) {
+            logger.severe("Failed to open " + storageType + " storage to copy changes made since the migration; " +
+                    "run /cvadmin migrate " + storageType.toLowerCase() + " restart before switching");
+            return;
+        }
+        
+        try {
+            // Deletes first, so a key deleted and created again is written by the full save below
+            boolean written = true;
+            JournalRecord record;
+            while ((record = migrationDeletes.poll()) != null) {
+                if (isLive(record.getType(), record.getKey())) continue;
+                written &= deleteFrom(target, record.getType(), record.getKey());
+            }
+            written &= target.saveCivilizations(civilizations)
+                    & target.saveClaims(claims)
+                    & target.saveWars(wars)
+                    & target.saveInvitations(invitations)
+                    & target.flush();
+            
+            if (written) {
+                logger.info("Copied changes made since the migration to " + storageType + " storage.");
+            } else {
+                logger.severe("Failed to copy all changes made since the migration to " + storageType + " storage; " +
+                        "run /cvadmin migrate " + storageType.toLowerCase() + " restart before switching");
+            }
+        } catch (Exception e) {
+            logger.severe("Failed to copy changes made since the migration: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            target.close();
+        }
+    }
+    
+    private void openJournal() throws IOException {
+        if (!plugin.getConfigManager().isJournalEnabled()) {
+            return;
+        }
+        
+        journal = new MutationJournal(logger, plugin.getDataFolder(),
+                plugin.getConfigManager().isJournalFsync(),
+                plugin.getConfigManager().getJournalCompactSizeMb() * 1024L * 1024L);
+        
+        long started = System.nanoTime();
+        int replayed = journal.replay(this::applyJournalRecord);
+        journal.open();
+        
+        if (replayed > 0) {
+            verifyClaimOwnership();
+            logger.info("Replayed " + replayed + " journal records in " + elapsedMillis(started) + "ms");
+            
+            // Fold the recovered mutations into the snapshot right away
+            saveDirty();
+        }
+    }
+    
+    // Applies a recovered mutation to the in-memory state only; saveDirty persists it afterwards
+    private void applyJournalRecord(JournalRecord record) {
+        boolean put = record.getOperation() == JournalRecord.Operation.PUT;
+        String key = record.getKey();
+        
+        switch (record.getType()) {
+            case CIVILIZATION:
+                Civilization previous = put
+                        ? civilizations.put(key, (Civilization) record.getValue())
+                        : civilizations.remove(key);
+                if (previous != null) {
+                    for (String playerUUID : previous.getAllMembers()) {
+                        playerToCiv.remove(playerUUID, key);
+                    }
+                }
+                if (put) {
+                    Civilization civ = (Civilization) record.getValue();
+                    civNames.update(key, civ.getName());
+                    leaderboards.update(civ);
+                    for (String playerUUID : civ.getAllMembers()) {
+                        playerToCiv.put(playerUUID, key);
+                    }
+                    civ.markDirty();
+                } else {
+                    civNames.remove(key);
+                    leaderboards.remove(key);
+                }
+                break;
+            case CLAIM:
+                // Claim records also stand for the owner's claim-set change, which is not journaled separately
+                Claim removed = claims.remove(key);
+                if (removed != null) {
+                    claimIndex.remove(removed);
+                    claimsByCiv.remove(key);
+                    Civilization owner = civilizations.get(removed.getCivId());
+                    if (owner != null && owner.getClaims().remove(key)) {
+                        owner.markDirty();
+                        leaderboards.update(owner);
+                    }
+                }
+                if (put) {
+                    Claim claim = (Claim) record.getValue();
+                    claims.put(key, claim);
+                    claimIndex.put(claim);
+                    claimsByCiv.put(key, claim.getCivId());
+                    claim.markDirty();
+                    Civilization owner = civilizations.get(claim.getCivId());
+                    if (owner != null && owner.getClaims().add(key)) {
+                        owner.markDirty();
+                        leaderboards.update(owner);
+                    }
+                }
+                break;
+            case WAR:
+                if (put) {
+                    War war = (War) record.getValue();
+                    wars.put(key, war);
+                    indexWar(war);
+                    war.markDirty();
+                } else {
+                    wars.remove(key);
+                    warsByCiv.remove(key);
+                }
+                break;
+            case INVITATION:
+                if (put) {
+                    Invitation invitation = (Invitation) record.getValue();
+                    invitations.put(key, invitation);
+                    indexInvitation(invitation);
+                    invitation.markDirty();
+                } else {
+                    invitations.remove(key);
+                    invitationsByTarget.remove(key);
+                }
+                break;
+        }
+    }
+    
+    // Called with flushLock held, before the dirty snapshot is written; returns the deletes storage refused
+    private List<JournalRecord> applyDeletes(List<JournalRecord> deletes) {
+        // Deletes are not part of the dirty snapshot, so replay them against storage before dropping the segment
+        List<JournalRecord> failed = new ArrayList<>();
+        for (JournalRecord record : deletes) {
+            // Put again after the delete; the live entity is dirty and goes out with the snapshot
+            if (isLive(record.getType(), record.getKey())) continue;
+            
+            if (!deleteFromStorage(record.getType(), record.getKey())) {
+                failed.add(record);
+            }
+        }
+        return failed;
+    }
+    
+    // A delete the queue rejected or storage refused is retried by the next delta save
+    private void submitDelete(PersistenceExecutor.Lane lane, JournalRecord.EntityType type, String key) {
+        persistence.submit(lane, key, () -> {
+            if (!deleteFromStorage(type, key)) {
+                throw new IllegalStateException("Failed to delete " + type.name().toLowerCase() + " " + key);
+            }
+        }).whenComplete((ignored, error) -> {
+            if (error != null) {
+                deferredDeletes.add(new JournalRecord(JournalRecord.Operation.DELETE, type, key, null));
+            }
+        });
+    }
+    
+    private boolean deleteFromStorage(JournalRecord.EntityType type, String key) {
+        if (migrationTarget != null) {
+            migrationDeletes.add(new JournalRecord(JournalRecord.Operation.DELETE, type, key, null));
+        }
+        return deleteFrom(storageProvider, type, key);
+    }
+    
+    private static boolean deleteFrom(StorageProvider provider, JournalRecord.EntityType type, String key) {
+        switch (type) {
+            case CIVILIZATION:
+                return provider.deleteCivilization(key);
+            case CLAIM:
+                return provider.deleteClaim(key);
+            case WAR:
+                return provider.deleteWar(key);
+            default:
+                return provider.deleteInvitation(key);
+        }
+    }
+    
+    private boolean isLive(JournalRecord.EntityType type, String key) {
+        switch (type) {
+            case CIVILIZATION:
+                return civilizations.containsKey(key);
+            case CLAIM:
+                return claims.containsKey(key);
+            case WAR:
+                return wars.containsKey(key);
+            default:
+                return invitations.containsKey(key);
+        }
+    }
+    
+    private void journalPut(JournalRecord.EntityType type, String key, Object value) {
+        if (journal == null) return;
+        journal.put(type, key, value);
+        compactIfNeeded();
+    }
+    
+    private void journalDelete(JournalRecord.EntityType type, String key) {
+        if (journal == null) return;
+        journal.delete(type, key);
+        compactIfNeeded();
+    }
+    
+    // Compacts early when the journal outgrows its threshold between autosaves
+    private void compactIfNeeded() {
+        if (journal.needsCompaction() && compacting.compareAndSet(false, true)) {
+            // Rejected when the queue is full; the next autosave compacts instead
+            persistence.submit(PersistenceExecutor.Lane.JOURNAL, DELTA_KEY, this::runDeltaSave)
+                    .exceptionally(e -> {
+                        compacting.set(false);
+                        return null;
+                    });
+        }
+    }
+    
+    // Pops only the invitations that are due, instead of scanning all of them
     private void cleanExpiredInvitations() {
-        invitations.entrySet().removeIf(entry -> entry.getValue().isExpired());
+        long now = System.currentTimeMillis();
+        synchronized (invitationExpiry) {
+            InvitationExpiry head;
+            while ((head = invitationExpiry.peek()) != null && head.expiresAt < now) {
+                invitationExpiry.poll();
+                Invitation invitation = invitations.get(head.id);
+                if (invitation != null && invitation.isExpired() && invitations.remove(head.id, invitation)) {
+                    invitationsByTarget.remove(head.id);
+                }
+            }
+        }
+    }
+    
+    private void indexWar(War war) {
+        warsByCiv.put(war.getId(), war.getCivA(), war.getCivB());
+    }
+    
+    private void indexInvitation(Invitation invitation) {
+        invitationsByTarget.put(invitation.getId(), invitation.getTargetUUID());
+        synchronized (invitationExpiry) {
+            invitationExpiry.add(new InvitationExpiry(invitation.getId(), invitation.getExpiresAt()));
+        }
     }
     
     // Civilization methods
@@ -181,10 +786,8 @@ public class DataManager {
     }
     
     public Civilization getCivilizationByName(String name) {
-        return civilizations.values().stream()
-                .filter(civ -> civ.getName().equalsIgnoreCase(name))
-                .findFirst()
-                .orElse(null);
+        String civUUID = civNames.get(name);
+        return civUUID != null ? civilizations.get(civUUID) : null;
     }
     
     public Civilization getPlayerCivilization(String playerUUID) {
@@ -193,7 +796,13 @@ public class DataManager {
     }
     
     public void saveCivilization(Civilization civilization) {
+        civilization.markDirty();
+        protectionEpoch.incrementAndGet();
         civilizations.put(civilization.getUuid(), civilization);
+        // Also drops the previous name after a rename
+        civNames.update(civilization.getUuid(), civilization.getName());
+        // Every member, claim, level and bank change ends in a save, so rankings are refreshed here
+        leaderboards.update(civilization);
         
         // Update player mappings
         playerToCiv.entrySet().removeIf(entry -> entry.getValue().equals(civilization.getUuid()));
@@ -201,13 +810,25 @@ public class DataManager {
             playerToCiv.put(playerUUID, civilization.getUuid());
         }
         
+        journalPut(JournalRecord.EntityType.CIVILIZATION, civilization.getUuid(), civilization);
+        writeCivilization(civilization);
+    }
+    
+    // A claim added to or removed from a civilization; the claim's own journal record carries the change,
+    // so the whole civilization is not serialized into the journal on every claim
+    private void saveClaimSet(Civilization civilization) {
+        civilization.markDirty();
+        leaderboards.update(civilization);
+        writeCivilization(civilization);
+    }
+    
+    private void writeCivilization(Civilization civilization) {
         // Async save
         if (plugin.getConfigManager().getConfig().getBoolean("performance.async-saves", true)) {
-            CompletableFuture.runAsync(() -> {
-                try {
-                    storageProvider.saveCivilization(civilization);
-                } catch (Exception e) {
-                    logger.severe("Failed to save civilization " + civilization.getName() + ": " + e.getMessage());
+            // A rejected or failed write leaves the civilization dirty for the next delta save
+            persistence.submit(PersistenceExecutor.Lane.CIVILIZATIONS, civilization.getUuid(), () -> {
+                if (!storageProvider.saveCivilization(civilization)) {
+                    throw new IllegalStateException("Failed to save civilization " + civilization.getName());
                 }
             });
         } else {
@@ -222,33 +843,67 @@ public class DataManager {
     public void deleteCivilization(String uuid) {
         Civilization civ = civilizations.remove(uuid);
         if (civ != null) {
+            protectionEpoch.incrementAndGet();
+            civNames.remove(uuid);
+            leaderboards.remove(uuid);
+            
             // Remove player mappings
             for (String playerUUID : civ.getAllMembers()) {
                 playerToCiv.remove(playerUUID);
             }
             
             // Remove claims
-            civ.getClaims().forEach(claims::remove);
+            for (String claimKey : civ.getClaims()) {
+                Claim claim = claims.remove(claimKey);
+                if (claim != null) {
+                    claimIndex.remove(claim);
+                    claimsByCiv.remove(claimKey);
+                    journalDelete(JournalRecord.EntityType.CLAIM, claimKey);
+                    // Deleted from storage as deleteClaim does, so cleanup never depends on the journal
+                    submitDelete(PersistenceExecutor.Lane.CLAIMS, JournalRecord.EntityType.CLAIM, claimKey);
+                }
+            }
+            journalDelete(JournalRecord.EntityType.CIVILIZATION, uuid);
             
             // Async delete
-            CompletableFuture.runAsync(() -> {
-                try {
-                    storageProvider.deleteCivilization(uuid);
-                } catch (Exception e) {
-                    logger.severe("Failed to delete civilization: " + e.getMessage());
-                }
-            });
+            submitDelete(PersistenceExecutor.Lane.CIVILIZATIONS, JournalRecord.EntityType.CIVILIZATION, uuid);
         }
     }
     
+    // Live and unmodifiable; iteration is weakly consistent with concurrent saves
     public Map<String, Civilization> getAllCivilizations() {
-        return new ConcurrentHashMap<>(civilizations);
+        return civilizationsView;
     }
     
     // Claim methods
     public Claim getClaim(String world, int chunkX, int chunkZ) {
-        String key = world + ":" + chunkX + ":" + chunkZ;
-        return claims.get(key);
+        return claimIndex.get(world, chunkX, chunkZ);
+    }
+    
+    public Claim getClaim(World world, int chunkX, int chunkZ) {
+        return claimIndex.get(world, chunkX, chunkZ);
+    }
+    
+    // Bitmap check only, for hot paths that just need to know whether a chunk is wilderness
+    public boolean isClaimed(World world, int chunkX, int chunkZ) {
+        return claimIndex.isClaimed(world, chunkX, chunkZ);
+    }
+    
+    public boolean isMonsterSpawnBlocked(World world, int chunkX, int chunkZ) {
+        return claimIndex.isMonsterSpawnBlocked(world, chunkX, chunkZ);
+    }
+    
+    public boolean isAnimalSpawnBlocked(World world, int chunkX, int chunkZ) {
+        return claimIndex.isAnimalSpawnBlocked(world, chunkX, chunkZ);
+    }
+    
+    public Claim getClaim(Location location) {
+        if (location == null) return null;
+        World world = location.getWorld();
+        if (world == null) return null;
+        
+        // Block coordinates avoid Location#getChunk(), which may load the chunk
+        return claimIndex.get(world, location.getBlockX() >> 4, location.getBlockZ() >> 4);
     }
     
     public Claim getClaim(String claimKey) {
@@ -256,23 +911,27 @@ public class DataManager {
     }
     
     public void saveClaim(Claim claim) {
+        claim.markDirty();
+        protectionEpoch.incrementAndGet();
         String key = claim.getClaimKey();
         claims.put(key, claim);
+        claimIndex.put(claim);
+        claimsByCiv.put(key, claim.getCivId());
         
         // Add to civilization claims
         Civilization civ = getCivilization(claim.getCivId());
         if (civ != null) {
             civ.getClaims().add(key);
-            saveCivilization(civ);
+            saveClaimSet(civ);
         }
         
+        journalPut(JournalRecord.EntityType.CLAIM, key, claim);
+        
         // Async save
         if (plugin.getConfigManager().getConfig().getBoolean("performance.async-saves", true)) {
-            CompletableFuture.runAsync(() -> {
-                try {
-                    storageProvider.saveClaim(claim);
-                } catch (Exception e) {
-                    logger.severe("Failed to save claim: " + e.getMessage());
+            persistence.submit(PersistenceExecutor.Lane.CLAIMS, key, () -> {
+                if (!storageProvider.saveClaim(claim)) {
+                    throw new IllegalStateException("Failed to save claim " + key);
                 }
             });
         } else {
@@ -287,31 +946,35 @@ public class DataManager {
     public void deleteClaim(String claimKey) {
         Claim claim = claims.remove(claimKey);
         if (claim != null) {
+            claimIndex.remove(claim);
+            claimsByCiv.remove(claimKey);
+            protectionEpoch.incrementAndGet();
+            journalDelete(JournalRecord.EntityType.CLAIM, claimKey);
+            
             // Remove from civilization
             Civilization civ = getCivilization(claim.getCivId());
             if (civ != null) {
                 civ.getClaims().remove(claimKey);
-                saveCivilization(civ);
+                saveClaimSet(civ);
             }
             
-            CompletableFuture.runAsync(() -> {
-                try {
-                    storageProvider.deleteClaim(claimKey);
-                } catch (Exception e) {
-                    logger.severe("Failed to delete claim: " + e.getMessage());
-                }
-            });
+            submitDelete(PersistenceExecutor.Lane.CLAIMS, JournalRecord.EntityType.CLAIM, claimKey);
         }
     }
     
     public Set<Claim> getCivilizationClaims(String civUUID) {
-        return claims.values().stream()
-                .filter(claim -> claim.getCivId().equals(civUUID))
-                .collect(java.util.stream.Collectors.toSet());
+        Set<Claim> result = new HashSet<>();
+        for (String claimKey : claimsByCiv.get(civUUID)) {
+            Claim claim = claims.get(claimKey);
+            if (claim != null) {
+                result.add(claim);
+            }
+        }
+        return result;
     }
     
     public Map<String, Claim> getAllClaims() {
-        return new ConcurrentHashMap<>(claims);
+        return claimsView;
     }
     
     // War methods
@@ -320,37 +983,39 @@ public class DataManager {
     }
     
     public void saveWar(War war) {
+        war.markDirty();
         wars.put(war.getId(), war);
+        indexWar(war);
+        journalPut(JournalRecord.EntityType.WAR, war.getId(), war);
         
-        CompletableFuture.runAsync(() -> {
-            try {
-                storageProvider.saveWar(war);
-            } catch (Exception e) {
-                logger.severe("Failed to save war: " + e.getMessage());
+        persistence.submit(PersistenceExecutor.Lane.WARS, war.getId(), () -> {
+            if (!storageProvider.saveWar(war)) {
+                throw new IllegalStateException("Failed to save war " + war.getId());
             }
         });
     }
     
     public void deleteWar(String warId) {
         wars.remove(warId);
+        warsByCiv.remove(warId);
+        journalDelete(JournalRecord.EntityType.WAR, warId);
         
-        CompletableFuture.runAsync(() -> {
-            try {
-                storageProvider.deleteWar(warId);
-            } catch (Exception e) {
-                logger.severe("Failed to delete war: " + e.getMessage());
-            }
-        });
+        submitDelete(PersistenceExecutor.Lane.WARS, JournalRecord.EntityType.WAR, warId);
     }
     
     public List<War> getCivilizationWars(String civUUID) {
-        return wars.values().stream()
-                .filter(war -> war.isInvolvedCiv(civUUID))
-                .collect(java.util.stream.Collectors.toList());
+        List<War> result = new ArrayList<>();
+        for (String warId : warsByCiv.get(civUUID)) {
+            War war = wars.get(warId);
+            if (war != null) {
+                result.add(war);
+            }
+        }
+        return result;
     }
     
     public Map<String, War> getAllWars() {
-        return new ConcurrentHashMap<>(wars);
+        return warsView;
     }
     
     // Invitation methods
@@ -359,47 +1024,97 @@ public class DataManager {
     }
     
     public void saveInvitation(Invitation invitation) {
+        invitation.markDirty();
         invitations.put(invitation.getId(), invitation);
+        indexInvitation(invitation);
+        journalPut(JournalRecord.EntityType.INVITATION, invitation.getId(), invitation);
         
-        CompletableFuture.runAsync(() -> {
-            try {
-                storageProvider.saveInvitation(invitation);
-            } catch (Exception e) {
-                logger.severe("Failed to save invitation: " + e.getMessage());
+        persistence.submit(PersistenceExecutor.Lane.INVITATIONS, invitation.getId(), () -> {
+            if (!storageProvider.saveInvitation(invitation)) {
+                throw new IllegalStateException("Failed to save invitation " + invitation.getId());
             }
         });
     }
     
     public void deleteInvitation(String inviteId) {
         invitations.remove(inviteId);
+        invitationsByTarget.remove(inviteId);
+        journalDelete(JournalRecord.EntityType.INVITATION, inviteId);
         
-        CompletableFuture.runAsync(() -> {
-            try {
-                storageProvider.deleteInvitation(inviteId);
-            } catch (Exception e) {
-                logger.severe("Failed to delete invitation: " + e.getMessage());
-            }
-        });
+        submitDelete(PersistenceExecutor.Lane.INVITATIONS, JournalRecord.EntityType.INVITATION, inviteId);
     }
     
     public List<Invitation> getPlayerInvitations(String playerUUID) {
         cleanExpiredInvitations();
-        return invitations.values().stream()
-                .filter(invitation -> invitation.getTargetUUID().equals(playerUUID))
-                .collect(java.util.stream.Collectors.toList());
+        List<Invitation> result = new ArrayList<>();
+        for (String inviteId : invitationsByTarget.get(playerUUID)) {
+            Invitation invitation = invitations.get(inviteId);
+            if (invitation != null) {
+                result.add(invitation);
+            }
+        }
+        return result;
     }
     
     public Map<String, Invitation> getAllInvitations() {
-        return new ConcurrentHashMap<>(invitations);
+        return invitationsView;
+    }
+    
+    public List<Civilization> getTopCivilizations(Leaderboards.Metric metric, int limit) {
+        List<Civilization> result = new ArrayList<>();
+        for (String civUUID : leaderboards.top(metric, limit)) {
+            Civilization civ = civilizations.get(civUUID);
+            if (civ != null) {
+                result.add(civ);
+            }
+        }
+        return result;
+    }
+    
+    // Counts for placeholders and scoreboards; none of these iterates or copies
+    public int getCivilizationCount() {
+        return civilizations.size();
+    }
+    
+    public int getClaimCount() {
+        return claims.size();
+    }
+    
+    public int getWarCount() {
+        return wars.size();
+    }
+    
+    // Players in any civilization; playerToCiv is kept in step with every membership change
+    public int getTotalMemberCount() {
+        return playerToCiv.size();
     }
     
     // Utility methods
     public boolean isCivilizationNameTaken(String name) {
-        return civilizations.values().stream()
-                .anyMatch(civ -> civ.getName().equalsIgnoreCase(name));
+        return civNames.get(name) != null;
+    }
+    
+    // Atomically claims a name for a civilization about to be created or renamed;
+    // false if another civilization holds or has reserved it
+    public boolean reserveCivilizationName(String name, String civUUID) {
+        return civNames.reserve(name, civUUID);
+    }
+    
+    public void releaseCivilizationName(String name, String civUUID) {
+        civNames.release(name, civUUID);
     }
     
     public StorageProvider getStorageProvider() {
         return storageProvider;
     }
+    
+    private static final class InvitationExpiry {
+        private final String id;
+        private final long expiresAt;
+        
+        private InvitationExpiry(String id, long expiresAt) {
+            this.id = id;
+            this.expiresAt = expiresAt;
+        }
+    }
 }
\ No newline at end of file
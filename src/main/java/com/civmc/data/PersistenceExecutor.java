@@ -0,0 +1,238 @@
+package com.civmc.data;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Single writer thread for storage operations.
+ * Tasks run in submission order; a task submitted for a key that is still queued replaces the queued
+ * one in place (the latest state wins). Once the queue reaches its capacity, {@link #submit} rejects new
+ * keys instead of blocking (it is called from the server thread), while {@link #submitBlocking} waits.
+ * A task reports failure by throwing.
+ */
+public class PersistenceExecutor {
+    
+    public enum Lane {
+        CIVILIZATIONS, CLAIMS, WARS, INVITATIONS, JOURNAL
+    }
+    
+    private final Logger logger;
+    private final int capacity;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition idle = lock.newCondition();
+    private final Map<String, PendingTask> pending = new LinkedHashMap<>();
+    private final Thread writer;
+    private boolean accepting = true;
+    private boolean busy;
+    
+    // Metrics
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder backpressureWaits = new LongAdder();
+    private volatile int peakDepth;
+    
+    public PersistenceExecutor(Logger logger, int capacity) {
+        this.logger = logger;
+        this.capacity = capacity;
+        this.writer = new Thread(this::runLoop, "CivilizationMC-Persistence");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+    
+    // Never blocks; when the queue is full the future fails with RejectedExecutionException
+    public CompletableFuture<Void> submit(Lane lane, String key, Runnable task) {
+        return enqueue(lane, key, task, false);
+    }
+    
+    // For callers that wait for the result anyway; waits for room instead of failing
+    public CompletableFuture<Void> submitBlocking(Lane lane, String key, Runnable task) {
+        return enqueue(lane, key, task, true);
+    }
+    
+    private CompletableFuture<Void> enqueue(Lane lane, String key, Runnable task, boolean block) {
+        String taskKey = lane.name() + ":" + key;
+        submitted.increment();
+        
+        lock.lock();
+        try {
+            if (accepting) {
+                PendingTask queued = pending.get(taskKey);
+                if (queued != null) {
+                    queued.task = task;
+                    coalesced.increment();
+                    return queued.done;
+                }
+                
+                if (pending.size() >= capacity && !block) {
+                    rejected.increment();
+                    return CompletableFuture.failedFuture(new RejectedExecutionException("Persistence queue is full"));
+                }
+                if (pending.size() >= capacity) {
+                    backpressureWaits.increment();
+                    // The writer itself must never wait on its own queue
+                    while (pending.size() >= capacity && accepting && Thread.currentThread() != writer) {
+                        notFull.awaitUninterruptibly();
+                    }
+                }
+            }
+            
+            if (accepting) {
+                PendingTask created = new PendingTask(task);
+                pending.put(taskKey, created);
+                peakDepth = Math.max(peakDepth, pending.size());
+                notEmpty.signal();
+                return created.done;
+            }
+        } finally {
+            lock.unlock();
+        }
+        
+        // After shutdown, writes run on the caller so nothing is dropped
+        PendingTask inline = new PendingTask(task);
+        execute(inline);
+        return inline.done;
+    }
+    
+    // Stops accepting work and waits for everything already queued; returns false on timeout
+    public boolean drain(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        lock.lock();
+        try {
+            accepting = false;
+            notEmpty.signalAll();
+            notFull.signalAll();
+            
+            while (!pending.isEmpty() || busy) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    logger.warning("Persistence queue did not drain in time; " + pending.size() + " tasks left");
+                    return false;
+                }
+                idle.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void runLoop() {
+        while (true) {
+            PendingTask next;
+            lock.lock();
+            try {
+                while (pending.isEmpty() && accepting) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                
+                Iterator<PendingTask> iterator = pending.values().iterator();
+                next = iterator.next();
+                iterator.remove();
+                busy = true;
+                notFull.signal();
+            } finally {
+                lock.unlock();
+            }
+            
+            execute(next);
+            
+            lock.lock();
+            try {
+                busy = false;
+                if (pending.isEmpty()) {
+                    idle.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+    
+    private void execute(PendingTask pendingTask) {
+        try {
+            pendingTask.task.run();
+            completed.increment();
+            pendingTask.done.complete(null);
+        } catch (Exception e) {
+            failed.increment();
+            logger.severe("Persistence task failed: " + e.getMessage());
+            e.printStackTrace();
+            pendingTask.done.completeExceptionally(e);
+        }
+    }
+    
+    // Tasks that wait on the queue must run inline here instead
+    public boolean isWriterThread() {
+        return Thread.currentThread() == writer;
+    }
+    
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    public int getPeakDepth() {
+        return peakDepth;
+    }
+    
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+    
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+    
+    public long getCompleted() {
+        return completed.sum();
+    }
+    
+    public long getFailed() {
+        return failed.sum();
+    }
+    
+    public long getRejected() {
+        return rejected.sum();
+    }
+    
+    public long getBackpressureWaits() {
+        return backpressureWaits.sum();
+    }
+    
+    private static final class PendingTask {
+        private Runnable task;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        
+        private PendingTask(Runnable task) {
+            this.task = task;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,182 @@
+package com.civmc.data.index;
+
+import com.civmc.model.Claim;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing map from a packed chunk key to its claim.
+ * Reads are lock-free (optimistic) and never allocate; writes are serialized.
+ */
+public final class ChunkClaimMap {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final StampedLock lock = new StampedLock();
+    private Table table;
+    private int size;
+
+    public ChunkClaimMap() {
+        this.table = new Table(DEFAULT_CAPACITY);
+    }
+
+    public Claim get(long key) {
+        long stamp = lock.tryOptimisticRead();
+        Claim claim = find(table, key);
+        if (lock.validate(stamp)) {
+            return claim;
+        }
+
+        // A writer raced us - retry under the read lock
+        stamp = lock.readLock();
+        try {
+            return find(table, key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public Claim put(long key, Claim claim) {
+        long stamp = lock.writeLock();
+        try {
+            if ((size + 1) * 2 > table.keys.length) {
+                table = resize(table, table.keys.length * 2);
+            }
+
+            Table t = table;
+            int mask = t.keys.length - 1;
+            int index = mix(key) & mask;
+            while (t.values[index] != null) {
+                if (t.keys[index] == key) {
+                    Claim previous = t.values[index];
+                    t.values[index] = claim;
+                    return previous;
+                }
+                index = (index + 1) & mask;
+            }
+
+            t.keys[index] = key;
+            t.values[index] = claim;
+            size++;
+            return null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public Claim remove(long key) {
+        long stamp = lock.writeLock();
+        try {
+            Table t = table;
+            int mask = t.keys.length - 1;
+            int index = mix(key) & mask;
+            while (t.values[index] != null) {
+                if (t.keys[index] == key) {
+                    Claim previous = t.values[index];
+                    shiftBack(t, index);
+                    size--;
+                    return previous;
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            table = new Table(DEFAULT_CAPACITY);
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static Claim find(Table t, long key) {
+        long[] keys = t.keys;
+        Claim[] values = t.values;
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+
+        // Bounded probe so a torn optimistic read can never spin forever
+        for (int probes = 0; probes < keys.length; probes++) {
+            Claim claim = values[index];
+            if (claim == null) {
+                return null;
+            }
+            if (keys[index] == key) {
+                return claim;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    private static void shiftBack(Table t, int hole) {
+        int mask = t.keys.length - 1;
+        int index = hole;
+        while (true) {
+            index = (index + 1) & mask;
+            Claim claim = t.values[index];
+            if (claim == null) {
+                break;
+            }
+            int home = mix(t.keys[index]) & mask;
+            boolean movable = hole <= index
+                    ? home <= hole || home > index
+                    : home <= hole && home > index;
+            if (movable) {
+                t.keys[hole] = t.keys[index];
+                t.values[hole] = claim;
+                hole = index;
+            }
+        }
+        t.keys[hole] = 0L;
+        t.values[hole] = null;
+    }
+
+    private static Table resize(Table old, int capacity) {
+        Table t = new Table(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < old.keys.length; i++) {
+            Claim claim = old.values[i];
+            if (claim == null) continue;
+
+            int index = mix(old.keys[i]) & mask;
+            while (t.values[index] != null) {
+                index = (index + 1) & mask;
+            }
+            t.keys[index] = old.keys[i];
+            t.values[index] = claim;
+        }
+        return t;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static final class Table {
+        final long[] keys;
+        final Claim[] values;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Claim[capacity];
+        }
+    }
+}
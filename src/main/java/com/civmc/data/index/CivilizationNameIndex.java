@@ -0,0 +1,65 @@
+package com.civmc.data.index;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Case-insensitive civilization name -> civilization UUID.
+ * A name is reserved atomically before a civilization is created or renamed, so two concurrent
+ * requests cannot both take it; {@link #update} then moves the civilization's entry to its saved name.
+ */
+public class CivilizationNameIndex {
+
+    private final Map<String, String> idsByName = new ConcurrentHashMap<>();
+    // Normalized name each civilization is currently indexed under
+    private final Map<String, String> namesById = new ConcurrentHashMap<>();
+
+    public static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public String get(String name) {
+        return name == null ? null : idsByName.get(normalize(name));
+    }
+
+    // True if the name was free or is already held by this civilization
+    public boolean reserve(String name, String civId) {
+        String owner = idsByName.putIfAbsent(normalize(name), civId);
+        return owner == null || owner.equals(civId);
+    }
+
+    // Gives up a reservation that was never saved, e.g. because creation failed later on
+    public void release(String name, String civId) {
+        if (name == null) return;
+
+        String key = normalize(name);
+        if (!key.equals(namesById.get(civId))) {
+            idsByName.remove(key, civId);
+        }
+    }
+
+    public synchronized void update(String civId, String name) {
+        if (name == null) return;
+
+        String key = normalize(name);
+        String previous = namesById.put(civId, key);
+        if (previous != null && !previous.equals(key)) {
+            idsByName.remove(previous, civId);
+        }
+        // A duplicate in stored data keeps the civilization that was indexed first
+        idsByName.putIfAbsent(key, civId);
+    }
+
+    public synchronized void remove(String civId) {
+        String key = namesById.remove(civId);
+        if (key != null) {
+            idsByName.remove(key, civId);
+        }
+    }
+
+    public synchronized void clear() {
+        idsByName.clear();
+        namesById.clear();
+    }
+}
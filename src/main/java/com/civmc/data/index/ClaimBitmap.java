@@ -0,0 +1,192 @@
+package com.civmc.data.index;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Two-level bitmap of claimed chunks in one world: region (32x32 chunks) -> 1024-bit mask.
+ * Reads are a hash probe plus an array read and never allocate or lock. A write replaces the affected
+ * region with an updated copy in its table slot; only growing the table or dropping an emptied region
+ * copies the table. Bulk loads fill a {@link Builder} and publish it once.
+ */
+public final class ClaimBitmap {
+
+    private static final int REGION_SHIFT = 5;
+    private static final int REGION_MASK = (1 << REGION_SHIFT) - 1;
+    private static final int WORDS_PER_REGION = (1 << (REGION_SHIFT * 2)) / 64;
+    // Region slots are written with release and read with acquire, so a reader sees a region whole
+    private static final VarHandle REGIONS = MethodHandles.arrayElementVarHandle(long[][].class);
+
+    private volatile Table table = new Table(16);
+
+    public boolean isClaimed(int chunkX, int chunkZ) {
+        long[] bits = table.find(ClaimIndex.chunkKey(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT));
+        if (bits == null) {
+            return false;
+        }
+        int bit = bitIndex(chunkX, chunkZ);
+        return (bits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    public synchronized void set(int chunkX, int chunkZ) {
+        Table t = table;
+        long regionKey = ClaimIndex.chunkKey(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+        long[] current = t.find(regionKey);
+        int bit = bitIndex(chunkX, chunkZ);
+        if (current != null && (current[bit >>> 6] & (1L << bit)) != 0) {
+            return;
+        }
+
+        long[] bits = current != null ? current.clone() : new long[WORDS_PER_REGION];
+        bits[bit >>> 6] |= 1L << bit;
+
+        if (current == null && (t.size + 1) * 2 > t.keys.length) {
+            Table grown = t.resize(t.keys.length * 2);
+            grown.put(regionKey, bits);
+            table = grown;
+        } else {
+            // In place: readers probing this slot see the old region or the new one
+            t.put(regionKey, bits);
+        }
+    }
+
+    public synchronized void clear(int chunkX, int chunkZ) {
+        Table t = table;
+        long regionKey = ClaimIndex.chunkKey(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+        long[] current = t.find(regionKey);
+        int bit = bitIndex(chunkX, chunkZ);
+        if (current == null || (current[bit >>> 6] & (1L << bit)) == 0) {
+            return;
+        }
+
+        long[] bits = current.clone();
+        bits[bit >>> 6] &= ~(1L << bit);
+
+        if (isEmpty(bits)) {
+            // Removing breaks probe chains, so that one still goes through a copy
+            Table copy = t.copy();
+            copy.remove(regionKey);
+            table = copy;
+        } else {
+            t.put(regionKey, bits);
+        }
+    }
+
+    public synchronized void clearAll() {
+        table = new Table(16);
+    }
+
+    // Publishes everything the builder collected in one step; the builder must not be used afterwards
+    public synchronized void replaceWith(Builder builder) {
+        table = builder.table;
+    }
+
+    private static int bitIndex(int chunkX, int chunkZ) {
+        return ((chunkZ & REGION_MASK) << REGION_SHIFT) | (chunkX & REGION_MASK);
+    }
+
+    private static boolean isEmpty(long[] bits) {
+        for (long word : bits) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Collects chunks into a private table, setting bits in place without copying regions or the table.
+     */
+    public static final class Builder {
+        private Table table = new Table(16);
+
+        public void set(int chunkX, int chunkZ) {
+            long regionKey = ClaimIndex.chunkKey(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+            long[] bits = table.find(regionKey);
+            if (bits == null) {
+                if ((table.size + 1) * 2 > table.keys.length) {
+                    table = table.resize(table.keys.length * 2);
+                }
+                bits = new long[WORDS_PER_REGION];
+                table.put(regionKey, bits);
+            }
+            int bit = bitIndex(chunkX, chunkZ);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    // Open-addressing region table; published tables only get slots added or swapped, never moved
+    private static final class Table {
+        final long[] keys;
+        final long[][] regions;
+        int size;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.regions = new long[capacity][];
+        }
+
+        long[] find(long key) {
+            int mask = keys.length - 1;
+            int index = mix(key) & mask;
+            while (true) {
+                long[] bits = (long[]) REGIONS.getAcquire(regions, index);
+                if (bits == null || keys[index] == key) {
+                    return bits;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+
+        void put(long key, long[] bits) {
+            int mask = keys.length - 1;
+            int index = mix(key) & mask;
+            while (regions[index] != null) {
+                if (keys[index] == key) {
+                    REGIONS.setRelease(regions, index, bits);
+                    return;
+                }
+                index = (index + 1) & mask;
+            }
+            // Key first: a reader that sees the region also sees its key
+            keys[index] = key;
+            REGIONS.setRelease(regions, index, bits);
+            size++;
+        }
+
+        void remove(long key) {
+            // Rare enough that reinserting the remaining regions is simpler than backward shifting
+            long[] oldKeys = keys.clone();
+            long[][] oldRegions = regions.clone();
+            Arrays.fill(regions, null);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldRegions[i] != null && oldKeys[i] != key) {
+                    put(oldKeys[i], oldRegions[i]);
+                }
+            }
+        }
+
+        Table copy() {
+            Table t = new Table(keys.length);
+            System.arraycopy(keys, 0, t.keys, 0, keys.length);
+            System.arraycopy(regions, 0, t.regions, 0, regions.length);
+            t.size = size;
+            return t;
+        }
+
+        Table resize(int capacity) {
+            Table t = new Table(capacity);
+            for (int i = 0; i < keys.length; i++) {
+                if (regions[i] != null) {
+                    t.put(keys[i], regions[i]);
+                }
+            }
+            return t;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.civmc.data.index;
+
+import com.civmc.model.Claim;
+import com.civmc.model.ClaimFlags;
+import org.bukkit.World;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Spatial claim index: one {@link ChunkClaimMap} and one {@link ClaimBitmap} per world, worlds resolved
+ * to a small integer id. Lookups by {@link World} and chunk coordinates do not allocate, and lookups in
+ * unclaimed chunks are answered by the bitmap without probing the claim map.
+ * Each claim's spawn flags are compiled into two more bitmaps of chunks that refuse monsters or animals.
+ */
+public class ClaimIndex {
+
+    private final Map<String, Integer> worldIds = new ConcurrentHashMap<>();
+    private volatile ChunkClaimMap[] worlds = new ChunkClaimMap[0];
+    private volatile ClaimBitmap[] bitmaps = new ClaimBitmap[0];
+    private volatile ClaimBitmap[] monsterVetoes = new ClaimBitmap[0];
+    private volatile ClaimBitmap[] animalVetoes = new ClaimBitmap[0];
+    private volatile WorldRef[] worldRefs = new WorldRef[0];
+
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    public Claim get(World world, int chunkX, int chunkZ) {
+        int id = worldId(world);
+        // Most protection events happen in wilderness; the bitmap rejects those with a couple of array reads
+        if (id < 0 || !bitmaps[id].isClaimed(chunkX, chunkZ)) {
+            return null;
+        }
+        return worlds[id].get(chunkKey(chunkX, chunkZ));
+    }
+
+    public Claim get(String world, int chunkX, int chunkZ) {
+        Integer id = worldIds.get(world);
+        if (id == null || !bitmaps[id].isClaimed(chunkX, chunkZ)) {
+            return null;
+        }
+        return worlds[id].get(chunkKey(chunkX, chunkZ));
+    }
+
+    // Bitmap only: cheaper than get() when the claim itself is not needed
+    public boolean isClaimed(World world, int chunkX, int chunkZ) {
+        int id = worldId(world);
+        return id >= 0 && bitmaps[id].isClaimed(chunkX, chunkZ);
+    }
+
+    public boolean isMonsterSpawnBlocked(World world, int chunkX, int chunkZ) {
+        int id = worldId(world);
+        return id >= 0 && monsterVetoes[id].isClaimed(chunkX, chunkZ);
+    }
+
+    public boolean isAnimalSpawnBlocked(World world, int chunkX, int chunkZ) {
+        int id = worldId(world);
+        return id >= 0 && animalVetoes[id].isClaimed(chunkX, chunkZ);
+    }
+
+    public void put(Claim claim) {
+        int id = registerWorld(claim.getWorld());
+        // Bit before map on put, map before bit on remove: get() then never misses a claim that is in the map
+        bitmaps[id].set(claim.getChunkX(), claim.getChunkZ());
+        worlds[id].put(chunkKey(claim.getChunkX(), claim.getChunkZ()), claim);
+
+        // ClaimFlags is immutable: a flag change builds a new set via toBuilder(), hands it to Claim.setFlags
+        // and saves the claim, which puts it again and recompiles these
+        ClaimFlags flags = claim.getFlags();
+        setVeto(monsterVetoes[id], claim, flags != null && !flags.isMonsterSpawn());
+        setVeto(animalVetoes[id], claim, flags != null && !flags.isAnimalSpawn());
+    }
+
+    private static void setVeto(ClaimBitmap vetoes, Claim claim, boolean blocked) {
+        if (blocked) {
+            vetoes.set(claim.getChunkX(), claim.getChunkZ());
+        } else if (vetoes.isClaimed(claim.getChunkX(), claim.getChunkZ())) {
+            vetoes.clear(claim.getChunkX(), claim.getChunkZ());
+        }
+    }
+
+    public void remove(Claim claim) {
+        Integer id = worldIds.get(claim.getWorld());
+        if (id != null) {
+            worlds[id].remove(chunkKey(claim.getChunkX(), claim.getChunkZ()));
+            bitmaps[id].clear(claim.getChunkX(), claim.getChunkZ());
+            monsterVetoes[id].clear(claim.getChunkX(), claim.getChunkZ());
+            animalVetoes[id].clear(claim.getChunkX(), claim.getChunkZ());
+        }
+    }
+
+    public void rebuild(Iterable<Claim> claims) {
+        for (ChunkClaimMap map : worlds) {
+            map.clear();
+        }
+
+        // Bitmaps are filled privately and published once per world instead of updated claim by claim
+        Map<Integer, ClaimBitmap.Builder[]> builders = new HashMap<>();
+        for (Claim claim : claims) {
+            int id = registerWorld(claim.getWorld());
+            worlds[id].put(chunkKey(claim.getChunkX(), claim.getChunkZ()), claim);
+
+            ClaimBitmap.Builder[] world = builders.computeIfAbsent(id, key -> new ClaimBitmap.Builder[] {
+                    new ClaimBitmap.Builder(), new ClaimBitmap.Builder(), new ClaimBitmap.Builder()});
+            world[0].set(claim.getChunkX(), claim.getChunkZ());
+            ClaimFlags flags = claim.getFlags();
+            if (flags != null && !flags.isMonsterSpawn()) {
+                world[1].set(claim.getChunkX(), claim.getChunkZ());
+            }
+            if (flags != null && !flags.isAnimalSpawn()) {
+                world[2].set(claim.getChunkX(), claim.getChunkZ());
+            }
+        }
+
+        for (int id = 0; id < bitmaps.length; id++) {
+            ClaimBitmap.Builder[] world = builders.get(id);
+            if (world == null) {
+                bitmaps[id].clearAll();
+                monsterVetoes[id].clearAll();
+                animalVetoes[id].clearAll();
+                continue;
+            }
+            bitmaps[id].replaceWith(world[0]);
+            monsterVetoes[id].replaceWith(world[1]);
+            animalVetoes[id].replaceWith(world[2]);
+        }
+    }
+
+    public int size() {
+        int total = 0;
+        for (ChunkClaimMap map : worlds) {
+            total += map.size();
+        }
+        return total;
+    }
+
+    // Returns -1 when no claim was ever indexed in this world
+    public int worldId(World world) {
+        if (world == null) return -1;
+
+        WorldRef[] refs = worldRefs;
+        for (int i = 0; i < refs.length; i++) {
+            if (refs[i].world.get() == world) {
+                return refs[i].id;
+            }
+        }
+
+        Integer id = worldIds.get(world.getName());
+        if (id == null) {
+            return -1;
+        }
+        cacheWorld(world, id);
+        return id;
+    }
+
+    private synchronized int registerWorld(String worldName) {
+        Integer existing = worldIds.get(worldName);
+        if (existing != null) {
+            return existing;
+        }
+
+        int id = worlds.length;
+        ChunkClaimMap[] grown = Arrays.copyOf(worlds, id + 1);
+        grown[id] = new ChunkClaimMap();
+        ClaimBitmap[] grownBitmaps = Arrays.copyOf(bitmaps, id + 1);
+        grownBitmaps[id] = new ClaimBitmap();
+        ClaimBitmap[] grownMonsterVetoes = Arrays.copyOf(monsterVetoes, id + 1);
+        grownMonsterVetoes[id] = new ClaimBitmap();
+        ClaimBitmap[] grownAnimalVetoes = Arrays.copyOf(animalVetoes, id + 1);
+        grownAnimalVetoes[id] = new ClaimBitmap();
+        // Bitmaps first: a reader that sees the new world id must also see its bitmaps
+        monsterVetoes = grownMonsterVetoes;
+        animalVetoes = grownAnimalVetoes;
+        bitmaps = grownBitmaps;
+        worlds = grown;
+        worldIds.put(worldName, id);
+        return id;
+    }
+
+    private synchronized void cacheWorld(World world, int id) {
+        WorldRef[] refs = worldRefs;
+        int live = 0;
+        WorldRef[] grown = new WorldRef[refs.length + 1];
+        for (WorldRef ref : refs) {
+            // Drop references to unloaded worlds while we are here
+            if (ref.world.get() != null) {
+                grown[live++] = ref;
+            }
+        }
+        grown[live++] = new WorldRef(world, id);
+        worldRefs = Arrays.copyOf(grown, live);
+    }
+
+    private static final class WorldRef {
+        final WeakReference<World> world;
+        final int id;
+
+        WorldRef(World world, int id) {
+            this.world = new WeakReference<>(world);
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.civmc.data.index;
+
+import com.civmc.model.Civilization;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Civilizations ranked by each {@link Metric}, kept sorted as they are saved.
+ * An update re-inserts one entry per metric (O(log n)); reading the top k walks the first k entries.
+ */
+public class Leaderboards {
+
+    public enum Metric {
+        MEMBERS(Civilization::getTotalMemberCount),
+        CLAIMS(civ -> civ.getClaims().size()),
+        LEVEL(Civilization::getLevel),
+        BANK(Civilization::getBankBalance);
+
+        private final ToDoubleFunction<Civilization> score;
+
+        Metric(ToDoubleFunction<Civilization> score) {
+            this.score = score;
+        }
+
+        // Null for unknown names
+        public static Metric fromName(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    private static final Comparator<Entry> RANKING = Comparator.comparingDouble((Entry entry) -> entry.score)
+            .reversed()
+            .thenComparing(entry -> entry.civId);
+
+    private final Map<Metric, Board> boards = new EnumMap<>(Metric.class);
+
+    public Leaderboards() {
+        for (Metric metric : Metric.values()) {
+            boards.put(metric, new Board());
+        }
+    }
+
+    public void update(Civilization civ) {
+        for (Map.Entry<Metric, Board> board : boards.entrySet()) {
+            board.getValue().update(civ.getUuid(), board.getKey().score.applyAsDouble(civ));
+        }
+    }
+
+    public void remove(String civId) {
+        for (Board board : boards.values()) {
+            board.remove(civId);
+        }
+    }
+
+    public void clear() {
+        for (Board board : boards.values()) {
+            board.clear();
+        }
+    }
+
+    // Civilization UUIDs, best first
+    public List<String> top(Metric metric, int limit) {
+        List<String> result = new ArrayList<>(Math.max(0, Math.min(limit, 64)));
+        Iterator<Entry> iterator = boards.get(metric).ranking.iterator();
+        while (result.size() < limit && iterator.hasNext()) {
+            result.add(iterator.next().civId);
+        }
+        return result;
+    }
+
+    private static final class Board {
+        private final NavigableSet<Entry> ranking = new ConcurrentSkipListSet<>(RANKING);
+        private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+        private synchronized void update(String civId, double score) {
+            Entry current = entries.get(civId);
+            if (current != null && current.score == score) return;
+
+            Entry entry = new Entry(civId, score);
+            // Removed before the new entry goes in: a concurrent reader may miss it once, never see it twice
+            if (current != null) {
+                ranking.remove(current);
+            }
+            ranking.add(entry);
+            entries.put(civId, entry);
+        }
+
+        private synchronized void remove(String civId) {
+            Entry current = entries.remove(civId);
+            if (current != null) {
+                ranking.remove(current);
+            }
+        }
+
+        private synchronized void clear() {
+            ranking.clear();
+            entries.clear();
+        }
+    }
+
+    private static final class Entry {
+        private final String civId;
+        private final double score;
+
+        private Entry(String civId, double score) {
+            this.civId = civId;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.civmc.data.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Secondary index from an owner id (a civilization, a player) to the keys of the entities it owns.
+ * An entity may have several owners, e.g. both sides of a war; re-putting a key moves it to its new
+ * owners, so callers need not remember who owned it before.
+ */
+public class OwnerIndex {
+
+    private final Map<String, Set<String>> keysByOwner = new HashMap<>();
+    private final Map<String, String[]> ownersByKey = new HashMap<>();
+
+    public synchronized void put(String key, String... owners) {
+        remove(key);
+        ownersByKey.put(key, owners);
+        for (String owner : owners) {
+            if (owner != null) {
+                keysByOwner.computeIfAbsent(owner, o -> new LinkedHashSet<>()).add(key);
+            }
+        }
+    }
+
+    public synchronized void remove(String key) {
+        String[] owners = ownersByKey.remove(key);
+        if (owners == null) return;
+
+        for (String owner : owners) {
+            Set<String> keys = owner != null ? keysByOwner.get(owner) : null;
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                keysByOwner.remove(owner);
+            }
+        }
+    }
+
+    // Snapshot of the owner's keys, sized to the result
+    public synchronized List<String> get(String owner) {
+        Set<String> keys = keysByOwner.get(owner);
+        return keys == null ? Collections.emptyList() : new ArrayList<>(keys);
+    }
+
+    public synchronized void clear() {
+        keysByOwner.clear();
+        ownersByKey.clear();
+    }
+}
@@ -0,0 +1,40 @@
+package com.civmc.data.journal;
+
+public class JournalRecord {
+    
+    public enum Operation {
+        PUT, DELETE
+    }
+    
+    public enum EntityType {
+        CIVILIZATION, CLAIM, WAR, INVITATION
+    }
+    
+    private final Operation operation;
+    private final EntityType type;
+    private final String key;
+    private final Object value; // null for deletes
+    
+    public JournalRecord(Operation operation, EntityType type, String key, Object value) {
+        this.operation = operation;
+        this.type = type;
+        this.key = key;
+        this.value = value;
+    }
+    
+    public Operation getOperation() {
+        return operation;
+    }
+    
+    public EntityType getType() {
+        return type;
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    public Object getValue() {
+        return value;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,273 @@
+package com.civmc.data.journal;
+
+import com.civmc.data.storage.json.JsonCodec;
+import com.civmc.model.Civilization;
+import com.civmc.model.Claim;
+import com.civmc.model.Invitation;
+import com.civmc.model.War;
+import com.google.gson.Gson;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of DataManager mutations, replayed on top of the last snapshot at startup.
+ * Record layout: [int bodyLength][int crc32(body)][byte op][byte type][int keyLength][key][int payloadLength][payload].
+ * Compaction seals the active segment, persists the in-memory state, then drops the sealed segment.
+ */
+public class MutationJournal {
+    
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_BODY_SIZE = 16 * 1024 * 1024;
+    
+    private final Logger logger;
+    private final File activeFile;
+    private final File sealedFile;
+    private final boolean fsync;
+    private final long compactThresholdBytes;
+    private final Gson gson = new JsonCodec(false, false).getGson();
+    
+    private FileChannel channel;
+    private long size;
+    
+    // Deletes are not covered by the dirty-entity snapshot, so they are re-applied before a segment is dropped
+    private final List<JournalRecord> activeDeletes = new ArrayList<>();
+    private final List<JournalRecord> sealedDeletes = new ArrayList<>();
+    
+    public MutationJournal(Logger logger, File folder, boolean fsync, long compactThresholdBytes) {
+        this.logger = logger;
+        this.activeFile = new File(folder, "journal.bin");
+        this.sealedFile = new File(folder, "journal.sealed.bin");
+        this.fsync = fsync;
+        this.compactThresholdBytes = compactThresholdBytes;
+    }
+    
+    public synchronized void open() throws IOException {
+        channel = FileChannel.open(activeFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = channel.size();
+    }
+    
+    public synchronized void close() {
+        if (channel == null) return;
+        try {
+            channel.force(true);
+            channel.close();
+        } catch (IOException e) {
+            logger.warning("Failed to close journal: " + e.getMessage());
+        }
+        channel = null;
+    }
+    
+    public void put(JournalRecord.EntityType type, String key, Object value) {
+        append(new JournalRecord(JournalRecord.Operation.PUT, type, key, value));
+    }
+    
+    public void delete(JournalRecord.EntityType type, String key) {
+        append(new JournalRecord(JournalRecord.Operation.DELETE, type, key, null));
+    }
+    
+    // Returns true once the active segment has grown past the compaction threshold
+    public synchronized boolean needsCompaction() {
+        return size >= compactThresholdBytes;
+    }
+    
+    private void append(JournalRecord record) {
+        // Serialize outside the lock; the entity state is captured at the time of the call
+        ByteBuffer buffer = encode(record);
+        
+        synchronized (this) {
+            if (channel == null) return;
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                if (fsync) {
+                    channel.force(false);
+                }
+                size += buffer.limit();
+                if (record.getOperation() == JournalRecord.Operation.DELETE) {
+                    activeDeletes.add(record);
+                }
+            } catch (IOException e) {
+                logger.severe("Failed to append to journal: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+    
+    // Moves the active segment aside; returns true when a sealed segment is waiting to be dropped
+    public synchronized boolean seal() {
+        if (sealedFile.exists()) {
+            // A previous compaction failed; keep appending until it succeeds
+            return true;
+        }
+        if (channel == null || size == 0) {
+            return false;
+        }
+        
+        try {
+            channel.force(true);
+            channel.close();
+            Files.move(activeFile.toPath(), sealedFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            sealedDeletes.addAll(activeDeletes);
+            activeDeletes.clear();
+        } catch (IOException e) {
+            logger.severe("Failed to seal journal segment: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            reopen();
+        }
+        return sealedFile.exists();
+    }
+    
+    public synchronized List<JournalRecord> getSealedDeletes() {
+        return new ArrayList<>(sealedDeletes);
+    }
+    
+    // Called once the state covered by the sealed segment is durable in the storage provider
+    public synchronized void discardSealed() {
+        if (sealedFile.exists() && !sealedFile.delete()) {
+            logger.warning("Failed to delete sealed journal segment " + sealedFile.getName());
+            return;
+        }
+        sealedDeletes.clear();
+    }
+    
+    // Replays the sealed segment, then the active one, in append order
+    public synchronized int replay(Consumer<JournalRecord> handler) {
+        return replayFile(sealedFile, sealedDeletes, handler) + replayFile(activeFile, activeDeletes, handler);
+    }
+    
+    private int replayFile(File file, List<JournalRecord> deletes, Consumer<JournalRecord> handler) {
+        if (!file.exists() || file.length() == 0) return 0;
+        
+        int count = 0;
+        long validBytes = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024))) {
+            while (true) {
+                int bodyLength;
+                try {
+                    bodyLength = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (bodyLength <= 0 || bodyLength > MAX_BODY_SIZE) {
+                    logger.warning("Corrupt record header in " + file.getName() + " after " + count + " records");
+                    break;
+                }
+                
+                int checksum = in.readInt();
+                byte[] body = new byte[bodyLength];
+                in.readFully(body);
+                
+                CRC32 crc = new CRC32();
+                crc.update(body);
+                if ((int) crc.getValue() != checksum) {
+                    logger.warning("Checksum mismatch in " + file.getName() + " after " + count + " records");
+                    break;
+                }
+                
+                JournalRecord record = decode(body);
+                if (record.getOperation() == JournalRecord.Operation.DELETE) {
+                    deletes.add(record);
+                }
+                handler.accept(record);
+                validBytes += HEADER_SIZE + bodyLength;
+                count++;
+            }
+        } catch (EOFException e) {
+            // Torn write at the tail from a crash mid-append
+            logger.warning("Truncated record at the end of " + file.getName() + " after " + count + " records");
+        } catch (IOException e) {
+            logger.severe("Failed to replay journal " + file.getName() + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        if (validBytes < file.length()) {
+            truncate(file, validBytes);
+        }
+        return count;
+    }
+    
+    private ByteBuffer encode(JournalRecord record) {
+        byte[] key = record.getKey().getBytes(StandardCharsets.UTF_8);
+        byte[] payload = record.getValue() == null
+                ? new byte[0]
+                : gson.toJson(record.getValue(), typeClass(record.getType())).getBytes(StandardCharsets.UTF_8);
+        
+        int bodyLength = 2 + 4 + key.length + 4 + payload.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + bodyLength);
+        buffer.putInt(bodyLength);
+        buffer.putInt(0); // checksum, filled in below
+        buffer.put((byte) record.getOperation().ordinal());
+        buffer.put((byte) record.getType().ordinal());
+        buffer.putInt(key.length);
+        buffer.put(key);
+        buffer.putInt(payload.length);
+        buffer.put(payload);
+        
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_SIZE, bodyLength);
+        buffer.putInt(4, (int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+    
+    private JournalRecord decode(byte[] body) {
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        JournalRecord.Operation operation = JournalRecord.Operation.values()[buffer.get()];
+        JournalRecord.EntityType type = JournalRecord.EntityType.values()[buffer.get()];
+        
+        byte[] key = new byte[buffer.getInt()];
+        buffer.get(key);
+        byte[] payload = new byte[buffer.getInt()];
+        buffer.get(payload);
+        
+        Object value = payload.length == 0
+                ? null
+                : gson.fromJson(new String(payload, StandardCharsets.UTF_8), typeClass(type));
+        return new JournalRecord(operation, type, new String(key, StandardCharsets.UTF_8), value);
+    }
+    
+    private static Class<?> typeClass(JournalRecord.EntityType type) {
+        switch (type) {
+            case CIVILIZATION:
+                return Civilization.class;
+            case CLAIM:
+                return Claim.class;
+            case WAR:
+                return War.class;
+            default:
+                return Invitation.class;
+        }
+    }
+    
+    private void truncate(File file, long length) {
+        try (FileChannel truncating = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            truncating.truncate(length);
+        } catch (IOException e) {
+            logger.warning("Failed to truncate journal " + file.getName() + ": " + e.getMessage());
+        }
+    }
+    
+    private void reopen() {
+        try {
+            open();
+        } catch (IOException e) {
+            channel = null;
+            logger.severe("Failed to reopen journal: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
\ No newline at end of file
@@ -1,24 +1,26 @@
 package com.civmc.data.storage;
 
 import com.civmc.CivilizationMC;
+import com.civmc.data.storage.json.JsonCodec;
 import com.civmc.model.*;
-import com.google.gson.*;
-import com.google.gson.reflect.TypeToken;
 
 import java.io.*;
-import java.lang.reflect.Type;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 public class JsonStorageProvider implements StorageProvider {
     
     private final CivilizationMC plugin;
     private final Logger logger;
-    private final Gson gson;
+    private final JsonCodec codec;
     private final File dataFolder;
     
     // File paths
@@ -28,17 +30,27 @@ public class JsonStorageProvider implements StorageProvider {
     private File invitationsFile;
     private File backupFolder;
     
+    // Write-behind mode: per-entity saves only mark entries dirty, the flush thread writes the files
+    private final boolean writeBehind;
+    private final int flushIntervalSeconds;
+    private ScheduledExecutorService flushExecutor;
+    private WriteBehindCache<Civilization> civilizationCache;
+    private WriteBehindCache<Claim> claimCache;
+    private WriteBehindCache<War> warCache;
+    private WriteBehindCache<Invitation> invitationCache;
+    
     public JsonStorageProvider(CivilizationMC plugin) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
         
-        // Configure Gson with custom serializers
-        this.gson = new GsonBuilder()
-                .setPrettyPrinting()
-                .serializeNulls()
-                .create();
-                
+        // Streaming codec with hand-written adapters for the large entity types
+        this.codec = new JsonCodec(
+                plugin.getConfigManager().isJsonPrettyPrint(),
+                plugin.getConfigManager().isJsonGzip());
+        
         this.dataFolder = plugin.getDataFolder();
+        this.writeBehind = plugin.getConfigManager().isJsonWriteBehind();
+        this.flushIntervalSeconds = plugin.getConfigManager().getJsonFlushIntervalSeconds();
     }
     
     @Override
@@ -68,6 +80,21 @@ public class JsonStorageProvider implements StorageProvider {
             createFileIfNotExists(warsFile, "{}");
             createFileIfNotExists(invitationsFile, "{}");
             
+            if (writeBehind) {
+                civilizationCache = new WriteBehindCache<>("civilizations", civilizationsFile, Civilization.class, this::readCivilizations);
+                claimCache = new WriteBehindCache<>("claims", claimsFile, Claim.class, this::readClaims);
+                warCache = new WriteBehindCache<>("wars", warsFile, War.class, this::readWars);
+                invitationCache = new WriteBehindCache<>("invitations", invitationsFile, Invitation.class, this::readInvitations);
+                
+                flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "CivilizationMC-JsonFlush");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                flushExecutor.scheduleWithFixedDelay(this::flushAll, flushIntervalSeconds, flushIntervalSeconds, TimeUnit.SECONDS);
+                logger.info("JSON write-behind enabled (flush every " + flushIntervalSeconds + "s)");
+            }
+            
             logger.info("JSON storage provider initialized successfully!");
             return true;
         } catch (Exception e) {
@@ -79,9 +106,90 @@ public class JsonStorageProvider implements StorageProvider {
     
     @Override
     public void close() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+            try {
+                if (!flushExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                    logger.warning("JSON flush thread did not stop in time");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flushAll();
+        }
         logger.info("JSON storage provider closed.");
     }
     
+    @Override
+    public boolean flush() {
+        return flushAll();
+    }
+    
+    // Writes every entity type that has pending changes; false when any file could not be written
+    public boolean flushAll() {
+        if (!writeBehind) return true;
+        
+        // Non-short-circuit, so one failing file does not hold back the others
+        return flush(civilizationCache)
+                & flush(claimCache)
+                & flush(warCache)
+                & flush(invitationCache);
+    }
+    
+    private <T> boolean flush(WriteBehindCache<T> cache) {
+        synchronized (cache) {
+            if (cache.dirty.isEmpty()) return true;
+            
+            // Drain before writing so changes made during the write are picked up next cycle
+            Set<String> drained = new HashSet<>(cache.dirty);
+            cache.dirty.removeAll(drained);
+            
+            if (!writeJsonFile(cache.file, cache.entries, cache.type)) {
+                cache.dirty.addAll(drained);
+                return false;
+            }
+            logger.fine("Flushed " + drained.size() + " changed " + cache.label + " (" + cache.entries.size() + " total)");
+            return true;
+        }
+    }
+    
+    private <T> void markSaved(WriteBehindCache<T> cache, String key, T value) {
+        cache.ensureLoaded();
+        cache.entries.put(key, value);
+        cache.dirty.add(key);
+    }
+    
+    private <T> boolean markDeleted(WriteBehindCache<T> cache, String key) {
+        cache.ensureLoaded();
+        if (cache.entries.remove(key) == null) {
+            return false;
+        }
+        cache.dirty.add(key);
+        return true;
+    }
+    
+    private <T> boolean replaceAll(WriteBehindCache<T> cache, Map<String, T> data) {
+        synchronized (cache) {
+            cache.entries.clear();
+            cache.entries.putAll(data);
+            cache.dirty.clear();
+            cache.loaded = true;
+            return writeJsonFile(cache.file, cache.entries, cache.type);
+        }
+    }
+    
+    private <T> Map<String, T> resetCache(WriteBehindCache<T> cache, Map<String, T> data) {
+        if (cache != null) {
+            synchronized (cache) {
+                cache.entries.clear();
+                cache.entries.putAll(data);
+                cache.dirty.clear();
+                cache.loaded = true;
+            }
+        }
+        return data;
+    }
+    
     private void createFileIfNotExists(File file, String defaultContent) throws IOException {
         if (!file.exists()) {
             try (FileWriter writer = new FileWriter(file)) {
@@ -90,16 +198,23 @@ public class JsonStorageProvider implements StorageProvider {
         }
     }
     
-    private <T> T readJsonFile(File file, Type type) {
-        try (FileReader reader = new FileReader(file)) {
-            return gson.fromJson(reader, type);
+    private <T> Map<String, T> readJsonFile(File file, Class<T> type) {
+        try {
+            return codec.readMap(file, type);
         } catch (Exception e) {
             logger.warning("Failed to read JSON file " + file.getName() + ": " + e.getMessage());
             return null;
         }
     }
     
-    private boolean writeJsonFile(File file, Object data) {
+    private <T> boolean writeJsonFile(File file, Map<String, T> data, Class<T> type) {
+        // The flush thread and full saves may target the same file
+        synchronized (file) {
+            return writeJsonFileLocked(file, data, type);
+        }
+    }
+    
+    private <T> boolean writeJsonFileLocked(File file, Map<String, T> data, Class<T> type) {
         try {
             // Create backup of existing file
             if (file.exists()) {
@@ -109,9 +224,7 @@ public class JsonStorageProvider implements StorageProvider {
             
             // Write to temporary file first
             File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
-            try (FileWriter writer = new FileWriter(tempFile)) {
-                gson.toJson(data, writer);
-            }
+            codec.writeMap(tempFile, data, type);
             
             // Atomically move temp file to final location
             Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
@@ -127,144 +240,178 @@ public class JsonStorageProvider implements StorageProvider {
     // Civilizations
     @Override
     public Map<String, Civilization> loadCivilizations() {
-        Type type = new TypeToken<Map<String, Civilization>>(){}.getType();
-        Map<String, Civilization> result = readJsonFile(civilizationsFile, type);
+        return resetCache(civilizationCache, readCivilizations());
+    }
+    
+    private Map<String, Civilization> readCivilizations() {
+        Map<String, Civilization> result = readJsonFile(civilizationsFile, Civilization.class);
         
         if (result == null) {
             result = new ConcurrentHashMap<>();
         }
         
-        // Ensure thread-safe collections
-        for (Civilization civ : result.values()) {
-            if (civ.getOfficers() == null) civ.setOfficers(ConcurrentHashMap.newKeySet());
-            if (civ.getMembers() == null) civ.setMembers(ConcurrentHashMap.newKeySet());
-            if (civ.getRecruits() == null) civ.setRecruits(ConcurrentHashMap.newKeySet());
-            if (civ.getClaims() == null) civ.setClaims(ConcurrentHashMap.newKeySet());
-            if (civ.getAllies() == null) civ.setAllies(ConcurrentHashMap.newKeySet());
-            if (civ.getWars() == null) civ.setWars(ConcurrentHashMap.newKeySet());
-            if (civ.getTransactions() == null) civ.setTransactions(new ArrayList<>());
-            if (civ.getCustomData() == null) civ.setCustomData(new ConcurrentHashMap<>());
-            if (civ.getSettings() == null) civ.setSettings(new CivSettings());
-        }
-        
         logger.info("Loaded " + result.size() + " civilizations from JSON storage");
         return result;
     }
     
     @Override
-    public void saveCivilizations(Map<String, Civilization> civilizations) {
-        if (writeJsonFile(civilizationsFile, civilizations)) {
+    public boolean saveCivilizations(Map<String, Civilization> civilizations) {
+        boolean written = writeBehind
+                ? replaceAll(civilizationCache, civilizations)
+                : writeJsonFile(civilizationsFile, civilizations, Civilization.class);
+        if (written) {
             logger.info("Saved " + civilizations.size() + " civilizations to JSON storage");
         }
+        return written;
     }
     
     @Override
-    public void saveCivilization(Civilization civilization) {
-        Map<String, Civilization> civilizations = loadCivilizations();
+    public boolean saveCivilization(Civilization civilization) {
+        if (writeBehind) {
+            // Durable once flushed
+            markSaved(civilizationCache, civilization.getUuid(), civilization);
+            return true;
+        }
+        
+        Map<String, Civilization> civilizations = readCivilizations();
         civilizations.put(civilization.getUuid(), civilization);
-        saveCivilizations(civilizations);
+        return writeJsonFile(civilizationsFile, civilizations, Civilization.class);
     }
     
     @Override
-    public void deleteCivilization(String uuid) {
-        Map<String, Civilization> civilizations = loadCivilizations();
-        if (civilizations.remove(uuid) != null) {
-            saveCivilizations(civilizations);
-            logger.info("Deleted civilization " + uuid + " from JSON storage");
+    public boolean deleteCivilization(String uuid) {
+        if (writeBehind) {
+            // Durable once flushed
+            markDeleted(civilizationCache, uuid);
+            return true;
         }
+        
+        Map<String, Civilization> civilizations = readCivilizations();
+        if (civilizations.remove(uuid) == null) return true;
+        if (!writeJsonFile(civilizationsFile, civilizations, Civilization.class)) return false;
+        
+        logger.info("Deleted civilization " + uuid + " from JSON storage");
+        return true;
     }
     
     // Claims
     @Override
     public Map<String, Claim> loadClaims() {
-        Type type = new TypeToken<Map<String, Claim>>(){}.getType();
-        Map<String, Claim> result = readJsonFile(claimsFile, type);
+        return resetCache(claimCache, readClaims());
+    }
+    
+    private Map<String, Claim> readClaims() {
+        Map<String, Claim> result = readJsonFile(claimsFile, Claim.class);
         
         if (result == null) {
             result = new ConcurrentHashMap<>();
         }
         
-        // Ensure thread-safe collections
-        for (Claim claim : result.values()) {
-            if (claim.getTrusts() == null) claim.setTrusts(ConcurrentHashMap.newKeySet());
-            if (claim.getFlags() == null) claim.setFlags(new ClaimFlags());
-        }
-        
         logger.info("Loaded " + result.size() + " claims from JSON storage");
         return result;
     }
     
     @Override
-    public void saveClaims(Map<String, Claim> claims) {
-        if (writeJsonFile(claimsFile, claims)) {
+    public boolean saveClaims(Map<String, Claim> claims) {
+        boolean written = writeBehind
+                ? replaceAll(claimCache, claims)
+                : writeJsonFile(claimsFile, claims, Claim.class);
+        if (written) {
             logger.info("Saved " + claims.size() + " claims to JSON storage");
         }
+        return written;
     }
     
     @Override
-    public void saveClaim(Claim claim) {
-        Map<String, Claim> claims = loadClaims();
+    public boolean saveClaim(Claim claim) {
+        if (writeBehind) {
+            markSaved(claimCache, claim.getClaimKey(), claim);
+            return true;
+        }
+        
+        Map<String, Claim> claims = readClaims();
         claims.put(claim.getClaimKey(), claim);
-        saveClaims(claims);
+        return writeJsonFile(claimsFile, claims, Claim.class);
     }
     
     @Override
-    public void deleteClaim(String claimKey) {
-        Map<String, Claim> claims = loadClaims();
-        if (claims.remove(claimKey) != null) {
-            saveClaims(claims);
-            logger.info("Deleted claim " + claimKey + " from JSON storage");
+    public boolean deleteClaim(String claimKey) {
+        if (writeBehind) {
+            markDeleted(claimCache, claimKey);
+            return true;
         }
+        
+        Map<String, Claim> claims = readClaims();
+        if (claims.remove(claimKey) == null) return true;
+        if (!writeJsonFile(claimsFile, claims, Claim.class)) return false;
+        
+        logger.info("Deleted claim " + claimKey + " from JSON storage");
+        return true;
     }
     
     // Wars
     @Override
     public Map<String, War> loadWars() {
-        Type type = new TypeToken<Map<String, War>>(){}.getType();
-        Map<String, War> result = readJsonFile(warsFile, type);
+        return resetCache(warCache, readWars());
+    }
+    
+    private Map<String, War> readWars() {
+        Map<String, War> result = readJsonFile(warsFile, War.class);
         
         if (result == null) {
             result = new ConcurrentHashMap<>();
         }
         
-        // Ensure thread-safe collections
-        for (War war : result.values()) {
-            if (war.getAttackers() == null) war.setAttackers(ConcurrentHashMap.newKeySet());
-            if (war.getDefenders() == null) war.setDefenders(ConcurrentHashMap.newKeySet());
-        }
-        
         logger.info("Loaded " + result.size() + " wars from JSON storage");
         return result;
     }
     
     @Override
-    public void saveWars(Map<String, War> wars) {
-        if (writeJsonFile(warsFile, wars)) {
+    public boolean saveWars(Map<String, War> wars) {
+        boolean written = writeBehind
+                ? replaceAll(warCache, wars)
+                : writeJsonFile(warsFile, wars, War.class);
+        if (written) {
             logger.info("Saved " + wars.size() + " wars to JSON storage");
         }
+        return written;
     }
     
     @Override
-    public void saveWar(War war) {
-        Map<String, War> wars = loadWars();
+    public boolean saveWar(War war) {
+        if (writeBehind) {
+            markSaved(warCache, war.getId(), war);
+            return true;
+        }
+        
+        Map<String, War> wars = readWars();
         wars.put(war.getId(), war);
-        saveWars(wars);
+        return writeJsonFile(warsFile, wars, War.class);
     }
     
     @Override
-    public void deleteWar(String warId) {
-        Map<String, War> wars = loadWars();
-        if (wars.remove(warId) != null) {
-            saveWars(wars);
-            logger.info("Deleted war " + warId + " from JSON storage");
+    public boolean deleteWar(String warId) {
+        if (writeBehind) {
+            markDeleted(warCache, warId);
+            return true;
         }
+        
+        Map<String, War> wars = readWars();
+        if (wars.remove(warId) == null) return true;
+        if (!writeJsonFile(warsFile, wars, War.class)) return false;
+        
+        logger.info("Deleted war " + warId + " from JSON storage");
+        return true;
     }
     
     // Invitations
     @Override
     public Map<String, Invitation> loadInvitations() {
-        Type type = new TypeToken<Map<String, Invitation>>(){}.getType();
-        Map<String, Invitation> result = readJsonFile(invitationsFile, type);
+        return resetCache(invitationCache, readInvitations());
+    }
+    
+    private Map<String, Invitation> readInvitations() {
+        Map<String, Invitation> result = readJsonFile(invitationsFile, Invitation.class);
         
         if (result == null) {
             result = new ConcurrentHashMap<>();
@@ -275,30 +422,84 @@ public class JsonStorageProvider implements StorageProvider {
     }
     
     @Override
-    public void saveInvitations(Map<String, Invitation> invitations) {
-        if (writeJsonFile(invitationsFile, invitations)) {
+    public boolean saveInvitations(Map<String, Invitation> invitations) {
+        boolean written = writeBehind
+                ? replaceAll(invitationCache, invitations)
+                : writeJsonFile(invitationsFile, invitations, Invitation.class);
+        if (written) {
             logger.info("Saved " + invitations.size() + " invitations to JSON storage");
         }
+        return written;
     }
     
     @Override
-    public void saveInvitation(Invitation invitation) {
-        Map<String, Invitation> invitations = loadInvitations();
+    public boolean saveInvitation(Invitation invitation) {
+        if (writeBehind) {
+            markSaved(invitationCache, invitation.getId(), invitation);
+            return true;
+        }
+        
+        Map<String, Invitation> invitations = readInvitations();
         invitations.put(invitation.getId(), invitation);
-        saveInvitations(invitations);
+        return writeJsonFile(invitationsFile, invitations, Invitation.class);
     }
     
     @Override
-    public void deleteInvitation(String inviteId) {
-        Map<String, Invitation> invitations = loadInvitations();
-        if (invitations.remove(inviteId) != null) {
-            saveInvitations(invitations);
-            logger.info("Deleted invitation " + inviteId + " from JSON storage");
+    public boolean deleteInvitation(String inviteId) {
+        if (writeBehind) {
+            markDeleted(invitationCache, inviteId);
+            return true;
         }
+        
+        Map<String, Invitation> invitations = readInvitations();
+        if (invitations.remove(inviteId) == null) return true;
+        if (!writeJsonFile(invitationsFile, invitations, Invitation.class)) return false;
+        
+        logger.info("Deleted invitation " + inviteId + " from JSON storage");
+        return true;
+    }
+    
+    @Override
+    public boolean saveChanges(Collection<Civilization> civilizations, Collection<Claim> claims,
+                               Collection<War> wars, Collection<Invitation> invitations) {
+        if (writeBehind) {
+            civilizations.forEach(civ -> markSaved(civilizationCache, civ.getUuid(), civ));
+            claims.forEach(claim -> markSaved(claimCache, claim.getClaimKey(), claim));
+            wars.forEach(war -> markSaved(warCache, war.getId(), war));
+            invitations.forEach(invitation -> markSaved(invitationCache, invitation.getId(), invitation));
+            return true;
+        }
+        
+        // Without write-behind each changed file is still rewritten, but only once per delta
+        boolean written = true;
+        if (!civilizations.isEmpty()) {
+            Map<String, Civilization> data = readCivilizations();
+            civilizations.forEach(civ -> data.put(civ.getUuid(), civ));
+            written &= writeJsonFile(civilizationsFile, data, Civilization.class);
+        }
+        if (!claims.isEmpty()) {
+            Map<String, Claim> data = readClaims();
+            claims.forEach(claim -> data.put(claim.getClaimKey(), claim));
+            written &= writeJsonFile(claimsFile, data, Claim.class);
+        }
+        if (!wars.isEmpty()) {
+            Map<String, War> data = readWars();
+            wars.forEach(war -> data.put(war.getId(), war));
+            written &= writeJsonFile(warsFile, data, War.class);
+        }
+        if (!invitations.isEmpty()) {
+            Map<String, Invitation> data = readInvitations();
+            invitations.forEach(invitation -> data.put(invitation.getId(), invitation));
+            written &= writeJsonFile(invitationsFile, data, Invitation.class);
+        }
+        return written;
     }
     
     @Override
     public void backup() {
+        // Make sure pending write-behind changes are on disk before copying
+        flushAll();
+        
         try {
             String timestamp = String.valueOf(System.currentTimeMillis());
             String backupSuffix = "_" + timestamp + ".backup";
@@ -345,38 +546,43 @@ public class JsonStorageProvider implements StorageProvider {
     @Override
     public boolean migrate(StorageProvider newProvider) {
         try {
-            logger.info("Starting migration from JSON to " + newProvider.getClass().getSimpleName());
-            
             // Create backup before migration
             backup();
+            flushAll();
             
-            // Load all data
-            Map<String, Civilization> civilizations = loadCivilizations();
-            Map<String, Claim> claims = loadClaims();
-            Map<String, War> wars = loadWars();
-            Map<String, Invitation> invitations = loadInvitations();
-            
-            // Initialize new provider
-            if (!newProvider.initialize()) {
-                logger.severe("Failed to initialize new storage provider for migration!");
-                return false;
-            }
-            
-            // Save to new provider
-            newProvider.saveCivilizations(civilizations);
-            newProvider.saveClaims(claims);
-            newProvider.saveWars(wars);
-            newProvider.saveInvitations(invitations);
-            
-            logger.info("Successfully migrated " + civilizations.size() + " civilizations, " +
-                       claims.size() + " claims, " + wars.size() + " wars, and " +
-                       invitations.size() + " invitations");
-            
-            return true;
+            return new StorageMigrator(logger, this, newProvider, plugin.getConfigManager().getMigrationBatchSize(),
+                    new File(dataFolder, StorageMigrator.CHECKPOINT_FILE), null).migrate();
         } catch (Exception e) {
             logger.severe("Migration failed: " + e.getMessage());
             e.printStackTrace();
             return false;
         }
     }
-}
\ No newline at end of file
+    
+    private static final class WriteBehindCache<T> {
+        private final String label;
+        private final File file;
+        private final Class<T> type;
+        private final Supplier<Map<String, T>> reader;
+        private final Map<String, T> entries = new ConcurrentHashMap<>();
+        private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+        private volatile boolean loaded;
+        
+        private WriteBehindCache(String label, File file, Class<T> type, Supplier<Map<String, T>> reader) {
+            this.label = label;
+            this.file = file;
+            this.type = type;
+            this.reader = reader;
+        }
+        
+        private void ensureLoaded() {
+            if (loaded) return;
+            synchronized (this) {
+                if (!loaded) {
+                    entries.putAll(reader.get());
+                    loaded = true;
+                }
+            }
+        }
+    }
+}
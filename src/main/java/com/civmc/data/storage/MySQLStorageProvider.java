@@ -1,118 +1,194 @@
 package com.civmc.data.storage;
 
 import com.civmc.CivilizationMC;
-import com.civmc.model.*;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-public class MySQLStorageProvider implements StorageProvider {
+public class MySQLStorageProvider extends SqlStorageProvider {
     
-    private final CivilizationMC plugin;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int poolSize;
+    private final int timeoutSeconds;
+    
+    // Bounded pool: connections are opened lazily up to pool-size and reused afterwards
+    private final BlockingQueue<Connection> idleConnections;
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private volatile boolean closed;
     
     public MySQLStorageProvider(CivilizationMC plugin) {
-        this.plugin = plugin;
+        super(plugin);
+        this.url = withBatchRewrite(plugin.getConfigManager().getDatabaseUrl());
+        this.username = plugin.getConfigManager().getDatabaseUsername();
+        this.password = plugin.getConfigManager().getDatabasePassword();
+        this.poolSize = plugin.getConfigManager().getDatabasePoolSize();
+        this.timeoutSeconds = plugin.getConfigManager().getDatabaseConnectionTimeoutSeconds();
+        this.idleConnections = new ArrayBlockingQueue<>(poolSize);
     }
     
     @Override
     public boolean initialize() {
-        plugin.getLogger().warning("MySQL storage provider is not yet implemented! Using JSON instead.");
-        return false;
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+            
+            createSchema();
+            
+            logger.info("MySQL storage provider initialized successfully! (pool size: " + poolSize + ")");
+            return true;
+        } catch (Exception e) {
+            logger.severe("Failed to initialize MySQL storage provider: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
     }
     
     @Override
     public void close() {
-        // TODO: Implement MySQL storage
-    }
-    
-    @Override
-    public Map<String, Civilization> loadCivilizations() {
-        return new ConcurrentHashMap<>();
-    }
-    
-    @Override
-    public void saveCivilizations(Map<String, Civilization> civilizations) {
-        // TODO: Implement MySQL storage
-    }
-    
-    @Override
-    public void saveCivilization(Civilization civilization) {
-        // TODO: Implement MySQL storage
-    }
-    
-    @Override
-    public void deleteCivilization(String uuid) {
-        // TODO: Implement MySQL storage
-    }
-    
-    @Override
-    public Map<String, Claim> loadClaims() {
-        return new ConcurrentHashMap<>();
-    }
-    
-    @Override
-    public void saveClaims(Map<String, Claim> claims) {
-        // TODO: Implement MySQL storage
-    }
-    
-    @Override
-    public void saveClaim(Claim claim) {
-        // TODO: Implement MySQL storage
-    }
-    
-    @Override
-    public void deleteClaim(String claimKey) {
-        // TODO: Implement MySQL storage
-    }
-    
-    @Override
-    public Map<String, War> loadWars() {
-        return new ConcurrentHashMap<>();
-    }
-    
-    @Override
-    public void saveWars(Map<String, War> wars) {
-        // TODO: Implement MySQL storage
-    }
-    
-    @Override
-    public void saveWar(War war) {
-        // TODO: Implement MySQL storage
-    }
-    
-    @Override
-    public void deleteWar(String warId) {
-        // TODO: Implement MySQL storage
-    }
-    
-    @Override
-    public Map<String, Invitation> loadInvitations() {
-        return new ConcurrentHashMap<>();
-    }
-    
-    @Override
-    public void saveInvitations(Map<String, Invitation> invitations) {
-        // TODO: Implement MySQL storage
-    }
-    
-    @Override
-    public void saveInvitation(Invitation invitation) {
-        // TODO: Implement MySQL storage
-    }
-    
-    @Override
-    public void deleteInvitation(String inviteId) {
-        // TODO: Implement MySQL storage
+        closed = true;
+        
+        List<Connection> connections = new ArrayList<>();
+        idleConnections.drainTo(connections);
+        for (Connection connection : connections) {
+            closeQuietly(connection);
+        }
+        
+        logger.info("MySQL storage provider closed.");
+    }
+    
+    @Override
+    protected Connection borrowConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("MySQL storage is closed");
+        }
+        
+        Connection connection = idleConnections.poll();
+        if (connection == null) {
+            connection = openIfBelowLimit();
+        }
+        if (connection == null) {
+            try {
+                connection = idleConnections.poll(timeoutSeconds, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a MySQL connection", e);
+            }
+            if (connection == null) {
+                throw new SQLException("Timed out waiting for a MySQL connection (pool size: " + poolSize + ")");
+            }
+        }
+        
+        // Replace connections the server dropped while they sat idle
+        if (!connection.isValid(2)) {
+            discard(connection);
+            connection = openIfBelowLimit();
+            if (connection == null) {
+                throw new SQLException("Failed to reopen MySQL connection");
+            }
+        }
+        return connection;
+    }
+    
+    @Override
+    protected void releaseConnection(Connection connection) {
+        if (closed || !idleConnections.offer(connection)) {
+            discard(connection);
+        }
+    }
+    
+    @Override
+    protected String getProviderName() {
+        return "MySQL";
+    }
+    
+    @Override
+    protected List<String> schemaStatements() {
+        return List.of(
+            "CREATE TABLE IF NOT EXISTS civilizations (" +
+                "uuid VARCHAR(36) NOT NULL PRIMARY KEY, name VARCHAR(64) NOT NULL, level INT NOT NULL, " +
+                "bank_balance DOUBLE NOT NULL, leader_uuid VARCHAR(36), created_at BIGINT NOT NULL, home TEXT, " +
+                "settings TEXT, banner_data TEXT, custom_data MEDIUMTEXT, transactions MEDIUMTEXT" +
+                ") DEFAULT CHARSET=utf8mb4",
+            "CREATE TABLE IF NOT EXISTS civ_members (" +
+                "civ_uuid VARCHAR(36) NOT NULL, player_uuid VARCHAR(36) NOT NULL, role VARCHAR(16) NOT NULL, " +
+                "PRIMARY KEY (civ_uuid, player_uuid)" +
+                ") DEFAULT CHARSET=utf8mb4",
+            "CREATE TABLE IF NOT EXISTS civ_relations (" +
+                "civ_uuid VARCHAR(36) NOT NULL, relation VARCHAR(8) NOT NULL, target_id VARCHAR(36) NOT NULL, " +
+                "PRIMARY KEY (civ_uuid, relation, target_id)" +
+                ") DEFAULT CHARSET=utf8mb4",
+            "CREATE TABLE IF NOT EXISTS claims (" +
+                "world VARCHAR(64) NOT NULL, chunk_x INT NOT NULL, chunk_z INT NOT NULL, civ_id VARCHAR(36) NOT NULL, " +
+                "created_at BIGINT NOT NULL, flags TEXT, PRIMARY KEY (world, chunk_x, chunk_z), " +
+                "INDEX idx_claims_civ (civ_id)" +
+                ") DEFAULT CHARSET=utf8mb4",
+            "CREATE TABLE IF NOT EXISTS claim_trusts (" +
+                "world VARCHAR(64) NOT NULL, chunk_x INT NOT NULL, chunk_z INT NOT NULL, player_uuid VARCHAR(36) NOT NULL, " +
+                "flags VARCHAR(255) NOT NULL, expires_at BIGINT NOT NULL, PRIMARY KEY (world, chunk_x, chunk_z, player_uuid)" +
+                ") DEFAULT CHARSET=utf8mb4",
+            "CREATE TABLE IF NOT EXISTS wars (" +
+                "id VARCHAR(36) NOT NULL PRIMARY KEY, civ_a VARCHAR(36), civ_b VARCHAR(36), state VARCHAR(16) NOT NULL, " +
+                "start_at BIGINT, end_at BIGINT, warmup_end_at BIGINT, score_a INT, score_b INT, reason TEXT, " +
+                "end_reason TEXT, end_time BIGINT, attackers TEXT, defenders TEXT" +
+                ") DEFAULT CHARSET=utf8mb4",
+            "CREATE TABLE IF NOT EXISTS invitations (" +
+                "id VARCHAR(36) NOT NULL PRIMARY KEY, target_uuid VARCHAR(36) NOT NULL, civ_id VARCHAR(36) NOT NULL, " +
+                "sender_uuid VARCHAR(36), sent_at BIGINT, expires_at BIGINT, INDEX idx_invitations_target (target_uuid)" +
+                ") DEFAULT CHARSET=utf8mb4"
+        );
     }
     
     @Override
     public void backup() {
-        // TODO: Implement MySQL backup
-    }
-    
-    @Override
-    public boolean migrate(StorageProvider newProvider) {
-        // TODO: Implement MySQL migration
-        return false;
+        // Shared databases are backed up on the server side (mysqldump, replication...)
+        logger.info("MySQL storage does not create local backups; use your database server's backup tooling.");
+    }
+    
+    private Connection openIfBelowLimit() throws SQLException {
+        while (true) {
+            int open = openConnections.get();
+            if (open >= poolSize) {
+                return null;
+            }
+            if (openConnections.compareAndSet(open, open + 1)) {
+                break;
+            }
+        }
+        
+        try {
+            return DriverManager.getConnection(url, username, password);
+        } catch (SQLException e) {
+            openConnections.decrementAndGet();
+            throw e;
+        }
+    }
+    
+    private void discard(Connection connection) {
+        openConnections.decrementAndGet();
+        closeQuietly(connection);
+    }
+    
+    private void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warning("Failed to close MySQL connection: " + e.getMessage());
+        }
+    }
+    
+    // Lets the driver collapse each executeBatch() into multi-row statements
+    private static String withBatchRewrite(String url) {
+        if (url.contains("rewriteBatchedStatements")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
     }
 }
\ No newline at end of file
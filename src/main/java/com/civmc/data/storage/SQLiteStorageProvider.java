@@ -1,118 +1,148 @@
 package com.civmc.data.storage;
 
 import com.civmc.CivilizationMC;
-import com.civmc.model.*;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
-public class SQLiteStorageProvider implements StorageProvider {
+public class SQLiteStorageProvider extends SqlStorageProvider {
     
-    private final CivilizationMC plugin;
+    private final File databaseFile;
+    private final File backupFolder;
+    
+    // SQLite allows a single writer, so one shared connection is used
+    private final ReentrantLock connectionLock = new ReentrantLock();
+    private Connection connection;
     
     public SQLiteStorageProvider(CivilizationMC plugin) {
-        this.plugin = plugin;
+        super(plugin);
+        this.databaseFile = new File(plugin.getDataFolder(), "civilizations.db");
+        this.backupFolder = new File(plugin.getDataFolder(), "backups");
     }
     
     @Override
     public boolean initialize() {
-        plugin.getLogger().warning("SQLite storage provider is not yet implemented! Using JSON instead.");
-        return false;
+        try {
+            File dataFolder = databaseFile.getParentFile();
+            if (!dataFolder.exists() && !dataFolder.mkdirs()) {
+                logger.severe("Failed to create data folder!");
+                return false;
+            }
+            
+            Class.forName("org.sqlite.JDBC");
+            connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+            
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("PRAGMA synchronous=NORMAL");
+                statement.execute("PRAGMA busy_timeout=5000");
+            }
+            
+            createSchema();
+            
+            logger.info("SQLite storage provider initialized successfully!");
+            return true;
+        } catch (Exception e) {
+            logger.severe("Failed to initialize SQLite storage provider: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
     }
     
     @Override
     public void close() {
-        // TODO: Implement SQLite storage
-    }
-    
-    @Override
-    public Map<String, Civilization> loadCivilizations() {
-        return new ConcurrentHashMap<>();
-    }
-    
-    @Override
-    public void saveCivilizations(Map<String, Civilization> civilizations) {
-        // TODO: Implement SQLite storage
-    }
-    
-    @Override
-    public void saveCivilization(Civilization civilization) {
-        // TODO: Implement SQLite storage
-    }
-    
-    @Override
-    public void deleteCivilization(String uuid) {
-        // TODO: Implement SQLite storage
-    }
-    
-    @Override
-    public Map<String, Claim> loadClaims() {
-        return new ConcurrentHashMap<>();
-    }
-    
-    @Override
-    public void saveClaims(Map<String, Claim> claims) {
-        // TODO: Implement SQLite storage
-    }
-    
-    @Override
-    public void saveClaim(Claim claim) {
-        // TODO: Implement SQLite storage
-    }
-    
-    @Override
-    public void deleteClaim(String claimKey) {
-        // TODO: Implement SQLite storage
-    }
-    
-    @Override
-    public Map<String, War> loadWars() {
-        return new ConcurrentHashMap<>();
-    }
-    
-    @Override
-    public void saveWars(Map<String, War> wars) {
-        // TODO: Implement SQLite storage
-    }
-    
-    @Override
-    public void saveWar(War war) {
-        // TODO: Implement SQLite storage
-    }
-    
-    @Override
-    public void deleteWar(String warId) {
-        // TODO: Implement SQLite storage
-    }
-    
-    @Override
-    public Map<String, Invitation> loadInvitations() {
-        return new ConcurrentHashMap<>();
-    }
-    
-    @Override
-    public void saveInvitations(Map<String, Invitation> invitations) {
-        // TODO: Implement SQLite storage
-    }
-    
-    @Override
-    public void saveInvitation(Invitation invitation) {
-        // TODO: Implement SQLite storage
-    }
-    
-    @Override
-    public void deleteInvitation(String inviteId) {
-        // TODO: Implement SQLite storage
+        connectionLock.lock();
+        try {
+            if (connection != null) {
+                connection.close();
+                connection = null;
+            }
+            logger.info("SQLite storage provider closed.");
+        } catch (SQLException e) {
+            logger.severe("Failed to close SQLite connection: " + e.getMessage());
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+    
+    @Override
+    protected Connection borrowConnection() throws SQLException {
+        connectionLock.lock();
+        if (connection == null) {
+            connectionLock.unlock();
+            throw new SQLException("SQLite storage is closed");
+        }
+        return connection;
+    }
+    
+    @Override
+    protected void releaseConnection(Connection connection) {
+        connectionLock.unlock();
+    }
+    
+    @Override
+    protected String getProviderName() {
+        return "SQLite";
+    }
+    
+    @Override
+    protected List<String> schemaStatements() {
+        return List.of(
+            "CREATE TABLE IF NOT EXISTS civilizations (" +
+                "uuid TEXT PRIMARY KEY, name TEXT NOT NULL, level INTEGER NOT NULL, bank_balance REAL NOT NULL, " +
+                "leader_uuid TEXT, created_at INTEGER NOT NULL, home TEXT, settings TEXT, banner_data TEXT, " +
+                "custom_data TEXT, transactions TEXT)",
+            "CREATE TABLE IF NOT EXISTS civ_members (" +
+                "civ_uuid TEXT NOT NULL, player_uuid TEXT NOT NULL, role TEXT NOT NULL, " +
+                "PRIMARY KEY (civ_uuid, player_uuid))",
+            "CREATE TABLE IF NOT EXISTS civ_relations (" +
+                "civ_uuid TEXT NOT NULL, relation TEXT NOT NULL, target_id TEXT NOT NULL, " +
+                "PRIMARY KEY (civ_uuid, relation, target_id))",
+            "CREATE TABLE IF NOT EXISTS claims (" +
+                "world TEXT NOT NULL, chunk_x INTEGER NOT NULL, chunk_z INTEGER NOT NULL, civ_id TEXT NOT NULL, " +
+                "created_at INTEGER NOT NULL, flags TEXT, PRIMARY KEY (world, chunk_x, chunk_z))",
+            "CREATE INDEX IF NOT EXISTS idx_claims_civ ON claims (civ_id)",
+            "CREATE TABLE IF NOT EXISTS claim_trusts (" +
+                "world TEXT NOT NULL, chunk_x INTEGER NOT NULL, chunk_z INTEGER NOT NULL, player_uuid TEXT NOT NULL, " +
+                "flags TEXT NOT NULL, expires_at INTEGER NOT NULL, PRIMARY KEY (world, chunk_x, chunk_z, player_uuid))",
+            "CREATE TABLE IF NOT EXISTS wars (" +
+                "id TEXT PRIMARY KEY, civ_a TEXT, civ_b TEXT, state TEXT NOT NULL, start_at INTEGER, end_at INTEGER, " +
+                "warmup_end_at INTEGER, score_a INTEGER, score_b INTEGER, reason TEXT, end_reason TEXT, " +
+                "end_time INTEGER, attackers TEXT, defenders TEXT)",
+            "CREATE TABLE IF NOT EXISTS invitations (" +
+                "id TEXT PRIMARY KEY, target_uuid TEXT NOT NULL, civ_id TEXT NOT NULL, sender_uuid TEXT, " +
+                "sent_at INTEGER, expires_at INTEGER)",
+            "CREATE INDEX IF NOT EXISTS idx_invitations_target ON invitations (target_uuid)"
+        );
     }
     
     @Override
     public void backup() {
-        // TODO: Implement SQLite backup
-    }
-    
-    @Override
-    public boolean migrate(StorageProvider newProvider) {
-        // TODO: Implement SQLite migration
-        return false;
+        if (!backupFolder.exists() && !backupFolder.mkdirs()) {
+            logger.warning("Failed to create backup folder!");
+            return;
+        }
+        
+        String timestamp = String.valueOf(System.currentTimeMillis());
+        File backupFile = new File(backupFolder, "civilizations_" + timestamp + ".db");
+        
+        try {
+            withConnection(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    // VACUUM INTO produces a consistent copy without blocking readers
+                    statement.execute("VACUUM INTO '" + backupFile.getAbsolutePath().replace("'", "''") + "'");
+                }
+                return null;
+            });
+            logger.info("Created backup with timestamp: " + timestamp);
+        } catch (SQLException e) {
+            logger.severe("Failed to create backup: " + e.getMessage());
+            e.printStackTrace();
+        }
     }
 }
\ No newline at end of file
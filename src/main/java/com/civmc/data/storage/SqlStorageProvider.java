@@ -0,0 +1,710 @@
+package com.civmc.data.storage;
+
+import com.civmc.CivilizationMC;
+import com.civmc.data.storage.json.JsonCodec;
+import com.civmc.model.*;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.File;
+import java.lang.reflect.Type;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Shared JDBC implementation of {@link StorageProvider} over a normalized schema.
+ * Subclasses supply the connection handling and the dialect-specific DDL.
+ */
+public abstract class SqlStorageProvider implements StorageProvider {
+    
+    private static final Type TRANSACTIONS_TYPE = new TypeToken<List<Transaction>>(){}.getType();
+    private static final Type CUSTOM_DATA_TYPE = new TypeToken<Map<String, Object>>(){}.getType();
+    
+    private static final String RELATION_ALLY = "ALLY";
+    private static final String RELATION_WAR = "WAR";
+    
+    protected final CivilizationMC plugin;
+    protected final Logger logger;
+    protected final Gson gson;
+    
+    protected SqlStorageProvider(CivilizationMC plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        // Same adapters as the JSON files, so ClaimFlags columns keep the field layout and stay interned
+        this.gson = new JsonCodec(false, false).getGson();
+    }
+    
+    // Connection handling
+    protected abstract Connection borrowConnection() throws SQLException;
+    protected abstract void releaseConnection(Connection connection);
+    
+    // CREATE TABLE / CREATE INDEX statements for this dialect
+    protected abstract List<String> schemaStatements();
+    
+    protected abstract String getProviderName();
+    
+    @FunctionalInterface
+    protected interface SqlWork<T> {
+        T run(Connection connection) throws SQLException;
+    }
+    
+    protected <T> T withConnection(SqlWork<T> work) throws SQLException {
+        Connection connection = borrowConnection();
+        try {
+            return work.run(connection);
+        } finally {
+            releaseConnection(connection);
+        }
+    }
+    
+    protected <T> T inTransaction(SqlWork<T> work) throws SQLException {
+        return withConnection(connection -> {
+            connection.setAutoCommit(false);
+            try {
+                T result = work.run(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        });
+    }
+    
+    protected void createSchema() throws SQLException {
+        inTransaction(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : schemaStatements()) {
+                    statement.execute(sql);
+                }
+            }
+            return null;
+        });
+    }
+    
+    // Civilizations
+    @Override
+    public Map<String, Civilization> loadCivilizations() {
+        Map<String, Civilization> result = new ConcurrentHashMap<>();
+        try {
+            inTransaction(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    try (ResultSet rs = statement.executeQuery("SELECT * FROM civilizations")) {
+                        while (rs.next()) {
+                            Civilization civ = readCivilization(rs);
+                            result.put(civ.getUuid(), civ);
+                        }
+                    }
+                    
+                    try (ResultSet rs = statement.executeQuery("SELECT civ_uuid, player_uuid, role FROM civ_members")) {
+                        while (rs.next()) {
+                            Civilization civ = result.get(rs.getString(1));
+                            if (civ == null) continue;
+                            
+                            CivRole role = CivRole.valueOf(rs.getString(3));
+                            if (role != CivRole.LEADER) {
+                                civ.addMember(rs.getString(2), role);
+                            }
+                        }
+                    }
+                    
+                    try (ResultSet rs = statement.executeQuery("SELECT civ_uuid, relation, target_id FROM civ_relations")) {
+                        while (rs.next()) {
+                            Civilization civ = result.get(rs.getString(1));
+                            if (civ == null) continue;
+                            
+                            if (RELATION_ALLY.equals(rs.getString(2))) {
+                                civ.getAllies().add(IdInterner.intern(rs.getString(3)));
+                            } else if (RELATION_WAR.equals(rs.getString(2))) {
+                                civ.getWars().add(IdInterner.intern(rs.getString(3)));
+                            }
+                        }
+                    }
+                    
+                    // Claim keys are derived from the claims table
+                    try (ResultSet rs = statement.executeQuery("SELECT world, chunk_x, chunk_z, civ_id FROM claims")) {
+                        while (rs.next()) {
+                            Civilization civ = result.get(rs.getString(4));
+                            if (civ != null) {
+                                civ.getClaims().add(rs.getString(1) + ":" + rs.getInt(2) + ":" + rs.getInt(3));
+                            }
+                        }
+                    }
+                }
+                return null;
+            });
+            logger.info("Loaded " + result.size() + " civilizations from " + getProviderName() + " storage");
+        } catch (SQLException e) {
+            logger.severe("Failed to load civilizations: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean saveCivilizations(Map<String, Civilization> civilizations) {
+        try {
+            inTransaction(connection -> {
+                writeCivilizations(connection, civilizations.values());
+                return null;
+            });
+            logger.info("Saved " + civilizations.size() + " civilizations to " + getProviderName() + " storage");
+            return true;
+        } catch (SQLException e) {
+            logger.severe("Failed to save civilizations: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean saveCivilization(Civilization civilization) {
+        try {
+            inTransaction(connection -> {
+                writeCivilizations(connection, List.of(civilization));
+                return null;
+            });
+            return true;
+        } catch (SQLException e) {
+            logger.severe("Failed to save civilization " + civilization.getName() + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean deleteCivilization(String uuid) {
+        try {
+            inTransaction(connection -> {
+                // Claims go with the civilization: the full saves only upsert, so nothing else would prune them
+                for (String sql : new String[] {
+                        "DELETE FROM claim_trusts WHERE EXISTS (SELECT 1 FROM claims WHERE claims.civ_id = ? " +
+                                "AND claims.world = claim_trusts.world AND claims.chunk_x = claim_trusts.chunk_x " +
+                                "AND claims.chunk_z = claim_trusts.chunk_z)",
+                        "DELETE FROM claims WHERE civ_id = ?",
+                        "DELETE FROM civ_members WHERE civ_uuid = ?",
+                        "DELETE FROM civ_relations WHERE civ_uuid = ?",
+                        "DELETE FROM civilizations WHERE uuid = ?"}) {
+                    try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                        ps.setString(1, uuid);
+                        ps.executeUpdate();
+                    }
+                }
+                return null;
+            });
+            return true;
+        } catch (SQLException e) {
+            logger.severe("Failed to delete civilization " + uuid + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean saveChanges(Collection<Civilization> civilizations, Collection<Claim> claims,
+                               Collection<War> wars, Collection<Invitation> invitations) {
+        // One transaction for the whole delta
+        try {
+            inTransaction(connection -> {
+                writeCivilizations(connection, civilizations);
+                writeClaims(connection, claims);
+                writeWars(connection, wars);
+                writeInvitations(connection, invitations);
+                return null;
+            });
+            return true;
+        } catch (SQLException e) {
+            logger.severe("Failed to save changes: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    private void writeCivilizations(Connection connection, Collection<Civilization> civilizations) throws SQLException {
+        if (civilizations.isEmpty()) return;
+        
+        try (PreparedStatement upsert = connection.prepareStatement(
+                "REPLACE INTO civilizations (uuid, name, level, bank_balance, leader_uuid, created_at, " +
+                "home, settings, banner_data, custom_data, transactions) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement clearMembers = connection.prepareStatement("DELETE FROM civ_members WHERE civ_uuid = ?");
+             PreparedStatement clearRelations = connection.prepareStatement("DELETE FROM civ_relations WHERE civ_uuid = ?");
+             PreparedStatement insertMember = connection.prepareStatement(
+                     "INSERT INTO civ_members (civ_uuid, player_uuid, role) VALUES (?, ?, ?)");
+             PreparedStatement insertRelation = connection.prepareStatement(
+                     "INSERT INTO civ_relations (civ_uuid, relation, target_id) VALUES (?, ?, ?)")) {
+            
+            for (Civilization civ : civilizations) {
+                upsert.setString(1, civ.getUuid());
+                upsert.setString(2, civ.getName());
+                upsert.setInt(3, civ.getLevel());
+                upsert.setDouble(4, civ.getBankBalance());
+                upsert.setString(5, civ.getLeaderUUID());
+                upsert.setLong(6, civ.getCreatedAt());
+                upsert.setString(7, civ.getHome() != null ? gson.toJson(civ.getHome()) : null);
+                upsert.setString(8, gson.toJson(civ.getSettings()));
+                upsert.setString(9, civ.getBannerData());
+                upsert.setString(10, gson.toJson(civ.getCustomData(), CUSTOM_DATA_TYPE));
+                upsert.setString(11, gson.toJson(civ.getTransactions(), TRANSACTIONS_TYPE));
+                upsert.addBatch();
+                
+                clearMembers.setString(1, civ.getUuid());
+                clearMembers.addBatch();
+                clearRelations.setString(1, civ.getUuid());
+                clearRelations.addBatch();
+                
+                if (civ.getLeaderUUID() != null) {
+                    addMember(insertMember, civ.getUuid(), civ.getLeaderUUID(), CivRole.LEADER);
+                }
+                for (String officer : civ.getOfficers()) {
+                    addMember(insertMember, civ.getUuid(), officer, CivRole.OFFICER);
+                }
+                for (String member : civ.getMembers()) {
+                    addMember(insertMember, civ.getUuid(), member, CivRole.MEMBER);
+                }
+                for (String recruit : civ.getRecruits()) {
+                    addMember(insertMember, civ.getUuid(), recruit, CivRole.RECRUIT);
+                }
+                for (String ally : civ.getAllies()) {
+                    addRelation(insertRelation, civ.getUuid(), RELATION_ALLY, ally);
+                }
+                for (String warId : civ.getWars()) {
+                    addRelation(insertRelation, civ.getUuid(), RELATION_WAR, warId);
+                }
+            }
+            
+            upsert.executeBatch();
+            clearMembers.executeBatch();
+            clearRelations.executeBatch();
+            insertMember.executeBatch();
+            insertRelation.executeBatch();
+        }
+    }
+    
+    private void addMember(PreparedStatement ps, String civUUID, String playerUUID, CivRole role) throws SQLException {
+        ps.setString(1, civUUID);
+        ps.setString(2, playerUUID);
+        ps.setString(3, role.name());
+        ps.addBatch();
+    }
+    
+    private void addRelation(PreparedStatement ps, String civUUID, String relation, String targetId) throws SQLException {
+        ps.setString(1, civUUID);
+        ps.setString(2, relation);
+        ps.setString(3, targetId);
+        ps.addBatch();
+    }
+    
+    private Civilization readCivilization(ResultSet rs) throws SQLException {
+        Civilization civ = new Civilization();
+        civ.setUuid(rs.getString("uuid"));
+        civ.setName(rs.getString("name"));
+        civ.setLevel(rs.getInt("level"));
+        civ.setBankBalance(rs.getDouble("bank_balance"));
+        civ.setLeaderUUID(rs.getString("leader_uuid"));
+        civ.setCreatedAt(rs.getLong("created_at"));
+        
+        String home = rs.getString("home");
+        civ.setHome(home != null ? gson.fromJson(home, CivHome.class) : null);
+        
+        String settings = rs.getString("settings");
+        civ.setSettings(settings != null ? gson.fromJson(settings, CivSettings.class) : null);
+        
+        civ.setBannerData(rs.getString("banner_data"));
+        
+        String customData = rs.getString("custom_data");
+        if (customData != null) {
+            Map<String, Object> data = gson.fromJson(customData, CUSTOM_DATA_TYPE);
+            civ.setCustomData(data != null ? new ConcurrentHashMap<>(data) : null);
+        }
+        
+        String transactions = rs.getString("transactions");
+        if (transactions != null) {
+            List<Transaction> list = gson.fromJson(transactions, TRANSACTIONS_TYPE);
+            civ.setTransactions(list != null ? new ArrayList<>(list) : null);
+        }
+        return civ;
+    }
+    
+    // Claims
+    @Override
+    public Map<String, Claim> loadClaims() {
+        Map<String, Claim> result = new ConcurrentHashMap<>();
+        try {
+            inTransaction(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    try (ResultSet rs = statement.executeQuery(
+                            "SELECT world, chunk_x, chunk_z, civ_id, created_at, flags FROM claims")) {
+                        while (rs.next()) {
+                            Claim claim = new Claim(rs.getString(1), rs.getInt(2), rs.getInt(3), rs.getString(4));
+                            claim.setCreatedAt(rs.getLong(5));
+                            String flags = rs.getString(6);
+                            claim.setFlags(flags != null ? gson.fromJson(flags, ClaimFlags.class) : null);
+                            result.put(claim.getClaimKey(), claim);
+                        }
+                    }
+                    
+                    Map<String, Set<ClaimTrust>> trustsByClaim = new HashMap<>();
+                    try (ResultSet rs = statement.executeQuery(
+                            "SELECT world, chunk_x, chunk_z, player_uuid, flags, expires_at FROM claim_trusts")) {
+                        while (rs.next()) {
+                            String claimKey = rs.getString(1) + ":" + rs.getInt(2) + ":" + rs.getInt(3);
+                            if (!result.containsKey(claimKey)) continue;
+                            
+                            trustsByClaim.computeIfAbsent(claimKey, key -> ConcurrentHashMap.newKeySet())
+                                    .add(new ClaimTrust(rs.getString(4), parseTrustFlags(rs.getString(5)), rs.getLong(6)));
+                        }
+                    }
+                    trustsByClaim.forEach((claimKey, trusts) -> result.get(claimKey).setTrusts(trusts));
+                }
+                return null;
+            });
+            logger.info("Loaded " + result.size() + " claims from " + getProviderName() + " storage");
+        } catch (SQLException e) {
+            logger.severe("Failed to load claims: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean saveClaims(Map<String, Claim> claims) {
+        try {
+            inTransaction(connection -> {
+                writeClaims(connection, claims.values());
+                return null;
+            });
+            logger.info("Saved " + claims.size() + " claims to " + getProviderName() + " storage");
+            return true;
+        } catch (SQLException e) {
+            logger.severe("Failed to save claims: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean saveClaim(Claim claim) {
+        try {
+            inTransaction(connection -> {
+                writeClaims(connection, List.of(claim));
+                return null;
+            });
+            return true;
+        } catch (SQLException e) {
+            logger.severe("Failed to save claim " + claim.getClaimKey() + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean deleteClaim(String claimKey) {
+        String[] parts = claimKey.split(":");
+        if (parts.length != 3) {
+            // Could never have been stored
+            logger.warning("Invalid claim key: " + claimKey);
+            return true;
+        }
+        
+        try {
+            inTransaction(connection -> {
+                for (String sql : new String[] {
+                        "DELETE FROM claim_trusts WHERE world = ? AND chunk_x = ? AND chunk_z = ?",
+                        "DELETE FROM claims WHERE world = ? AND chunk_x = ? AND chunk_z = ?"}) {
+                    try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                        ps.setString(1, parts[0]);
+                        ps.setInt(2, Integer.parseInt(parts[1]));
+                        ps.setInt(3, Integer.parseInt(parts[2]));
+                        ps.executeUpdate();
+                    }
+                }
+                return null;
+            });
+            return true;
+        } catch (SQLException e) {
+            logger.severe("Failed to delete claim " + claimKey + ": " + e.getMessage());
+            return false;
+        } catch (NumberFormatException e) {
+            logger.warning("Invalid claim key: " + claimKey);
+            return true;
+        }
+    }
+    
+    private void writeClaims(Connection connection, Collection<Claim> claims) throws SQLException {
+        if (claims.isEmpty()) return;
+        
+        try (PreparedStatement upsert = connection.prepareStatement(
+                "REPLACE INTO claims (world, chunk_x, chunk_z, civ_id, created_at, flags) VALUES (?, ?, ?, ?, ?, ?)");
+             PreparedStatement clearTrusts = connection.prepareStatement(
+                     "DELETE FROM claim_trusts WHERE world = ? AND chunk_x = ? AND chunk_z = ?");
+             PreparedStatement insertTrust = connection.prepareStatement(
+                     "INSERT INTO claim_trusts (world, chunk_x, chunk_z, player_uuid, flags, expires_at) VALUES (?, ?, ?, ?, ?, ?)")) {
+            
+            for (Claim claim : claims) {
+                upsert.setString(1, claim.getWorld());
+                upsert.setInt(2, claim.getChunkX());
+                upsert.setInt(3, claim.getChunkZ());
+                upsert.setString(4, claim.getCivId());
+                upsert.setLong(5, claim.getCreatedAt());
+                upsert.setString(6, gson.toJson(claim.getFlags()));
+                upsert.addBatch();
+                
+                clearTrusts.setString(1, claim.getWorld());
+                clearTrusts.setInt(2, claim.getChunkX());
+                clearTrusts.setInt(3, claim.getChunkZ());
+                clearTrusts.addBatch();
+                
+                for (ClaimTrust trust : claim.getTrusts()) {
+                    insertTrust.setString(1, claim.getWorld());
+                    insertTrust.setInt(2, claim.getChunkX());
+                    insertTrust.setInt(3, claim.getChunkZ());
+                    insertTrust.setString(4, trust.getPlayerUUID());
+                    insertTrust.setString(5, joinTrustFlags(trust.getFlags()));
+                    insertTrust.setLong(6, trust.getExpiresAt());
+                    insertTrust.addBatch();
+                }
+            }
+            
+            upsert.executeBatch();
+            clearTrusts.executeBatch();
+            insertTrust.executeBatch();
+        }
+    }
+    
+    private static String joinTrustFlags(Set<TrustFlag> flags) {
+        StringJoiner joiner = new StringJoiner(",");
+        for (TrustFlag flag : flags) {
+            joiner.add(flag.name());
+        }
+        return joiner.toString();
+    }
+    
+    private static Set<TrustFlag> parseTrustFlags(String value) {
+        Set<TrustFlag> flags = EnumSet.noneOf(TrustFlag.class);
+        if (value == null || value.isEmpty()) return flags;
+        
+        for (String part : value.split(",")) {
+            TrustFlag flag = TrustFlag.fromString(part);
+            if (flag != null) {
+                flags.add(flag);
+            }
+        }
+        return flags;
+    }
+    
+    // Wars
+    @Override
+    public Map<String, War> loadWars() {
+        Map<String, War> result = new ConcurrentHashMap<>();
+        try {
+            inTransaction(connection -> {
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery("SELECT * FROM wars")) {
+                    while (rs.next()) {
+                        War war = new War();
+                        war.setId(rs.getString("id"));
+                        war.setCivA(rs.getString("civ_a"));
+                        war.setCivB(rs.getString("civ_b"));
+                        war.setState(WarState.valueOf(rs.getString("state")));
+                        war.setStartAt(rs.getLong("start_at"));
+                        war.setEndAt(rs.getLong("end_at"));
+                        war.setWarmupEndAt(rs.getLong("warmup_end_at"));
+                        war.getScore().setCivAScore(rs.getInt("score_a"));
+                        war.getScore().setCivBScore(rs.getInt("score_b"));
+                        war.setReason(rs.getString("reason"));
+                        war.setEndReason(rs.getString("end_reason"));
+                        war.setEndTime(rs.getLong("end_time"));
+                        war.getAttackers().addAll(splitIds(rs.getString("attackers")));
+                        war.getDefenders().addAll(splitIds(rs.getString("defenders")));
+                        result.put(war.getId(), war);
+                    }
+                }
+                return null;
+            });
+            logger.info("Loaded " + result.size() + " wars from " + getProviderName() + " storage");
+        } catch (SQLException e) {
+            logger.severe("Failed to load wars: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean saveWars(Map<String, War> wars) {
+        try {
+            inTransaction(connection -> {
+                writeWars(connection, wars.values());
+                return null;
+            });
+            logger.info("Saved " + wars.size() + " wars to " + getProviderName() + " storage");
+            return true;
+        } catch (SQLException e) {
+            logger.severe("Failed to save wars: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean saveWar(War war) {
+        try {
+            inTransaction(connection -> {
+                writeWars(connection, List.of(war));
+                return null;
+            });
+            return true;
+        } catch (SQLException e) {
+            logger.severe("Failed to save war " + war.getId() + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean deleteWar(String warId) {
+        return deleteById("DELETE FROM wars WHERE id = ?", warId, "war");
+    }
+    
+    private void writeWars(Connection connection, Collection<War> wars) throws SQLException {
+        if (wars.isEmpty()) return;
+        
+        try (PreparedStatement upsert = connection.prepareStatement(
+                "REPLACE INTO wars (id, civ_a, civ_b, state, start_at, end_at, warmup_end_at, score_a, score_b, " +
+                "reason, end_reason, end_time, attackers, defenders) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (War war : wars) {
+                upsert.setString(1, war.getId());
+                upsert.setString(2, war.getCivA());
+                upsert.setString(3, war.getCivB());
+                upsert.setString(4, war.getState().name());
+                upsert.setLong(5, war.getStartAt());
+                upsert.setLong(6, war.getEndAt());
+                upsert.setLong(7, war.getWarmupEndAt());
+                upsert.setInt(8, war.getScore().getCivAScore());
+                upsert.setInt(9, war.getScore().getCivBScore());
+                upsert.setString(10, war.getReason());
+                upsert.setString(11, war.getEndReason());
+                upsert.setLong(12, war.getEndTime());
+                upsert.setString(13, String.join(",", war.getAttackers()));
+                upsert.setString(14, String.join(",", war.getDefenders()));
+                upsert.addBatch();
+            }
+            upsert.executeBatch();
+        }
+    }
+    
+    private static List<String> splitIds(String value) {
+        if (value == null || value.isEmpty()) return List.of();
+        return Arrays.asList(value.split(","));
+    }
+    
+    // Invitations
+    @Override
+    public Map<String, Invitation> loadInvitations() {
+        Map<String, Invitation> result = new ConcurrentHashMap<>();
+        try {
+            inTransaction(connection -> {
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery(
+                             "SELECT id, target_uuid, civ_id, sender_uuid, sent_at, expires_at FROM invitations")) {
+                    while (rs.next()) {
+                        Invitation invitation = new Invitation();
+                        invitation.setId(rs.getString(1));
+                        invitation.setTargetUUID(rs.getString(2));
+                        invitation.setCivId(rs.getString(3));
+                        invitation.setSenderUUID(rs.getString(4));
+                        invitation.setSentAt(rs.getLong(5));
+                        invitation.setExpiresAt(rs.getLong(6));
+                        result.put(invitation.getId(), invitation);
+                    }
+                }
+                return null;
+            });
+            logger.info("Loaded " + result.size() + " invitations from " + getProviderName() + " storage");
+        } catch (SQLException e) {
+            logger.severe("Failed to load invitations: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean saveInvitations(Map<String, Invitation> invitations) {
+        try {
+            inTransaction(connection -> {
+                writeInvitations(connection, invitations.values());
+                return null;
+            });
+            logger.info("Saved " + invitations.size() + " invitations to " + getProviderName() + " storage");
+            return true;
+        } catch (SQLException e) {
+            logger.severe("Failed to save invitations: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean saveInvitation(Invitation invitation) {
+        try {
+            inTransaction(connection -> {
+                writeInvitations(connection, List.of(invitation));
+                return null;
+            });
+            return true;
+        } catch (SQLException e) {
+            logger.severe("Failed to save invitation " + invitation.getId() + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean deleteInvitation(String inviteId) {
+        return deleteById("DELETE FROM invitations WHERE id = ?", inviteId, "invitation");
+    }
+    
+    private void writeInvitations(Connection connection, Collection<Invitation> invitations) throws SQLException {
+        if (invitations.isEmpty()) return;
+        
+        try (PreparedStatement upsert = connection.prepareStatement(
+                "REPLACE INTO invitations (id, target_uuid, civ_id, sender_uuid, sent_at, expires_at) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (Invitation invitation : invitations) {
+                upsert.setString(1, invitation.getId());
+                upsert.setString(2, invitation.getTargetUUID());
+                upsert.setString(3, invitation.getCivId());
+                upsert.setString(4, invitation.getSenderUUID());
+                upsert.setLong(5, invitation.getSentAt());
+                upsert.setLong(6, invitation.getExpiresAt());
+                upsert.addBatch();
+            }
+            upsert.executeBatch();
+        }
+    }
+    
+    private boolean deleteById(String sql, String id, String label) {
+        try {
+            inTransaction(connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                    ps.setString(1, id);
+                    ps.executeUpdate();
+                }
+                return null;
+            });
+            return true;
+        } catch (SQLException e) {
+            logger.severe("Failed to delete " + label + " " + id + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    @Override
+    public boolean migrate(StorageProvider newProvider) {
+        try {
+            return new StorageMigrator(logger, this, newProvider, plugin.getConfigManager().getMigrationBatchSize(),
+                    new File(plugin.getDataFolder(), StorageMigrator.CHECKPOINT_FILE), null).migrate();
+        } catch (Exception e) {
+            logger.severe("Migration failed: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+}
\ No newline at end of file
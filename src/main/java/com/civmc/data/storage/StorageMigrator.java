@@ -0,0 +1,283 @@
+package com.civmc.data.storage;
+
+import com.civmc.data.storage.json.JsonCodec;
+import com.civmc.model.Civilization;
+import com.civmc.model.Claim;
+import com.civmc.model.Invitation;
+import com.civmc.model.War;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Copies every entity from one storage provider to another, one entity type at a time, in fixed-size batches.
+ * Keys are copied in sorted order and the last committed key of each type is checkpointed, so an interrupted
+ * migration resumes where it stopped. Each type is verified by count and per-entity checksum once copied.
+ */
+public class StorageMigrator {
+    
+    public static final String CHECKPOINT_FILE = "migration.properties";
+    private static final int MAX_REPORTED_MISMATCHES = 5;
+    
+    private final Logger logger;
+    private final StorageProvider source;
+    private final StorageProvider target;
+    private final String sourceName;
+    private final String targetName;
+    private final int batchSize;
+    private final File checkpointFile;
+    private final Consumer<String> progress;
+    private final Gson gson = new JsonCodec(false, false).getGson();
+    
+    private final Properties checkpoint = new Properties();
+    
+    public StorageMigrator(Logger logger, StorageProvider source, StorageProvider target, int batchSize,
+                           File checkpointFile, Consumer<String> progress) {
+        this.logger = logger;
+        this.source = source;
+        this.target = target;
+        this.sourceName = source.getClass().getSimpleName();
+        this.targetName = target.getClass().getSimpleName();
+        this.batchSize = Math.max(1, batchSize);
+        this.checkpointFile = checkpointFile;
+        this.progress = progress;
+    }
+    
+    // Starts over even if a checkpoint for the same source and target exists
+    public void discardCheckpoint() {
+        if (checkpointFile.exists() && !checkpointFile.delete()) {
+            logger.warning("Failed to delete migration checkpoint " + checkpointFile.getName());
+        }
+    }
+    
+    // The target must not be initialized yet; the caller closes it afterwards
+    public boolean migrate() {
+        report("Starting migration from " + sourceName + " to " + targetName + " in batches of " + batchSize);
+        
+        if (!target.initialize()) {
+            logger.severe("Failed to initialize new storage provider for migration!");
+            return false;
+        }
+        
+        loadCheckpoint();
+        
+        boolean verified = copy("civilizations", Civilization.class, source::loadCivilizations, target::loadCivilizations,
+                        batch -> target.saveChanges(batch, List.of(), List.of(), List.of()))
+                && copy("claims", Claim.class, source::loadClaims, target::loadClaims,
+                        batch -> target.saveChanges(List.of(), batch, List.of(), List.of()))
+                && copy("wars", War.class, source::loadWars, target::loadWars,
+                        batch -> target.saveChanges(List.of(), List.of(), batch, List.of()))
+                && copy("invitations", Invitation.class, source::loadInvitations, target::loadInvitations,
+                        batch -> target.saveChanges(List.of(), List.of(), List.of(), batch));
+        
+        if (verified) {
+            discardCheckpoint();
+            report("Migration to " + targetName + " completed and verified");
+        } else {
+            report("Migration to " + targetName + " stopped; run it again to resume from the last checkpoint");
+        }
+        return verified;
+    }
+    
+    @FunctionalInterface
+    private interface BatchWriter<T> {
+        boolean write(List<T> batch);
+    }
+    
+    private <T> boolean copy(String label, Class<T> type, Supplier<Map<String, T>> sourceLoader,
+                             Supplier<Map<String, T>> targetLoader, BatchWriter<T> writer) {
+        // Sorted keys give a stable order, so the last committed key marks how far the copy got
+        TreeMap<String, T> entities = new TreeMap<>(sourceLoader.get());
+        String lastKey = checkpoint.getProperty(label + ".last-key");
+        boolean complete = Boolean.parseBoolean(checkpoint.getProperty(label + ".complete"));
+        
+        if (!complete) {
+            Map<String, T> remaining = lastKey == null ? entities : entities.tailMap(lastKey, false);
+            if (lastKey != null) {
+                report("Resuming " + label + " after " + (entities.size() - remaining.size()) + " of " + entities.size());
+            }
+            
+            List<T> batch = new ArrayList<>(Math.min(batchSize, remaining.size()));
+            int copied = entities.size() - remaining.size();
+            int nextReport = entities.size() / 10;
+            for (Map.Entry<String, T> entry : remaining.entrySet()) {
+                batch.add(entry.getValue());
+                if (batch.size() < batchSize) continue;
+                
+                if (!commit(label, writer, batch, entry.getKey())) return false;
+                copied += batch.size();
+                batch.clear();
+                
+                if (copied >= nextReport) {
+                    report("Copied " + copied + "/" + entities.size() + " " + label);
+                    nextReport = copied + Math.max(1, entities.size() / 10);
+                }
+            }
+            if (!batch.isEmpty() && !commit(label, writer, batch, entities.lastKey())) return false;
+            
+            checkpoint.setProperty(label + ".complete", "true");
+            saveCheckpoint();
+        }
+        
+        return verify(label, type, entities, targetLoader.get());
+    }
+    
+    private <T> boolean commit(String label, BatchWriter<T> writer, List<T> batch, String lastKey) {
+        if (!writer.write(batch)) {
+            logger.severe("Failed to write a batch of " + label + " after key " +
+                    checkpoint.getProperty(label + ".last-key", "<start>"));
+            return false;
+        }
+        // The checkpoint may only move past rows the target has made durable
+        if (!target.flush()) {
+            logger.severe("Failed to flush a batch of " + label + " after key " +
+                    checkpoint.getProperty(label + ".last-key", "<start>"));
+            return false;
+        }
+        checkpoint.setProperty(label + ".last-key", lastKey);
+        saveCheckpoint();
+        return true;
+    }
+    
+    private <T> boolean verify(String label, Class<T> type, Map<String, T> expected, Map<String, T> actual) {
+        if (actual.size() > expected.size()) {
+            // Left over from an earlier migration or written elsewhere; not fatal, but worth knowing
+            report("Target already held " + (actual.size() - expected.size()) + " " + label + " not present in the source");
+        }
+        
+        List<String> mismatched = new ArrayList<>();
+        for (Map.Entry<String, T> entry : expected.entrySet()) {
+            T copy = actual.get(entry.getKey());
+            if (copy == null || checksum(entry.getValue(), type) != checksum(copy, type)) {
+                mismatched.add(entry.getKey());
+            }
+        }
+        
+        if (!mismatched.isEmpty()) {
+            report("Verification failed for " + label + ": " + mismatched.size() + " entities differ, e.g. " +
+                    mismatched.subList(0, Math.min(MAX_REPORTED_MISMATCHES, mismatched.size())));
+            resetCheckpoint(label);
+            return false;
+        }
+        
+        report("Verified " + expected.size() + " " + label + " (target holds " + actual.size() + ")");
+        return true;
+    }
+    
+    private long checksum(Object entity, Class<?> type) {
+        CRC32 crc = new CRC32();
+        crc.update(canonical(gson.toJsonTree(entity, type)).getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+    
+    // Providers may return sets in a different iteration order and numbers in a different form,
+    // so object keys and array elements are sorted and numbers normalized before hashing
+    private static String canonical(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return "null";
+        }
+        if (element.isJsonPrimitive()) {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isNumber()) {
+                return new BigDecimal(primitive.getAsString()).stripTrailingZeros().toPlainString();
+            }
+            return primitive.toString();
+        }
+        if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            List<String> values = new ArrayList<>(array.size());
+            for (JsonElement value : array) {
+                values.add(canonical(value));
+            }
+            Collections.sort(values);
+            return "[" + String.join(",", values) + "]";
+        }
+        
+        JsonObject object = element.getAsJsonObject();
+        TreeMap<String, String> fields = new TreeMap<>();
+        for (Map.Entry<String, JsonElement> field : object.entrySet()) {
+            if (!field.getValue().isJsonNull()) {
+                fields.put(field.getKey(), canonical(field.getValue()));
+            }
+        }
+        StringBuilder builder = new StringBuilder("{");
+        fields.forEach((key, value) -> builder.append(key).append(':').append(value).append(','));
+        return builder.append('}').toString();
+    }
+    
+    // The next run copies this type again from the start
+    private void resetCheckpoint(String label) {
+        checkpoint.remove(label + ".complete");
+        checkpoint.remove(label + ".last-key");
+        saveCheckpoint();
+    }
+    
+    private void loadCheckpoint() {
+        if (!checkpointFile.exists()) return;
+        
+        Properties stored = new Properties();
+        try (InputStream in = new FileInputStream(checkpointFile)) {
+            stored.load(in);
+        } catch (IOException e) {
+            logger.warning("Ignoring unreadable migration checkpoint: " + e.getMessage());
+            return;
+        }
+        
+        // A checkpoint only applies to the same source and target
+        if (sourceName.equals(stored.getProperty("source")) && targetName.equals(stored.getProperty("target"))) {
+            checkpoint.putAll(stored);
+        } else {
+            logger.info("Ignoring migration checkpoint from " + stored.getProperty("source") + " to " +
+                    stored.getProperty("target"));
+        }
+    }
+    
+    private void saveCheckpoint() {
+        checkpoint.setProperty("source", sourceName);
+        checkpoint.setProperty("target", targetName);
+        
+        File temp = new File(checkpointFile.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(temp)) {
+            checkpoint.store(out, "CivilizationMC storage migration progress");
+        } catch (IOException e) {
+            logger.warning("Failed to write migration checkpoint: " + e.getMessage());
+            return;
+        }
+        try {
+            Files.move(temp.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warning("Failed to write migration checkpoint: " + e.getMessage());
+        }
+    }
+    
+    private void report(String message) {
+        logger.info(message);
+        if (progress != null) {
+            progress.accept(message);
+        }
+    }
+}
\ No newline at end of file
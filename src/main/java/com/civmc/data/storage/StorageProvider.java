@@ -2,8 +2,13 @@ package com.civmc.data.storage;
 
 import com.civmc.model.*;
 
+import java.util.Collection;
 import java.util.Map;
 
+/**
+ * Persistence backend. Saves and deletes return false when the change may not have reached storage;
+ * deleting an entity that is not stored succeeds.
+ */
 public interface StorageProvider {
     
     boolean initialize();
@@ -11,27 +16,51 @@ public interface StorageProvider {
     
     // Civilizations
     Map<String, Civilization> loadCivilizations();
-    void saveCivilizations(Map<String, Civilization> civilizations);
-    void saveCivilization(Civilization civilization);
-    void deleteCivilization(String uuid);
+    boolean saveCivilizations(Map<String, Civilization> civilizations);
+    boolean saveCivilization(Civilization civilization);
+    boolean deleteCivilization(String uuid);
     
     // Claims
     Map<String, Claim> loadClaims();
-    void saveClaims(Map<String, Claim> claims);
-    void saveClaim(Claim claim);
-    void deleteClaim(String claimKey);
+    boolean saveClaims(Map<String, Claim> claims);
+    boolean saveClaim(Claim claim);
+    boolean deleteClaim(String claimKey);
     
     // Wars
     Map<String, War> loadWars();
-    void saveWars(Map<String, War> wars);
-    void saveWar(War war);
-    void deleteWar(String warId);
+    boolean saveWars(Map<String, War> wars);
+    boolean saveWar(War war);
+    boolean deleteWar(String warId);
     
     // Invitations
     Map<String, Invitation> loadInvitations();
-    void saveInvitations(Map<String, Invitation> invitations);
-    void saveInvitation(Invitation invitation);
-    void deleteInvitation(String inviteId);
+    boolean saveInvitations(Map<String, Invitation> invitations);
+    boolean saveInvitation(Invitation invitation);
+    boolean deleteInvitation(String inviteId);
+    
+    // Delta save used by autosave; returns false when the changes could not be written
+    default boolean saveChanges(Collection<Civilization> civilizations, Collection<Claim> claims,
+                                Collection<War> wars, Collection<Invitation> invitations) {
+        boolean written = true;
+        for (Civilization civilization : civilizations) {
+            written &= saveCivilization(civilization);
+        }
+        for (Claim claim : claims) {
+            written &= saveClaim(claim);
+        }
+        for (War war : wars) {
+            written &= saveWar(war);
+        }
+        for (Invitation invitation : invitations) {
+            written &= saveInvitation(invitation);
+        }
+        return written;
+    }
+    
+    // Blocks until changes accepted by save methods are durable; false when some could not be written
+    default boolean flush() {
+        return true;
+    }
     
     // Utility
     void backup();
@@ -0,0 +1,150 @@
+package com.civmc.data.storage.json;
+
+import com.civmc.model.CivHome;
+import com.civmc.model.CivSettings;
+import com.civmc.model.Civilization;
+import com.civmc.model.Transaction;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.civmc.data.storage.json.JsonStreams.*;
+
+public class CivilizationAdapter extends TypeAdapter<Civilization> {
+    
+    // Small nested values keep Gson's reflective adapters
+    private final TypeAdapter<CivHome> homeAdapter;
+    private final TypeAdapter<CivSettings> settingsAdapter;
+    private final TypeAdapter<List<Transaction>> transactionsAdapter;
+    private final TypeAdapter<Map<String, Object>> customDataAdapter;
+    
+    public CivilizationAdapter(Gson delegate) {
+        this.homeAdapter = delegate.getAdapter(CivHome.class);
+        this.settingsAdapter = delegate.getAdapter(CivSettings.class);
+        this.transactionsAdapter = delegate.getAdapter(new TypeToken<List<Transaction>>(){});
+        this.customDataAdapter = delegate.getAdapter(new TypeToken<Map<String, Object>>(){});
+    }
+    
+    @Override
+    public void write(JsonWriter out, Civilization civ) throws IOException {
+        if (civ == null) {
+            out.nullValue();
+            return;
+        }
+        
+        out.beginObject();
+        out.name("uuid").value(civ.getUuid());
+        out.name("name").value(civ.getName());
+        out.name("level").value(civ.getLevel());
+        out.name("bankBalance").value(civ.getBankBalance());
+        out.name("leaderUUID").value(civ.getLeaderUUID());
+        out.name("officers");
+        writeStringSet(out, civ.getOfficers());
+        out.name("members");
+        writeStringSet(out, civ.getMembers());
+        out.name("recruits");
+        writeStringSet(out, civ.getRecruits());
+        out.name("createdAt").value(civ.getCreatedAt());
+        out.name("home");
+        homeAdapter.write(out, civ.getHome());
+        out.name("claims");
+        writeStringSet(out, civ.getClaims());
+        out.name("allies");
+        writeStringSet(out, civ.getAllies());
+        out.name("wars");
+        writeStringSet(out, civ.getWars());
+        out.name("settings");
+        settingsAdapter.write(out, civ.getSettings());
+        out.name("transactions");
+        transactionsAdapter.write(out, civ.getTransactions());
+        out.name("bannerData").value(civ.getBannerData());
+        out.name("customData");
+        customDataAdapter.write(out, civ.getCustomData());
+        out.endObject();
+    }
+    
+    @Override
+    public Civilization read(JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        
+        Civilization civ = new Civilization();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (skipNull(in)) continue;
+            
+            switch (name) {
+                case "uuid":
+                    civ.setUuid(in.nextString());
+                    break;
+                case "name":
+                    civ.setName(in.nextString());
+                    break;
+                case "level":
+                    civ.setLevel(in.nextInt());
+                    break;
+                case "bankBalance":
+                    civ.setBankBalance(in.nextDouble());
+                    break;
+                case "leaderUUID":
+                    civ.setLeaderUUID(in.nextString());
+                    break;
+                case "officers":
+                    civ.setOfficers(readStringSet(in));
+                    break;
+                case "members":
+                    civ.setMembers(readStringSet(in));
+                    break;
+                case "recruits":
+                    civ.setRecruits(readStringSet(in));
+                    break;
+                case "createdAt":
+                    civ.setCreatedAt(in.nextLong());
+                    break;
+                case "home":
+                    civ.setHome(homeAdapter.read(in));
+                    break;
+                case "claims":
+                    civ.setClaims(readStringSet(in));
+                    break;
+                case "allies":
+                    civ.setAllies(readStringSet(in));
+                    break;
+                case "wars":
+                    civ.setWars(readStringSet(in));
+                    break;
+                case "settings":
+                    CivSettings settings = settingsAdapter.read(in);
+                    civ.setSettings(settings != null ? settings : new CivSettings());
+                    break;
+                case "transactions":
+                    List<Transaction> transactions = transactionsAdapter.read(in);
+                    civ.setTransactions(transactions != null ? new ArrayList<>(transactions) : new ArrayList<>());
+                    break;
+                case "bannerData":
+                    civ.setBannerData(in.nextString());
+                    break;
+                case "customData":
+                    Map<String, Object> customData = customDataAdapter.read(in);
+                    if (customData != null) customData.values().removeIf(value -> value == null);
+                    civ.setCustomData(customData != null ? new ConcurrentHashMap<>(customData) : new ConcurrentHashMap<>());
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return civ;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.civmc.data.storage.json;
+
+import com.civmc.model.Claim;
+import com.civmc.model.ClaimFlags;
+import com.civmc.model.ClaimTrust;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.civmc.data.storage.json.JsonStreams.*;
+
+public class ClaimAdapter extends TypeAdapter<Claim> {
+    
+    private final TypeAdapter<ClaimFlags> flagsAdapter;
+    private final TypeAdapter<ClaimTrust> trustAdapter;
+    
+    public ClaimAdapter(TypeAdapter<ClaimFlags> flagsAdapter, TypeAdapter<ClaimTrust> trustAdapter) {
+        this.flagsAdapter = flagsAdapter;
+        this.trustAdapter = trustAdapter;
+    }
+    
+    @Override
+    public void write(JsonWriter out, Claim claim) throws IOException {
+        if (claim == null) {
+            out.nullValue();
+            return;
+        }
+        
+        out.beginObject();
+        out.name("world").value(claim.getWorld());
+        out.name("chunkX").value(claim.getChunkX());
+        out.name("chunkZ").value(claim.getChunkZ());
+        out.name("civId").value(claim.getCivId());
+        out.name("flags");
+        flagsAdapter.write(out, claim.getFlags());
+        out.name("trusts");
+        out.beginArray();
+        for (ClaimTrust trust : claim.getTrusts()) {
+            trustAdapter.write(out, trust);
+        }
+        out.endArray();
+        out.name("createdAt").value(claim.getCreatedAt());
+        out.endObject();
+    }
+    
+    @Override
+    public Claim read(JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        
+        Claim claim = new Claim();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (skipNull(in)) continue;
+            
+            switch (name) {
+                case "world":
+                    claim.setWorld(in.nextString());
+                    break;
+                case "chunkX":
+                    claim.setChunkX(in.nextInt());
+                    break;
+                case "chunkZ":
+                    claim.setChunkZ(in.nextInt());
+                    break;
+                case "civId":
+                    claim.setCivId(in.nextString());
+                    break;
+                case "flags":
+                    claim.setFlags(flagsAdapter.read(in));
+                    break;
+                case "trusts":
+                    Set<ClaimTrust> trusts = ConcurrentHashMap.newKeySet();
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        ClaimTrust trust = trustAdapter.read(in);
+                        if (trust != null) {
+                            trusts.add(trust);
+                        }
+                    }
+                    in.endArray();
+                    claim.setTrusts(trusts);
+                    break;
+                case "createdAt":
+                    claim.setCreatedAt(in.nextLong());
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return claim;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.civmc.data.storage.json;
+
+import com.civmc.model.ClaimFlags;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+import static com.civmc.data.storage.json.JsonStreams.*;
+
+public class ClaimFlagsAdapter extends TypeAdapter<ClaimFlags> {
+    
+    @Override
+    public void write(JsonWriter out, ClaimFlags flags) throws IOException {
+        if (flags == null) {
+            out.nullValue();
+            return;
+        }
+        
+        out.beginObject();
+        out.name("pvp");
+        writeEnum(out, flags.getPvp());
+        out.name("explosionsBlocked").value(flags.isExplosionsBlocked());
+        out.name("interact");
+        writeEnum(out, flags.getInteract());
+        out.name("containers");
+        writeEnum(out, flags.getContainers());
+        out.name("redstone");
+        writeEnum(out, flags.getRedstone());
+        out.name("mobSpawnHostile").value(flags.isMobSpawnHostile());
+        out.name("mobSpawnPassive").value(flags.isMobSpawnPassive());
+        out.name("fireSpread").value(flags.isFireSpread());
+        out.name("blockSpread").value(flags.isBlockSpread());
+        out.name("fluidFlow").value(flags.isFluidFlow());
+        out.name("explosions").value(flags.isExplosions());
+        out.name("monsterSpawn").value(flags.isMonsterSpawn());
+        out.name("animalSpawn").value(flags.isAnimalSpawn());
+        out.name("potions").value(flags.isPotions());
+        out.name("plantGrowth").value(flags.isPlantGrowth());
+        out.name("iceMelt").value(flags.isIceMelt());
+        out.name("leafDecay").value(flags.isLeafDecay());
+        out.name("blockForm").value(flags.isBlockForm());
+        out.name("itemDrop").value(flags.isItemDrop());
+        out.name("itemPickup").value(flags.isItemPickup());
+        out.name("teleportation").value(flags.isTeleportation());
+        out.name("friendlyFire").value(flags.isFriendlyFire());
+        out.name("entryMessage").value(flags.getEntryMessage());
+        out.name("exitMessage").value(flags.getExitMessage());
+        out.endObject();
+    }
+    
+    @Override
+    public ClaimFlags read(JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        
+        // Fields missing from older data keep their defaults
+        ClaimFlags.Builder flags = new ClaimFlags.Builder();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (skipNull(in)) continue;
+            
+            switch (name) {
+                case "pvp":
+                    flags.setPvp(readEnum(in, ClaimFlags.FlagValue.class, ClaimFlags.FlagValue.INHERIT));
+                    break;
+                case "explosionsBlocked":
+                    flags.setExplosionsBlocked(in.nextBoolean());
+                    break;
+                case "interact":
+                    flags.setInteract(readEnum(in, ClaimFlags.AccessLevel.class, ClaimFlags.AccessLevel.MEMBERS_ONLY));
+                    break;
+                case "containers":
+                    flags.setContainers(readEnum(in, ClaimFlags.AccessLevel.class, ClaimFlags.AccessLevel.MEMBERS_ONLY));
+                    break;
+                case "redstone":
+                    flags.setRedstone(readEnum(in, ClaimFlags.AccessLevel.class, ClaimFlags.AccessLevel.MEMBERS_ONLY));
+                    break;
+                case "mobSpawnHostile":
+                    flags.setMobSpawnHostile(in.nextBoolean());
+                    break;
+                case "mobSpawnPassive":
+                    flags.setMobSpawnPassive(in.nextBoolean());
+                    break;
+                case "fireSpread":
+                    flags.setFireSpread(in.nextBoolean());
+                    break;
+                case "blockSpread":
+                    flags.setBlockSpread(in.nextBoolean());
+                    break;
+                case "fluidFlow":
+                    flags.setFluidFlow(in.nextBoolean());
+                    break;
+                case "explosions":
+                    flags.setExplosions(in.nextBoolean());
+                    break;
+                case "monsterSpawn":
+                    flags.setMonsterSpawn(in.nextBoolean());
+                    break;
+                case "animalSpawn":
+                    flags.setAnimalSpawn(in.nextBoolean());
+                    break;
+                case "potions":
+                    flags.setPotions(in.nextBoolean());
+                    break;
+                case "plantGrowth":
+                    flags.setPlantGrowth(in.nextBoolean());
+                    break;
+                case "iceMelt":
+                    flags.setIceMelt(in.nextBoolean());
+                    break;
+                case "leafDecay":
+                    flags.setLeafDecay(in.nextBoolean());
+                    break;
+                case "blockForm":
+                    flags.setBlockForm(in.nextBoolean());
+                    break;
+                case "itemDrop":
+                    flags.setItemDrop(in.nextBoolean());
+                    break;
+                case "itemPickup":
+                    flags.setItemPickup(in.nextBoolean());
+                    break;
+                case "teleportation":
+                    flags.setTeleportation(in.nextBoolean());
+                    break;
+                case "friendlyFire":
+                    flags.setFriendlyFire(in.nextBoolean());
+                    break;
+                case "entryMessage":
+                    flags.setEntryMessage(in.nextString());
+                    break;
+                case "exitMessage":
+                    flags.setExitMessage(in.nextString());
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return flags.build();
+    }
+}
\ No newline at end of file
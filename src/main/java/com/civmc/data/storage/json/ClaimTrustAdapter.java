@@ -0,0 +1,76 @@
+package com.civmc.data.storage.json;
+
+import com.civmc.model.ClaimTrust;
+import com.civmc.model.TrustFlag;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.civmc.data.storage.json.JsonStreams.*;
+
+public class ClaimTrustAdapter extends TypeAdapter<ClaimTrust> {
+    
+    @Override
+    public void write(JsonWriter out, ClaimTrust trust) throws IOException {
+        if (trust == null) {
+            out.nullValue();
+            return;
+        }
+        
+        out.beginObject();
+        out.name("playerUUID").value(trust.getPlayerUUID());
+        out.name("flags");
+        out.beginArray();
+        for (TrustFlag flag : trust.getFlags()) {
+            writeEnum(out, flag);
+        }
+        out.endArray();
+        out.name("expiresAt").value(trust.getExpiresAt());
+        out.endObject();
+    }
+    
+    @Override
+    public ClaimTrust read(JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        
+        ClaimTrust trust = new ClaimTrust();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (skipNull(in)) continue;
+            
+            switch (name) {
+                case "playerUUID":
+                    trust.setPlayerUUID(in.nextString());
+                    break;
+                case "flags":
+                    Set<TrustFlag> flags = ConcurrentHashMap.newKeySet();
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        if (skipNull(in)) continue;
+                        TrustFlag flag = readEnum(in, TrustFlag.class, null);
+                        if (flag != null) {
+                            flags.add(flag);
+                        }
+                    }
+                    in.endArray();
+                    trust.setFlags(flags);
+                    break;
+                case "expiresAt":
+                    trust.setExpiresAt(in.nextLong());
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return trust;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,129 @@
+package com.civmc.data.storage.json;
+
+import com.civmc.model.Civilization;
+import com.civmc.model.Claim;
+import com.civmc.model.ClaimFlags;
+import com.civmc.model.ClaimTrust;
+import com.civmc.model.War;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams {@code {"key": entity, ...}} data files entry by entry through hand-written type adapters,
+ * so loading and saving never build an intermediate JSON tree.
+ * Gzipped files are detected by their magic bytes, so toggling compression needs no conversion step.
+ */
+public class JsonCodec {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final Gson gson;
+    private final boolean pretty;
+    private final boolean gzip;
+    
+    public JsonCodec(boolean pretty, boolean gzip) {
+        this.pretty = pretty;
+        this.gzip = gzip;
+        
+        ClaimFlagsAdapter flagsAdapter = new ClaimFlagsAdapter();
+        ClaimTrustAdapter trustAdapter = new ClaimTrustAdapter();
+        this.gson = new GsonBuilder()
+                .registerTypeAdapter(ClaimFlags.class, flagsAdapter)
+                .registerTypeAdapter(ClaimTrust.class, trustAdapter)
+                .registerTypeAdapter(Claim.class, new ClaimAdapter(flagsAdapter, trustAdapter))
+                .registerTypeAdapter(War.class, new WarAdapter())
+                .registerTypeAdapter(Civilization.class, new CivilizationAdapter(new Gson()))
+                .create();
+    }
+    
+    public Gson getGson() {
+        return gson;
+    }
+    
+    public <T> Map<String, T> readMap(File file, Class<T> type) throws IOException {
+        TypeAdapter<T> adapter = gson.getAdapter(type);
+        Map<String, T> result = new ConcurrentHashMap<>();
+        
+        try (JsonReader reader = new JsonReader(openReader(file))) {
+            JsonToken token = reader.peek();
+            if (token == JsonToken.END_DOCUMENT) {
+                return result;
+            }
+            if (token == JsonToken.NULL) {
+                reader.nextNull();
+                return result;
+            }
+            
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String key = reader.nextName();
+                T value = adapter.read(reader);
+                if (value != null) {
+                    result.put(key, value);
+                }
+            }
+            reader.endObject();
+        }
+        return result;
+    }
+    
+    public <T> void writeMap(File file, Map<String, T> data, Class<T> type) throws IOException {
+        TypeAdapter<T> adapter = gson.getAdapter(type);
+        
+        try (JsonWriter writer = new JsonWriter(openWriter(file))) {
+            writer.setSerializeNulls(false);
+            if (pretty) {
+                writer.setIndent("  ");
+            }
+            
+            writer.beginObject();
+            for (Map.Entry<String, T> entry : data.entrySet()) {
+                writer.name(entry.getKey());
+                adapter.write(writer, entry.getValue());
+            }
+            writer.endObject();
+        }
+    }
+    
+    private Reader openReader(File file) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+        try {
+            in.mark(2);
+            int first = in.read();
+            int second = in.read();
+            in.reset();
+            
+            if (first == (GZIPInputStream.GZIP_MAGIC & 0xFF) && second == (GZIPInputStream.GZIP_MAGIC >>> 8)) {
+                in = new BufferedInputStream(new GZIPInputStream(in, BUFFER_SIZE), BUFFER_SIZE);
+            }
+            return new InputStreamReader(in, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+    
+    private Writer openWriter(File file) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            if (gzip) {
+                out = new GZIPOutputStream(out, BUFFER_SIZE);
+            }
+            return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+}
\ No newline at end of file
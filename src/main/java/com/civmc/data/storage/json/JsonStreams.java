@@ -0,0 +1,63 @@
+package com.civmc.data.storage.json;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Small helpers shared by the streaming type adapters
+final class JsonStreams {
+    
+    private JsonStreams() {
+    }
+    
+    // Consumes a JSON null and returns true, so adapters keep their defaults for null fields
+    static boolean skipNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return true;
+        }
+        return false;
+    }
+    
+    static Set<String> readStringSet(JsonReader in) throws IOException {
+        Set<String> result = ConcurrentHashMap.newKeySet();
+        in.beginArray();
+        while (in.hasNext()) {
+            if (!skipNull(in)) {
+                result.add(in.nextString());
+            }
+        }
+        in.endArray();
+        return result;
+    }
+    
+    static void writeStringSet(JsonWriter out, Collection<String> values) throws IOException {
+        if (values == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (String value : values) {
+            out.value(value);
+        }
+        out.endArray();
+    }
+    
+    static <E extends Enum<E>> E readEnum(JsonReader in, Class<E> type, E fallback) throws IOException {
+        String name = in.nextString();
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+    
+    static void writeEnum(JsonWriter out, Enum<?> value) throws IOException {
+        out.value(value == null ? null : value.name());
+    }
+}
\ No newline at end of file
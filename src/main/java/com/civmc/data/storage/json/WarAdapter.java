@@ -0,0 +1,136 @@
+package com.civmc.data.storage.json;
+
+import com.civmc.model.War;
+import com.civmc.model.WarState;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.civmc.data.storage.json.JsonStreams.*;
+
+public class WarAdapter extends TypeAdapter<War> {
+    
+    @Override
+    public void write(JsonWriter out, War war) throws IOException {
+        if (war == null) {
+            out.nullValue();
+            return;
+        }
+        
+        out.beginObject();
+        out.name("id").value(war.getId());
+        out.name("civA").value(war.getCivA());
+        out.name("civB").value(war.getCivB());
+        out.name("state");
+        writeEnum(out, war.getState());
+        out.name("startAt").value(war.getStartAt());
+        out.name("endAt").value(war.getEndAt());
+        out.name("warmupEndAt").value(war.getWarmupEndAt());
+        if (war.getScore() != null) {
+            out.name("score");
+            out.beginObject();
+            out.name("civAScore").value(war.getScore().getCivAScore());
+            out.name("civBScore").value(war.getScore().getCivBScore());
+            out.endObject();
+        }
+        out.name("reason").value(war.getReason());
+        out.name("endReason").value(war.getEndReason());
+        out.name("endTime").value(war.getEndTime());
+        out.name("attackers");
+        writeStringSet(out, war.getAttackers());
+        out.name("defenders");
+        writeStringSet(out, war.getDefenders());
+        out.endObject();
+    }
+    
+    @Override
+    public War read(JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        
+        War war = new War();
+        // The key set views created by War() reject add(), so start from writable sets
+        war.setAttackers(ConcurrentHashMap.newKeySet());
+        war.setDefenders(ConcurrentHashMap.newKeySet());
+        
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (skipNull(in)) continue;
+            
+            switch (name) {
+                case "id":
+                    war.setId(in.nextString());
+                    break;
+                case "civA":
+                    war.setCivA(in.nextString());
+                    break;
+                case "civB":
+                    war.setCivB(in.nextString());
+                    break;
+                case "state":
+                    war.setState(readEnum(in, WarState.class, WarState.PREP));
+                    break;
+                case "startAt":
+                    war.setStartAt(in.nextLong());
+                    break;
+                case "endAt":
+                    war.setEndAt(in.nextLong());
+                    break;
+                case "warmupEndAt":
+                    war.setWarmupEndAt(in.nextLong());
+                    break;
+                case "score":
+                    war.setScore(readScore(in));
+                    break;
+                case "reason":
+                    war.setReason(in.nextString());
+                    break;
+                case "endReason":
+                    war.setEndReason(in.nextString());
+                    break;
+                case "endTime":
+                    war.setEndTime(in.nextLong());
+                    break;
+                case "attackers":
+                    war.setAttackers(readStringSet(in));
+                    break;
+                case "defenders":
+                    war.setDefenders(readStringSet(in));
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return war;
+    }
+    
+    private War.WarScore readScore(JsonReader in) throws IOException {
+        War.WarScore score = new War.WarScore();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (skipNull(in)) continue;
+            
+            switch (name) {
+                case "civAScore":
+                    score.setCivAScore(in.nextInt());
+                    break;
+                case "civBScore":
+                    score.setCivBScore(in.nextInt());
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return score;
+    }
+}
\ No newline at end of file
@@ -75,7 +75,7 @@ public class ClaimsGUI extends CivGUI {
                 setItem(slot, claimMaterial, "&e" + claim.getWorld() + " (" + claim.getChunkX() + ", " + claim.getChunkZ() + ")",
                         "&7World: &f" + claim.getWorld(),
                         "&7Coordinates: &f" + claim.getChunkX() + ", " + claim.getChunkZ(),
-                        "&7Trusts: &f" + claim.getTrusts().size(),
+                        "&7Trusts: &f" + claim.getActiveTrustCount(),
                         "&7Claimed: &f" + formatDate(claim.getCreatedAt()),
                         "",
                         "&7Left-click to teleport",
@@ -1,10 +1,13 @@
 package com.civmc.listeners;
 
 import com.civmc.CivilizationMC;
+import com.civmc.data.DataManager;
 import com.civmc.model.*;
+import com.civmc.protection.MaterialClassifier;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -49,24 +52,16 @@ public class BlockListener implements Listener {
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onBlockPistonExtend(BlockPistonExtendEvent event) {
         // Check if piston can extend into claimed territory
-        for (var block : event.getBlocks()) {
-            Location newLocation = block.getRelative(event.getDirection()).getLocation();
-            if (isClaimedAndProtected(newLocation, null)) {
-                event.setCancelled(true);
-                return;
-            }
+        if (plugin.getProtectionService().isPistonMoveProtected(event.getBlocks(), event.getDirection())) {
+            event.setCancelled(true);
         }
     }
     
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onBlockPistonRetract(BlockPistonRetractEvent event) {
         // Check if piston can pull blocks through claimed territory
-        for (var block : event.getBlocks()) {
-            Location newLocation = block.getRelative(event.getDirection()).getLocation();
-            if (isClaimedAndProtected(newLocation, null)) {
-                event.setCancelled(true);
-                return;
-            }
+        if (plugin.getProtectionService().isPistonMoveProtected(event.getBlocks(), event.getDirection())) {
+            event.setCancelled(true);
         }
     }
     
@@ -76,7 +71,7 @@ public class BlockListener implements Listener {
         Player player = event.getPlayer();
         
         // Check fire spread and ignition
-        Claim claim = getClaim(location);
+        Claim claim = getClaim(event.getBlock());
         if (claim != null) {
             if (event.getCause() == BlockIgniteEvent.IgniteCause.SPREAD) {
                 // Check fire spread flag
@@ -95,8 +90,7 @@ public class BlockListener implements Listener {
     
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onBlockBurn(BlockBurnEvent event) {
-        Location location = event.getBlock().getLocation();
-        Claim claim = getClaim(location);
+        Claim claim = getClaim(event.getBlock());
         
         if (claim != null && !claim.getFlags().isFireSpread()) {
             event.setCancelled(true);
@@ -105,8 +99,7 @@ public class BlockListener implements Listener {
     
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onBlockSpread(BlockSpreadEvent event) {
-        Location location = event.getBlock().getLocation();
-        Claim claim = getClaim(location);
+        Claim claim = getClaim(event.getBlock());
         
         if (claim != null) {
             Material material = event.getSource().getType();
@@ -126,29 +119,36 @@ public class BlockListener implements Listener {
     
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onBlockFromTo(BlockFromToEvent event) {
-        Location fromLocation = event.getBlock().getLocation();
-        Location toLocation = event.getToBlock().getLocation();
+        Block from = event.getBlock();
+        Block to = event.getToBlock();
+        int fromChunkX = from.getX() >> 4;
+        int fromChunkZ = from.getZ() >> 4;
+        int toChunkX = to.getX() >> 4;
+        int toChunkZ = to.getZ() >> 4;
+        
+        // Flow within one chunk never crosses a claim border
+        if (fromChunkX == toChunkX && fromChunkZ == toChunkZ) {
+            return;
+        }
         
-        Claim fromClaim = getClaim(fromLocation);
-        Claim toClaim = getClaim(toLocation);
+        // Flow into wilderness is answered by the claim bitmap without a claim map lookup
+        DataManager dataManager = plugin.getDataManager();
+        Claim toClaim = dataManager.getClaim(to.getWorld(), toChunkX, toChunkZ);
+        if (toClaim == null) {
+            return;
+        }
         
         // If flowing into a different claim, check permissions
-        if (fromClaim != toClaim && toClaim != null) {
-            if (!toClaim.getFlags().isFluidFlow()) {
-                event.setCancelled(true);
-            }
+        Claim fromClaim = dataManager.getClaim(from.getWorld(), fromChunkX, fromChunkZ);
+        if (fromClaim != toClaim && !toClaim.getFlags().isFluidFlow()) {
+            event.setCancelled(true);
         }
     }
     
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onBlockExplode(BlockExplodeEvent event) {
-        Location location = event.getBlock().getLocation();
-        
         // Remove blocks that are in protected claims
-        event.blockList().removeIf(block -> {
-            Claim claim = getClaim(block.getLocation());
-            return claim != null && !claim.getFlags().isExplosions();
-        });
+        plugin.getProtectionService().removeExplosionProtected(event.blockList());
     }
     
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
@@ -183,21 +183,20 @@ public class BlockListener implements Listener {
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onBlockFade(BlockFadeEvent event) {
         // Handle ice/snow melting, leaf decay, etc.
-        Location location = event.getBlock().getLocation();
-        Claim claim = getClaim(location);
+        Claim claim = getClaim(event.getBlock());
         
         if (claim != null) {
             Material material = event.getBlock().getType();
             
             // Ice/Snow melting
-            if ((material == Material.ICE || material == Material.SNOW_BLOCK || material == Material.SNOW) 
-                    && !claim.getFlags().isIceMelt()) {
+            MaterialClassifier materials = plugin.getProtectionService().getMaterials();
+            if (materials.is(material, MaterialClassifier.Category.MELTABLE) && !claim.getFlags().isIceMelt()) {
                 event.setCancelled(true);
                 return;
             }
             
             // Leaf decay
-            if (material.name().contains("LEAVES") && !claim.getFlags().isLeafDecay()) {
+            if (materials.is(material, MaterialClassifier.Category.LEAVES) && !claim.getFlags().isLeafDecay()) {
                 event.setCancelled(true);
             }
         }
@@ -206,8 +205,7 @@ public class BlockListener implements Listener {
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onBlockForm(BlockFormEvent event) {
         // Handle block formation (like cobblestone from lava+water)
-        Location location = event.getBlock().getLocation();
-        Claim claim = getClaim(location);
+        Claim claim = getClaim(event.getBlock());
         
         if (claim != null && !claim.getFlags().isBlockForm()) {
             event.setCancelled(true);
@@ -217,46 +215,14 @@ public class BlockListener implements Listener {
     // Utility methods
     
     private boolean hasPermission(Player player, Location location, TrustFlag flag) {
-        if (player.hasPermission("civilization.bypass.protection")) {
-            return true;
-        }
-        
-        String playerUUID = player.getUniqueId().toString();
-        Claim claim = getClaim(location);
-        
-        if (claim == null) {
-            // Not claimed - allow in wilderness
-            return plugin.getConfigManager().getConfig().getBoolean("protection.allow-wilderness-building", true);
-        }
-        
-        // Check if player is a member of the civilization
-        Civilization civ = plugin.getDataManager().getCivilization(claim.getCivId());
-        if (civ != null && civ.isMember(playerUUID)) {
-            return true;
-        }
-        
-        // Check trust permissions
-        return claim.isTrusted(playerUUID, flag);
+        return plugin.getProtectionService().canBuild(player, location, flag);
     }
     
-    private boolean isClaimedAndProtected(Location location, Player player) {
-        Claim claim = getClaim(location);
-        if (claim == null) return false;
-        
-        if (player != null) {
-            return !hasPermission(player, location, TrustFlag.BUILD);
-        }
-        
-        return true; // Claimed and no player to check permissions for
+    private Claim getClaim(Location location) {
+        return plugin.getDataManager().getClaim(location);
     }
     
-    private Claim getClaim(Location location) {
-        if (location == null || location.getWorld() == null) return null;
-        
-        int chunkX = location.getChunk().getX();
-        int chunkZ = location.getChunk().getZ();
-        String worldName = location.getWorld().getName();
-        
-        return plugin.getDataManager().getClaim(worldName, chunkX, chunkZ);
+    private Claim getClaim(Block block) {
+        return plugin.getDataManager().getClaim(block.getWorld(), block.getX() >> 4, block.getZ() >> 4);
     }
 }
\ No newline at end of file
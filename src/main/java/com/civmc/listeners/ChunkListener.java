@@ -24,9 +24,7 @@ public class ChunkListener implements Listener {
     @EventHandler(priority = EventPriority.MONITOR)
     public void onChunkLoad(ChunkLoadEvent event) {
         Chunk chunk = event.getChunk();
-        String claimKey = chunk.getWorld().getName() + ":" + chunk.getX() + ":" + chunk.getZ();
-        
-        Claim claim = plugin.getDataManager().getClaim(claimKey);
+        Claim claim = plugin.getDataManager().getClaim(chunk.getWorld(), chunk.getX(), chunk.getZ());
         if (claim != null) {
             // Perform any necessary setup for claimed chunks when they load
             // This could include:
@@ -34,16 +32,14 @@ public class ChunkListener implements Listener {
             // - Loading chunk-specific data
             // - Setting up protection systems
             
-            logger.fine("Loaded claimed chunk: " + claimKey);
+            logger.fine("Loaded claimed chunk: " + claim.getClaimKey());
         }
     }
     
     @EventHandler(priority = EventPriority.MONITOR)
     public void onChunkUnload(ChunkUnloadEvent event) {
         Chunk chunk = event.getChunk();
-        String claimKey = chunk.getWorld().getName() + ":" + chunk.getX() + ":" + chunk.getZ();
-        
-        Claim claim = plugin.getDataManager().getClaim(claimKey);
+        Claim claim = plugin.getDataManager().getClaim(chunk.getWorld(), chunk.getX(), chunk.getZ());
         if (claim != null) {
             // Perform any necessary cleanup for claimed chunks when they unload
             // This could include:
@@ -51,7 +47,7 @@ public class ChunkListener implements Listener {
             // - Cleaning up temporary data structures
             // - Logging chunk activity
             
-            logger.fine("Unloaded claimed chunk: " + claimKey);
+            logger.fine("Unloaded claimed chunk: " + claim.getClaimKey());
         }
     }
 }
\ No newline at end of file
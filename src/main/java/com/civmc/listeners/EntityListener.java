@@ -38,7 +38,7 @@ public class EntityListener implements Listener {
         Player attacker = getPlayerFromEntity(damager);
         if (attacker == null) return;
         
-        String attackerUUID = attacker.getUniqueId().toString();
+        String attackerUUID = IdInterner.of(attacker.getUniqueId());
         
         // Handle PvP
         if (damaged instanceof Player) {
@@ -52,7 +52,7 @@ public class EntityListener implements Listener {
             
             // Check if both players are in the same civilization (friendly fire)
             Civilization attackerCiv = plugin.getDataManager().getPlayerCivilization(attackerUUID);
-            Civilization victimCiv = plugin.getDataManager().getPlayerCivilization(victim.getUniqueId().toString());
+            Civilization victimCiv = plugin.getDataManager().getPlayerCivilization(IdInterner.of(victim.getUniqueId()));
             
             if (attackerCiv != null && victimCiv != null && attackerCiv.getUuid().equals(victimCiv.getUuid())) {
                 if (!claim.getFlags().isFriendlyFire()) {
@@ -79,27 +79,22 @@ public class EntityListener implements Listener {
     
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onEntityExplode(EntityExplodeEvent event) {
-        Location location = event.getLocation();
-        
         // Remove blocks that are in protected claims
-        event.blockList().removeIf(block -> {
-            Claim claim = getClaim(block.getLocation());
-            return claim != null && !claim.getFlags().isExplosions();
-        });
+        plugin.getProtectionService().removeExplosionProtected(event.blockList());
     }
     
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onCreatureSpawn(CreatureSpawnEvent event) {
         if (event.getSpawnReason() == CreatureSpawnEvent.SpawnReason.NATURAL) {
-            Location location = event.getLocation();
-            Claim claim = getClaim(location);
+            Entity entity = event.getEntity();
+            boolean monster = entity instanceof Monster;
+            if (!monster && !(entity instanceof Animals)) {
+                return;
+            }
             
-            if (claim != null) {
-                if (event.getEntity() instanceof Monster && !claim.getFlags().isMonsterSpawn()) {
-                    event.setCancelled(true);
-                } else if (event.getEntity() instanceof Animals && !claim.getFlags().isAnimalSpawn()) {
-                    event.setCancelled(true);
-                }
+            // One bit lookup in the claim index; wilderness and permissive claims are never resolved
+            if (plugin.getProtectionService().isSpawnBlocked(event.getLocation(), monster)) {
+                event.setCancelled(true);
             }
         }
     }
@@ -252,34 +247,10 @@ public class EntityListener implements Listener {
     }
     
     private boolean hasPermission(Player player, Location location, TrustFlag flag) {
-        if (player.hasPermission("civilization.bypass.protection")) {
-            return true;
-        }
-        
-        String playerUUID = player.getUniqueId().toString();
-        Claim claim = getClaim(location);
-        
-        if (claim == null) {
-            return plugin.getConfigManager().getConfig().getBoolean("protection.allow-wilderness-interaction", true);
-        }
-        
-        // Check if player is a member of the civilization
-        Civilization civ = plugin.getDataManager().getCivilization(claim.getCivId());
-        if (civ != null && civ.isMember(playerUUID)) {
-            return true;
-        }
-        
-        // Check trust permissions
-        return claim.isTrusted(playerUUID, flag);
+        return plugin.getProtectionService().canInteract(player, location, flag);
     }
     
     private Claim getClaim(Location location) {
-        if (location == null || location.getWorld() == null) return null;
-        
-        int chunkX = location.getChunk().getX();
-        int chunkZ = location.getChunk().getZ();
-        String worldName = location.getWorld().getName();
-        
-        return plugin.getDataManager().getClaim(worldName, chunkX, chunkZ);
+        return plugin.getDataManager().getClaim(location);
     }
 }
\ No newline at end of file
@@ -82,34 +82,6 @@ public class InventoryListener implements Listener {
     }
     
     private boolean hasPermission(Player player, Location location, TrustFlag flag) {
-        if (player.hasPermission("civilization.bypass.protection")) {
-            return true;
-        }
-        
-        String playerUUID = player.getUniqueId().toString();
-        Claim claim = getClaim(location);
-        
-        if (claim == null) {
-            return plugin.getConfigManager().getConfig().getBoolean("protection.allow-wilderness-interaction", true);
-        }
-        
-        // Check if player is a member of the civilization
-        Civilization civ = plugin.getDataManager().getCivilization(claim.getCivId());
-        if (civ != null && civ.isMember(playerUUID)) {
-            return true;
-        }
-        
-        // Check trust permissions
-        return claim.isTrusted(playerUUID, flag);
-    }
-    
-    private Claim getClaim(Location location) {
-        if (location == null || location.getWorld() == null) return null;
-        
-        int chunkX = location.getChunk().getX();
-        int chunkZ = location.getChunk().getZ();
-        String worldName = location.getWorld().getName();
-        
-        return plugin.getDataManager().getClaim(worldName, chunkX, chunkZ);
+        return plugin.getProtectionService().canInteract(player, location, flag);
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.civmc.CivilizationMC;
 import com.civmc.model.*;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -11,12 +12,18 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.player.*;
 import org.bukkit.event.block.Action;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
 import java.util.logging.Logger;
 
 public class PlayerListener implements Listener {
     
     private final CivilizationMC plugin;
     private final Logger logger;
+    // Chunk and claim each online player was last seen in; only touched on the main thread
+    private final Map<UUID, TerritoryState> territory = new HashMap<>();
     
     public PlayerListener(CivilizationMC plugin) {
         this.plugin = plugin;
@@ -26,7 +33,7 @@ public class PlayerListener implements Listener {
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
-        String playerUUID = player.getUniqueId().toString();
+        String playerUUID = IdInterner.of(player.getUniqueId());
         
         // Check for pending invitations
         var invitations = plugin.getDataManager().getPlayerInvitations(playerUUID);
@@ -36,6 +43,19 @@ public class PlayerListener implements Listener {
         }
     }
     
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        plugin.getProtectionService().forget(event.getPlayer());
+        territory.remove(event.getPlayer().getUniqueId());
+        IdInterner.forget(event.getPlayer().getUniqueId());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleported(PlayerTeleportEvent event) {
+        // Teleports never announced territory; the next move starts tracking from the new location
+        territory.remove(event.getPlayer().getUniqueId());
+    }
+    
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onPlayerInteract(PlayerInteractEvent event) {
         if (event.getAction() != Action.RIGHT_CLICK_BLOCK && event.getAction() != Action.LEFT_CLICK_BLOCK) {
@@ -54,45 +74,76 @@ public class PlayerListener implements Listener {
     
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
     public void onPlayerMove(PlayerMoveEvent event) {
-        // Only check chunk changes
-        if (event.getFrom().getChunk().equals(event.getTo().getChunk())) {
+        Location to = event.getTo();
+        int chunkX = to.getBlockX() >> 4;
+        int chunkZ = to.getBlockZ() >> 4;
+        World world = to.getWorld();
+        
+        Player player = event.getPlayer();
+        long epoch = plugin.getDataManager().getProtectionEpoch();
+        TerritoryState state = territory.get(player.getUniqueId());
+        if (state != null && state.epoch != epoch && state.world != null) {
+            // A claim was added, removed or re-owned since; re-read the player's last chunk without announcing it
+            state.update(state.world, state.chunkX, state.chunkZ,
+                    plugin.getDataManager().getClaim(state.world, state.chunkX, state.chunkZ), epoch);
+        }
+        // Most move packets stay inside the chunk the player was last seen in
+        if (state != null && state.chunkX == chunkX && state.chunkZ == chunkZ && state.world == world) {
             return;
         }
         
-        Player player = event.getPlayer();
-        Location from = event.getFrom();
-        Location to = event.getTo();
+        if (state == null || state.world != world) {
+            Location from = event.getFrom();
+            state = new TerritoryState();
+            state.update(from.getWorld(), from.getBlockX() >> 4, from.getBlockZ() >> 4, getClaim(from), epoch);
+            territory.put(player.getUniqueId(), state);
+        }
         
-        Claim fromClaim = getClaim(from);
-        Claim toClaim = getClaim(to);
+        Claim fromClaim = state.claim;
+        Claim toClaim = world != null ? plugin.getDataManager().getClaim(world, chunkX, chunkZ) : null;
+        // Updated first: a denied entry may teleport the player, which clears the state
+        state.update(world, chunkX, chunkZ, toClaim, epoch);
         
-        // Player moved to different claim
-        if (fromClaim != toClaim) {
+        // Trusts and flags are per claim, so access is checked on every claimed chunk entered
+        if (toClaim != null && toClaim != fromClaim && denyEntry(player, toClaim)) {
+            return;
+        }
+        // Only announce a change of owner, not every chunk of the same territory
+        if (!Objects.equals(ownerOf(fromClaim), ownerOf(toClaim))) {
             handleClaimEntry(player, fromClaim, toClaim);
         }
     }
     
+    private static String ownerOf(Claim claim) {
+        return claim != null ? claim.getCivId() : null;
+    }
+    
+    // Returns true when the player was teleported away
+    private boolean denyEntry(Player player, Claim toClaim) {
+        Civilization civ = plugin.getDataManager().getCivilization(toClaim.getCivId());
+        if (civ == null) return false;
+        
+        // Check if player is banned from this claim
+        String playerUUID = IdInterner.of(player.getUniqueId());
+        if (civ.isMember(playerUUID) || toClaim.isTrusted(playerUUID, TrustFlag.ACCESS)) return false;
+        
+        // Check entry permissions
+        if (toClaim.getFlags().isPublicAccess()) return false;
+        player.sendMessage(ChatColor.RED + "You are not allowed to enter " + civ.getName() + " territory!");
+        
+        // Teleport back if configured
+        if (plugin.getConfigManager().getConfig().getBoolean("protection.teleport-on-entry-deny", false)) {
+            player.teleport(player.getWorld().getSpawnLocation());
+            return true;
+        }
+        return false;
+    }
+    
     private void handleClaimEntry(Player player, Claim fromClaim, Claim toClaim) {
         if (toClaim != null) {
             // Entering claimed territory
             Civilization civ = plugin.getDataManager().getCivilization(toClaim.getCivId());
             if (civ != null) {
-                // Check if player is banned from this claim
-                String playerUUID = player.getUniqueId().toString();
-                
-                if (!civ.isMember(playerUUID) && !toClaim.isTrusted(playerUUID, TrustFlag.ACCESS)) {
-                    // Check entry permissions
-                    if (!toClaim.getFlags().isPublicAccess()) {
-                        player.sendMessage(ChatColor.RED + "You are not allowed to enter " + civ.getName() + " territory!");
-                        
-                        // Teleport back if configured
-                        if (plugin.getConfigManager().getConfig().getBoolean("protection.teleport-on-entry-deny", false)) {
-                            player.teleport(player.getWorld().getSpawnLocation());
-                            return;
-                        }
-                    }
-                }
-                
                 // Send entry message
                 String message = toClaim.getFlags().getEntryMessage();
                 if (message != null && !message.isEmpty()) {
@@ -221,7 +272,7 @@ public class PlayerListener implements Listener {
             
             Claim claim = getClaim(to);
             if (claim != null) {
-                String playerUUID = player.getUniqueId().toString();
+                String playerUUID = IdInterner.of(player.getUniqueId());
                 Civilization civ = plugin.getDataManager().getCivilization(claim.getCivId());
                 
                 if (civ != null && !civ.isMember(playerUUID) && 
@@ -238,103 +289,38 @@ public class PlayerListener implements Listener {
     // Utility methods
     
     private boolean hasPermission(Player player, Location location, TrustFlag flag) {
-        if (player.hasPermission("civilization.bypass.protection")) {
-            return true;
-        }
-        
-        String playerUUID = player.getUniqueId().toString();
-        Claim claim = getClaim(location);
-        
-        if (claim == null) {
-            return plugin.getConfigManager().getConfig().getBoolean("protection.allow-wilderness-interaction", true);
-        }
-        
-        // Check if player is a member of the civilization
-        Civilization civ = plugin.getDataManager().getCivilization(claim.getCivId());
-        if (civ != null && civ.isMember(playerUUID)) {
-            return true;
-        }
-        
-        // Check trust permissions
-        return claim.isTrusted(playerUUID, flag);
+        return plugin.getProtectionService().canInteract(player, location, flag);
     }
     
     private boolean hasInteractionPermission(Player player, Location location) {
-        if (player.hasPermission("civilization.bypass.protection")) {
-            return true;
-        }
-        
-        String playerUUID = player.getUniqueId().toString();
-        Claim claim = getClaim(location);
-        
-        if (claim == null) {
-            return plugin.getConfigManager().getConfig().getBoolean("protection.allow-wilderness-interaction", true);
-        }
-        
-        // Check if player is a member of the civilization
-        Civilization civ = plugin.getDataManager().getCivilization(claim.getCivId());
-        if (civ != null && civ.isMember(playerUUID)) {
-            return true;
+        // Wilderness needs no block lookup
+        if (getClaim(location) == null) {
+            return hasPermission(player, location, TrustFlag.USE);
         }
         
-        // Check for specific interaction types
-        org.bukkit.Material material = location.getBlock().getType();
-        
-        // Containers require USE permission
-        if (isContainer(material)) {
-            return claim.isTrusted(playerUUID, TrustFlag.USE);
-        }
-        
-        // Buttons, levers, pressure plates require USE permission
-        if (isRedstoneComponent(material)) {
-            return claim.isTrusted(playerUUID, TrustFlag.USE);
-        }
-        
-        // Doors require ACCESS permission
-        if (isDoor(material)) {
-            return claim.isTrusted(playerUUID, TrustFlag.ACCESS);
-        }
-        
-        // Default to USE permission
-        return claim.isTrusted(playerUUID, TrustFlag.USE);
+        // Doors require ACCESS permission; containers, redstone components and everything else require USE
+        TrustFlag flag = plugin.getProtectionService().getMaterials().getInteractionFlag(location.getBlock().getType());
+        return hasPermission(player, location, flag);
     }
     
-    private boolean isContainer(org.bukkit.Material material) {
-        return material.name().contains("CHEST") || 
-               material.name().contains("BARREL") ||
-               material.name().contains("HOPPER") ||
-               material.name().contains("DISPENSER") ||
-               material.name().contains("DROPPER") ||
-               material.name().contains("FURNACE") ||
-               material.name().contains("SHULKER_BOX") ||
-               material == org.bukkit.Material.ENDER_CHEST ||
-               material == org.bukkit.Material.BREWING_STAND ||
-               material == org.bukkit.Material.ANVIL ||
-               material == org.bukkit.Material.ENCHANTING_TABLE;
-    }
-    
-    private boolean isRedstoneComponent(org.bukkit.Material material) {
-        return material.name().contains("BUTTON") ||
-               material.name().contains("LEVER") ||
-               material.name().contains("PRESSURE_PLATE") ||
-               material.name().contains("TRIPWIRE_HOOK") ||
-               material == org.bukkit.Material.REPEATER ||
-               material == org.bukkit.Material.COMPARATOR;
-    }
-    
-    private boolean isDoor(org.bukkit.Material material) {
-        return material.name().contains("DOOR") ||
-               material.name().contains("GATE") ||
-               material.name().contains("TRAPDOOR");
+    private Claim getClaim(Location location) {
+        return plugin.getDataManager().getClaim(location);
     }
     
-    private Claim getClaim(Location location) {
-        if (location == null || location.getWorld() == null) return null;
-        
-        int chunkX = location.getChunk().getX();
-        int chunkZ = location.getChunk().getZ();
-        String worldName = location.getWorld().getName();
+    private static final class TerritoryState {
+        private World world;
+        private int chunkX;
+        private int chunkZ;
+        private Claim claim;
+        // Protection epoch the claim was read at
+        private long epoch;
         
-        return plugin.getDataManager().getClaim(worldName, chunkX, chunkZ);
+        private void update(World world, int chunkX, int chunkZ, Claim claim, long epoch) {
+            this.world = world;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.claim = claim;
+            this.epoch = epoch;
+        }
     }
 }
\ No newline at end of file
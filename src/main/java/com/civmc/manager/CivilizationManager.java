@@ -1,6 +1,7 @@
 package com.civmc.manager;
 
 import com.civmc.CivilizationMC;
+import com.civmc.data.index.Leaderboards;
 import com.civmc.model.*;
 import com.civmc.events.CivEvent;
 import com.civmc.events.civilization.*;
@@ -12,7 +13,6 @@ import org.bukkit.scheduler.BukkitRunnable;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 public class CivilizationManager {
     
@@ -61,6 +61,7 @@ public class CivilizationManager {
     
     public CompletableFuture<CreateCivilizationResult> createCivilization(String playerUUID, String name) {
         return CompletableFuture.supplyAsync(() -> {
+            Civilization civilization = new Civilization(name, playerUUID);
             try {
                 // Validate name
                 var nameValidation = validateCivilizationName(name);
@@ -73,21 +74,15 @@ public class CivilizationManager {
                     return CreateCivilizationResult.ALREADY_IN_CIVILIZATION;
                 }
                 
-                // Check if name is taken
-                if (plugin.getDataManager().isCivilizationNameTaken(name)) {
+                // Reserve the name first, so a concurrent create with the same name fails here
+                if (!plugin.getDataManager().reserveCivilizationName(name, civilization.getUuid())) {
                     return CreateCivilizationResult.NAME_TAKEN;
                 }
                 
-                // Check economy
-                if (!plugin.getEconomyManager().hasMoney(playerUUID, createCost)) {
-                    return CreateCivilizationResult.INSUFFICIENT_FUNDS;
-                }
-                
-                // Create civilization
-                Civilization civilization = new Civilization(name, playerUUID);
-                
-                // Charge money
-                if (!plugin.getEconomyManager().withdrawMoney(playerUUID, createCost)) {
+                // Check economy and charge money
+                if (!plugin.getEconomyManager().hasMoney(playerUUID, createCost)
+                        || !plugin.getEconomyManager().withdrawMoney(playerUUID, createCost)) {
+                    plugin.getDataManager().releaseCivilizationName(name, civilization.getUuid());
                     return CreateCivilizationResult.INSUFFICIENT_FUNDS;
                 }
                 
@@ -104,6 +99,8 @@ public class CivilizationManager {
                 return CreateCivilizationResult.SUCCESS;
                 
             } catch (Exception e) {
+                // No-op unless the name was reserved but the civilization never saved
+                plugin.getDataManager().releaseCivilizationName(name, civilization.getUuid());
                 logger.severe("Error creating civilization: " + e.getMessage());
                 e.printStackTrace();
                 return CreateCivilizationResult.ERROR;
@@ -209,8 +206,8 @@ public class CivilizationManager {
                 return false;
             }
             
-            // Check if name is taken
-            if (plugin.getDataManager().isCivilizationNameTaken(newName)) {
+            // Reserve the new name; the old one is dropped from the index when the civilization is saved
+            if (!plugin.getDataManager().reserveCivilizationName(newName, civUUID)) {
                 return false;
             }
             
@@ -224,6 +221,7 @@ public class CivilizationManager {
             
             return true;
         } catch (Exception e) {
+            plugin.getDataManager().releaseCivilizationName(newName, civUUID);
             logger.severe("Error renaming civilization: " + e.getMessage());
             e.printStackTrace();
             return false;
@@ -674,10 +672,11 @@ public class CivilizationManager {
     // Utility Methods
     
     public List<Civilization> getTopCivilizations(int limit) {
-        return plugin.getDataManager().getAllCivilizations().values().stream()
-                .sorted((a, b) -> Integer.compare(b.getTotalMemberCount(), a.getTotalMemberCount()))
-                .limit(limit)
-                .collect(Collectors.toList());
+        return getTopCivilizations(Leaderboards.Metric.MEMBERS, limit);
+    }
+    
+    public List<Civilization> getTopCivilizations(Leaderboards.Metric metric, int limit) {
+        return plugin.getDataManager().getTopCivilizations(metric, limit);
     }
     
     public boolean hasPermission(String playerUUID, String civUUID, String permission) {
@@ -6,7 +6,7 @@ import org.bukkit.World;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
-public class Civilization {
+public class Civilization extends Versioned {
     private String uuid;
     private String name;
     private int level;
@@ -44,7 +44,7 @@ public class Civilization {
     public Civilization(String name, String leaderUUID) {
         this();
         this.name = name;
-        this.leaderUUID = leaderUUID;
+        this.leaderUUID = IdInterner.intern(leaderUUID);
     }
     
     // Role management
@@ -61,7 +61,9 @@ public class Civilization {
     }
     
     public void addMember(String playerUUID, CivRole role) {
+        playerUUID = IdInterner.intern(playerUUID);
         removeMember(playerUUID); // Remove from all roles first
+        markDirty();
         
         switch (role) {
             case OFFICER:
@@ -79,6 +81,7 @@ public class Civilization {
     }
     
     public void removeMember(String playerUUID) {
+        markDirty();
         officers.remove(playerUUID);
         members.remove(playerUUID);
         recruits.remove(playerUUID);
@@ -122,7 +125,8 @@ public class Civilization {
     
     public void setLeader(String playerUUID) {
         String oldLeader = this.leaderUUID;
-        this.leaderUUID = playerUUID;
+        this.leaderUUID = IdInterner.intern(playerUUID);
+        markDirty();
         
         // Remove new leader from other roles
         removeMember(playerUUID);
@@ -149,6 +153,7 @@ public class Civilization {
     // Bank operations
     public void deposit(double amount, String actorUUID, String note) {
         bankBalance += amount;
+        markDirty();
         transactions.add(new Transaction(
             UUID.randomUUID().toString(),
             System.currentTimeMillis(),
@@ -165,6 +170,7 @@ public class Civilization {
         if (bankBalance < amount) return false;
         
         bankBalance -= amount;
+        markDirty();
         transactions.add(new Transaction(
             UUID.randomUUID().toString(),
             System.currentTimeMillis(),
@@ -180,6 +186,7 @@ public class Civilization {
     
     public void addTransaction(Transaction transaction) {
         transactions.add(transaction);
+        markDirty();
         // Keep only last 100 transactions
         if (transactions.size() > 100) {
             transactions = new ArrayList<>(transactions.subList(transactions.size() - 100, transactions.size()));
@@ -192,7 +199,7 @@ public class Civilization {
     }
     
     public void setUuid(String uuid) {
-        this.uuid = uuid;
+        this.uuid = IdInterner.intern(uuid);
     }
     
     public String getName() {
@@ -224,7 +231,7 @@ public class Civilization {
     }
     
     public void setLeaderUUID(String leaderUUID) {
-        this.leaderUUID = leaderUUID;
+        this.leaderUUID = IdInterner.intern(leaderUUID);
     }
     
     public Set<String> getOfficers() {
@@ -232,7 +239,7 @@ public class Civilization {
     }
     
     public void setOfficers(Set<String> officers) {
-        this.officers = officers != null ? officers : ConcurrentHashMap.newKeySet();
+        this.officers = officers != null ? IdInterner.internAll(officers) : ConcurrentHashMap.newKeySet();
     }
     
     public Set<String> getMembers() {
@@ -240,7 +247,7 @@ public class Civilization {
     }
     
     public void setMembers(Set<String> members) {
-        this.members = members != null ? members : ConcurrentHashMap.newKeySet();
+        this.members = members != null ? IdInterner.internAll(members) : ConcurrentHashMap.newKeySet();
     }
     
     public Set<String> getRecruits() {
@@ -248,7 +255,7 @@ public class Civilization {
     }
     
     public void setRecruits(Set<String> recruits) {
-        this.recruits = recruits != null ? recruits : ConcurrentHashMap.newKeySet();
+        this.recruits = recruits != null ? IdInterner.internAll(recruits) : ConcurrentHashMap.newKeySet();
     }
     
     public long getCreatedAt() {
@@ -280,7 +287,7 @@ public class Civilization {
     }
     
     public void setAllies(Set<String> allies) {
-        this.allies = allies != null ? allies : ConcurrentHashMap.newKeySet();
+        this.allies = allies != null ? IdInterner.internAll(allies) : ConcurrentHashMap.newKeySet();
     }
     
     public Set<String> getWars() {
@@ -288,7 +295,7 @@ public class Civilization {
     }
     
     public void setWars(Set<String> wars) {
-        this.wars = wars != null ? wars : ConcurrentHashMap.newKeySet();
+        this.wars = wars != null ? IdInterner.internAll(wars) : ConcurrentHashMap.newKeySet();
     }
     
     public CivSettings getSettings() {
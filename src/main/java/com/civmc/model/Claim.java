@@ -3,7 +3,7 @@ package com.civmc.model;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
-public class Claim {
+public class Claim extends Versioned {
     private String world;
     private int chunkX;
     private int chunkZ;
@@ -12,9 +12,14 @@ public class Claim {
     private Set<ClaimTrust> trusts;
     private long createdAt;
     
+    // Compiled from trusts on every change: player UUID -> TrustFlag bitmask, expired entries left out
+    private transient volatile Map<String, Integer> trustMasks;
+    // Earliest expiry among the compiled entries; the table is recompiled once it passes
+    private transient volatile long trustMasksExpireAt;
+    
     public Claim() {
         this.trusts = ConcurrentHashMap.newKeySet();
-        this.flags = new ClaimFlags();
+        this.flags = ClaimFlags.defaults();
         this.createdAt = System.currentTimeMillis();
     }
     
@@ -23,7 +28,7 @@ public class Claim {
         this.world = world;
         this.chunkX = chunkX;
         this.chunkZ = chunkZ;
-        this.civId = civId;
+        this.civId = IdInterner.intern(civId);
     }
     
     public String getClaimKey() {
@@ -31,25 +36,66 @@ public class Claim {
     }
     
     public boolean isTrusted(String playerUUID, TrustFlag flag) {
-        return trusts.stream()
-                .anyMatch(trust -> trust.getPlayerUUID().equals(playerUUID) && 
-                                 trust.hasFlag(flag) && 
-                                 !trust.isExpired());
+        Integer mask = getTrustMasks().get(playerUUID);
+        return mask != null && (mask & flag.bit()) != 0;
     }
     
-    public void addTrust(String playerUUID, Set<TrustFlag> flags) {
-        removeTrust(playerUUID);
+    public synchronized void addTrust(String playerUUID, Set<TrustFlag> flags) {
+        trusts.removeIf(trust -> trust.getPlayerUUID().equals(playerUUID) || trust.isExpired());
         trusts.add(new ClaimTrust(playerUUID, flags));
+        compileTrusts();
+        markDirty();
     }
     
-    public void removeTrust(String playerUUID) {
-        trusts.removeIf(trust -> trust.getPlayerUUID().equals(playerUUID));
+    public synchronized void removeTrust(String playerUUID) {
+        if (trusts.removeIf(trust -> trust.getPlayerUUID().equals(playerUUID) || trust.isExpired())) {
+            compileTrusts();
+            markDirty();
+        }
     }
     
+    // Read-only; expired entries stay until the next trust change, use getActiveTrustCount for display
     public Set<ClaimTrust> getTrusts() {
-        // Remove expired trusts
-        trusts.removeIf(ClaimTrust::isExpired);
-        return trusts;
+        return Collections.unmodifiableSet(trusts);
+    }
+    
+    public int getActiveTrustCount() {
+        return getTrustMasks().size();
+    }
+    
+    // Time at which the next trust in this claim expires, Long.MAX_VALUE if none will
+    public long getNextTrustExpiry() {
+        getTrustMasks();
+        return trustMasksExpireAt;
+    }
+    
+    private Map<String, Integer> getTrustMasks() {
+        Map<String, Integer> masks = trustMasks;
+        if (masks == null || System.currentTimeMillis() > trustMasksExpireAt) {
+            synchronized (this) {
+                masks = trustMasks;
+                if (masks == null || System.currentTimeMillis() > trustMasksExpireAt) {
+                    masks = compileTrusts();
+                }
+            }
+        }
+        return masks;
+    }
+    
+    private Map<String, Integer> compileTrusts() {
+        Map<String, Integer> masks = new HashMap<>();
+        long earliestExpiry = Long.MAX_VALUE;
+        for (ClaimTrust trust : trusts) {
+            if (trust.isExpired()) continue;
+            masks.merge(trust.getPlayerUUID(), TrustFlag.maskOf(trust.getFlags()), (a, b) -> a | b);
+            if (trust.getExpiresAt() > 0) {
+                earliestExpiry = Math.min(earliestExpiry, trust.getExpiresAt());
+            }
+        }
+        // Expiry is written before the table so a reader never pairs the new table with a stale expiry
+        trustMasksExpireAt = earliestExpiry;
+        trustMasks = masks;
+        return masks;
     }
     
     // Getters and Setters
@@ -82,7 +128,7 @@ public class Claim {
     }
     
     public void setCivId(String civId) {
-        this.civId = civId;
+        this.civId = IdInterner.intern(civId);
     }
     
     public ClaimFlags getFlags() {
@@ -90,11 +136,12 @@ public class Claim {
     }
     
     public void setFlags(ClaimFlags flags) {
-        this.flags = flags != null ? flags : new ClaimFlags();
+        this.flags = flags != null ? flags : ClaimFlags.defaults();
     }
     
-    public void setTrusts(Set<ClaimTrust> trusts) {
+    public synchronized void setTrusts(Set<ClaimTrust> trusts) {
         this.trusts = trusts != null ? trusts : ConcurrentHashMap.newKeySet();
+        this.trustMasks = null;
     }
     
     public long getCreatedAt() {
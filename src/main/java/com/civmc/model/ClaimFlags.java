@@ -1,218 +1,364 @@
 package com.civmc.model;
 
-public class ClaimFlags {
-    private FlagValue pvp;
-    private boolean explosionsBlocked;
-    private AccessLevel interact;
-    private AccessLevel containers;
-    private AccessLevel redstone;
-    private boolean mobSpawnHostile;
-    private boolean mobSpawnPassive;
-    private boolean fireSpread;
-    private boolean blockSpread;
-    private boolean fluidFlow;
-    private boolean explosions;
-    private boolean monsterSpawn;
-    private boolean animalSpawn;
-    private boolean potions;
-    private String entryMessage;
-    private String exitMessage;
-    
-    public ClaimFlags() {
-        this.pvp = FlagValue.INHERIT;
-        this.explosionsBlocked = true;
-        this.interact = AccessLevel.MEMBERS_ONLY;
-        this.containers = AccessLevel.MEMBERS_ONLY;
-        this.redstone = AccessLevel.MEMBERS_ONLY;
-        this.mobSpawnHostile = true;
-        this.mobSpawnPassive = true;
-        this.fireSpread = false;
-        this.blockSpread = false;
-        this.fluidFlow = false;
-        this.explosions = true;
-        this.monsterSpawn = true;
-        this.animalSpawn = true;
-        this.potions = false;
-        this.entryMessage = "";
-        this.exitMessage = "";
-    }
-    
-    // Getters and Setters
-    public FlagValue getPvp() {
-        return pvp;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * Immutable claim flags packed into a single long, plus the entry and exit messages.
+ * Instances are interned, so the many claims that share a flag set share one object;
+ * to change a claim's flags, edit a copy via {@link #toBuilder()} and pass the result to {@link Claim#setFlags}.
+ */
+public final class ClaimFlags {
+    
+    // Bits 0-7: four 2-bit enum ordinals
+    private static final int PVP_SHIFT = 0;
+    private static final int INTERACT_SHIFT = 2;
+    private static final int CONTAINERS_SHIFT = 4;
+    private static final int REDSTONE_SHIFT = 6;
+    private static final long ENUM_MASK = 0b11;
+    
+    // Bits 8+: booleans
+    private static final long EXPLOSIONS_BLOCKED = 1L << 8;
+    private static final long MOB_SPAWN_HOSTILE = 1L << 9;
+    private static final long MOB_SPAWN_PASSIVE = 1L << 10;
+    private static final long FIRE_SPREAD = 1L << 11;
+    private static final long BLOCK_SPREAD = 1L << 12;
+    private static final long FLUID_FLOW = 1L << 13;
+    private static final long EXPLOSIONS = 1L << 14;
+    private static final long MONSTER_SPAWN = 1L << 15;
+    private static final long ANIMAL_SPAWN = 1L << 16;
+    private static final long POTIONS = 1L << 17;
+    private static final long PLANT_GROWTH = 1L << 18;
+    private static final long ICE_MELT = 1L << 19;
+    private static final long LEAF_DECAY = 1L << 20;
+    private static final long BLOCK_FORM = 1L << 21;
+    private static final long ITEM_DROP = 1L << 22;
+    private static final long ITEM_PICKUP = 1L << 23;
+    private static final long TELEPORTATION = 1L << 24;
+    private static final long FRIENDLY_FIRE = 1L << 25;
+    
+    private static final long DEFAULT_BITS = pack(FlagValue.INHERIT, PVP_SHIFT)
+            | pack(AccessLevel.MEMBERS_ONLY, INTERACT_SHIFT)
+            | pack(AccessLevel.MEMBERS_ONLY, CONTAINERS_SHIFT)
+            | pack(AccessLevel.MEMBERS_ONLY, REDSTONE_SHIFT)
+            | EXPLOSIONS_BLOCKED | MOB_SPAWN_HOSTILE | MOB_SPAWN_PASSIVE | EXPLOSIONS | MONSTER_SPAWN | ANIMAL_SPAWN
+            | PLANT_GROWTH | ICE_MELT | LEAF_DECAY | BLOCK_FORM | ITEM_DROP | ITEM_PICKUP | TELEPORTATION;
+    
+    // Weak so flag sets no claim uses any more can be collected
+    private static final Map<ClaimFlags, WeakReference<ClaimFlags>> INTERNED = new WeakHashMap<>();
+    private static final ClaimFlags DEFAULTS = intern(new ClaimFlags(DEFAULT_BITS, "", ""));
+    
+    private final long bits;
+    private final String entryMessage;
+    private final String exitMessage;
+    
+    private ClaimFlags(long bits, String entryMessage, String exitMessage) {
+        this.bits = bits;
+        this.entryMessage = entryMessage;
+        this.exitMessage = exitMessage;
     }
     
-    public void setPvp(FlagValue pvp) {
-        this.pvp = pvp;
+    public static ClaimFlags defaults() {
+        return DEFAULTS;
     }
     
-    public boolean isExplosionsBlocked() {
-        return explosionsBlocked;
+    private static ClaimFlags intern(ClaimFlags flags) {
+        synchronized (INTERNED) {
+            WeakReference<ClaimFlags> ref = INTERNED.get(flags);
+            ClaimFlags existing = ref != null ? ref.get() : null;
+            if (existing != null) {
+                return existing;
+            }
+            INTERNED.put(flags, new WeakReference<>(flags));
+            return flags;
+        }
     }
     
-    public void setExplosionsBlocked(boolean explosionsBlocked) {
-        this.explosionsBlocked = explosionsBlocked;
+    public Builder toBuilder() {
+        return new Builder(bits, entryMessage, exitMessage);
     }
     
-    public AccessLevel getInteract() {
-        return interact;
+    // Packed representation, for code that compares or compiles whole flag sets
+    public long getBits() {
+        return bits;
     }
     
-    public void setInteract(AccessLevel interact) {
-        this.interact = interact;
+    // Getters
+    public FlagValue getPvp() {
+        return FlagValue.VALUES[unpack(PVP_SHIFT)];
     }
     
-    public AccessLevel getContainers() {
-        return containers;
+    public boolean isExplosionsBlocked() {
+        return has(EXPLOSIONS_BLOCKED);
     }
     
-    public void setContainers(AccessLevel containers) {
-        this.containers = containers;
+    public AccessLevel getInteract() {
+        return AccessLevel.VALUES[unpack(INTERACT_SHIFT)];
     }
     
-    public AccessLevel getRedstone() {
-        return redstone;
+    public AccessLevel getContainers() {
+        return AccessLevel.VALUES[unpack(CONTAINERS_SHIFT)];
     }
     
-    public void setRedstone(AccessLevel redstone) {
-        this.redstone = redstone;
+    public AccessLevel getRedstone() {
+        return AccessLevel.VALUES[unpack(REDSTONE_SHIFT)];
     }
     
     public boolean isMobSpawnHostile() {
-        return mobSpawnHostile;
-    }
-    
-    public void setMobSpawnHostile(boolean mobSpawnHostile) {
-        this.mobSpawnHostile = mobSpawnHostile;
+        return has(MOB_SPAWN_HOSTILE);
     }
     
     public boolean isMobSpawnPassive() {
-        return mobSpawnPassive;
-    }
-    
-    public void setMobSpawnPassive(boolean mobSpawnPassive) {
-        this.mobSpawnPassive = mobSpawnPassive;
+        return has(MOB_SPAWN_PASSIVE);
     }
     
     public boolean isFireSpread() {
-        return fireSpread;
-    }
-    
-    public void setFireSpread(boolean fireSpread) {
-        this.fireSpread = fireSpread;
+        return has(FIRE_SPREAD);
     }
     
     public String getEntryMessage() {
         return entryMessage;
     }
     
-    public void setEntryMessage(String entryMessage) {
-        this.entryMessage = entryMessage;
-    }
-    
     public String getExitMessage() {
         return exitMessage;
     }
     
-    public void setExitMessage(String exitMessage) {
-        this.exitMessage = exitMessage;
-    }
-    
     public boolean isBlockSpread() {
-        return blockSpread;
-    }
-    
-    public void setBlockSpread(boolean blockSpread) {
-        this.blockSpread = blockSpread;
+        return has(BLOCK_SPREAD);
     }
     
     public boolean isFluidFlow() {
-        return fluidFlow;
-    }
-    
-    public void setFluidFlow(boolean fluidFlow) {
-        this.fluidFlow = fluidFlow;
+        return has(FLUID_FLOW);
     }
     
     public boolean isExplosions() {
-        return explosions;
-    }
-    
-    public void setExplosions(boolean explosions) {
-        this.explosions = explosions;
+        return has(EXPLOSIONS);
     }
     
     public boolean isMonsterSpawn() {
-        return monsterSpawn;
-    }
-    
-    public void setMonsterSpawn(boolean monsterSpawn) {
-        this.monsterSpawn = monsterSpawn;
+        return has(MONSTER_SPAWN);
     }
     
     public boolean isAnimalSpawn() {
-        return animalSpawn;
-    }
-    
-    public void setAnimalSpawn(boolean animalSpawn) {
-        this.animalSpawn = animalSpawn;
+        return has(ANIMAL_SPAWN);
     }
     
     public boolean isPotions() {
-        return potions;
-    }
-    
-    public void setPotions(boolean potions) {
-        this.potions = potions;
+        return has(POTIONS);
     }
     
     public boolean isPlantGrowth() {
-        return true; // Allow plant growth by default
+        return has(PLANT_GROWTH);
     }
     
     public boolean isIceMelt() {
-        return true; // Allow ice melt by default
+        return has(ICE_MELT);
     }
     
     public boolean isLeafDecay() {
-        return true; // Allow leaf decay by default
+        return has(LEAF_DECAY);
     }
     
     public boolean isBlockForm() {
-        return true; // Allow block formation by default
+        return has(BLOCK_FORM);
     }
     
     public boolean isPublicAccess() {
-        return interact == AccessLevel.PUBLIC;
+        return getInteract() == AccessLevel.PUBLIC;
     }
     
     public boolean isItemDrop() {
-        return true; // Allow item drops by default
+        return has(ITEM_DROP);
     }
     
     public boolean isItemPickup() {
-        return true; // Allow item pickups by default
+        return has(ITEM_PICKUP);
     }
     
     public boolean isTeleportation() {
-        return true; // Allow teleportation by default
+        return has(TELEPORTATION);
     }
     
     public boolean isPvp() {
-        return pvp == FlagValue.ON;
+        return getPvp() == FlagValue.ON;
     }
     
     public boolean isFriendlyFire() {
-        return false; // No friendly fire by default
+        return has(FRIENDLY_FIRE);
+    }
+    
+    private boolean has(long bit) {
+        return (bits & bit) != 0;
+    }
+    
+    private int unpack(int shift) {
+        return (int) ((bits >>> shift) & ENUM_MASK);
+    }
+    
+    private static long pack(Enum<?> value, int shift) {
+        return (long) value.ordinal() << shift;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ClaimFlags)) return false;
+        ClaimFlags other = (ClaimFlags) o;
+        return bits == other.bits && entryMessage.equals(other.entryMessage) && exitMessage.equals(other.exitMessage);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(bits, entryMessage, exitMessage);
+    }
+    
+    /**
+     * Mutable copy of a flag set; {@link #build()} returns the shared instance for the result.
+     */
+    public static final class Builder {
+        private long bits;
+        private String entryMessage;
+        private String exitMessage;
+        
+        public Builder() {
+            this(DEFAULT_BITS, "", "");
+        }
+        
+        private Builder(long bits, String entryMessage, String exitMessage) {
+            this.bits = bits;
+            this.entryMessage = entryMessage;
+            this.exitMessage = exitMessage;
+        }
+        
+        public Builder setPvp(FlagValue pvp) {
+            return setEnum(pvp, PVP_SHIFT);
+        }
+        
+        public Builder setExplosionsBlocked(boolean explosionsBlocked) {
+            return set(EXPLOSIONS_BLOCKED, explosionsBlocked);
+        }
+        
+        public Builder setInteract(AccessLevel interact) {
+            return setEnum(interact, INTERACT_SHIFT);
+        }
+        
+        public Builder setContainers(AccessLevel containers) {
+            return setEnum(containers, CONTAINERS_SHIFT);
+        }
+        
+        public Builder setRedstone(AccessLevel redstone) {
+            return setEnum(redstone, REDSTONE_SHIFT);
+        }
+        
+        public Builder setMobSpawnHostile(boolean mobSpawnHostile) {
+            return set(MOB_SPAWN_HOSTILE, mobSpawnHostile);
+        }
+        
+        public Builder setMobSpawnPassive(boolean mobSpawnPassive) {
+            return set(MOB_SPAWN_PASSIVE, mobSpawnPassive);
+        }
+        
+        public Builder setFireSpread(boolean fireSpread) {
+            return set(FIRE_SPREAD, fireSpread);
+        }
+        
+        public Builder setEntryMessage(String entryMessage) {
+            this.entryMessage = entryMessage != null ? entryMessage : "";
+            return this;
+        }
+        
+        public Builder setExitMessage(String exitMessage) {
+            this.exitMessage = exitMessage != null ? exitMessage : "";
+            return this;
+        }
+        
+        public Builder setBlockSpread(boolean blockSpread) {
+            return set(BLOCK_SPREAD, blockSpread);
+        }
+        
+        public Builder setFluidFlow(boolean fluidFlow) {
+            return set(FLUID_FLOW, fluidFlow);
+        }
+        
+        public Builder setExplosions(boolean explosions) {
+            return set(EXPLOSIONS, explosions);
+        }
+        
+        public Builder setMonsterSpawn(boolean monsterSpawn) {
+            return set(MONSTER_SPAWN, monsterSpawn);
+        }
+        
+        public Builder setAnimalSpawn(boolean animalSpawn) {
+            return set(ANIMAL_SPAWN, animalSpawn);
+        }
+        
+        public Builder setPotions(boolean potions) {
+            return set(POTIONS, potions);
+        }
+        
+        public Builder setPlantGrowth(boolean plantGrowth) {
+            return set(PLANT_GROWTH, plantGrowth);
+        }
+        
+        public Builder setIceMelt(boolean iceMelt) {
+            return set(ICE_MELT, iceMelt);
+        }
+        
+        public Builder setLeafDecay(boolean leafDecay) {
+            return set(LEAF_DECAY, leafDecay);
+        }
+        
+        public Builder setBlockForm(boolean blockForm) {
+            return set(BLOCK_FORM, blockForm);
+        }
+        
+        public Builder setItemDrop(boolean itemDrop) {
+            return set(ITEM_DROP, itemDrop);
+        }
+        
+        public Builder setItemPickup(boolean itemPickup) {
+            return set(ITEM_PICKUP, itemPickup);
+        }
+        
+        public Builder setTeleportation(boolean teleportation) {
+            return set(TELEPORTATION, teleportation);
+        }
+        
+        public Builder setFriendlyFire(boolean friendlyFire) {
+            return set(FRIENDLY_FIRE, friendlyFire);
+        }
+        
+        public ClaimFlags build() {
+            return intern(new ClaimFlags(bits, entryMessage, exitMessage));
+        }
+        
+        private Builder set(long bit, boolean value) {
+            bits = value ? bits | bit : bits & ~bit;
+            return this;
+        }
+        
+        private Builder setEnum(Enum<?> value, int shift) {
+            if (value != null) {
+                bits = (bits & ~(ENUM_MASK << shift)) | pack(value, shift);
+            }
+            return this;
+        }
     }
     
     public enum FlagValue {
-        ON, OFF, INHERIT
+        ON, OFF, INHERIT;
+        
+        private static final FlagValue[] VALUES = values();
     }
     
     public enum AccessLevel {
         MEMBERS_ONLY,
         ALLIES_ALLOWED,
-        PUBLIC
+        PUBLIC;
+        
+        private static final AccessLevel[] VALUES = values();
     }
 }
\ No newline at end of file
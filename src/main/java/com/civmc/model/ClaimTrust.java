@@ -16,7 +16,7 @@ public class ClaimTrust {
     
     public ClaimTrust(String playerUUID, Set<TrustFlag> flags) {
         this();
-        this.playerUUID = playerUUID;
+        this.playerUUID = IdInterner.intern(playerUUID);
         this.flags.addAll(flags);
     }
     
@@ -39,7 +39,7 @@ public class ClaimTrust {
     }
     
     public void setPlayerUUID(String playerUUID) {
-        this.playerUUID = playerUUID;
+        this.playerUUID = IdInterner.intern(playerUUID);
     }
     
     public Set<TrustFlag> getFlags() {
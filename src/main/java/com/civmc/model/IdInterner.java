@@ -0,0 +1,82 @@
+package com.civmc.model;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical String instances for player and civilization UUIDs.
+ * The model interns every id it stores, so a player's UUID held by their civilization, claim trusts
+ * and invitations is a single object whose hash is computed once; event handlers resolve a player's
+ * UUID through {@link #of(UUID)} instead of calling toString() on every event.
+ * The table is weak, so ids of disbanded civilizations, deleted wars and invitations and departed
+ * players are collected once nothing references them.
+ */
+public final class IdInterner {
+    
+    // Weak keys and values, as for ClaimFlags: the id string is both
+    private static final Map<String, WeakReference<String>> IDS = new WeakHashMap<>();
+    // Only online players; dropped again on quit
+    private static final Map<UUID, String> PLAYERS = new ConcurrentHashMap<>();
+    
+    private IdInterner() {
+    }
+    
+    public static String intern(String id) {
+        if (id == null) return null;
+        synchronized (IDS) {
+            String existing = canonical(id);
+            if (existing != null) {
+                return existing;
+            }
+            IDS.put(id, new WeakReference<>(id));
+            return id;
+        }
+    }
+    
+    // Copies the set with every element interned; the stored sets are always concurrent
+    public static Set<String> internAll(Set<String> ids) {
+        Set<String> result = ConcurrentHashMap.newKeySet();
+        for (String id : ids) {
+            result.add(intern(id));
+        }
+        return result;
+    }
+    
+    // String form of a player's UUID; the canonical instance once the model knows the player
+    public static String of(UUID uuid) {
+        String id = PLAYERS.get(uuid);
+        if (id != null) {
+            return id;
+        }
+        
+        String text = uuid.toString();
+        String canonical;
+        synchronized (IDS) {
+            canonical = canonical(text);
+        }
+        id = canonical != null ? canonical : text;
+        PLAYERS.put(uuid, id);
+        return id;
+    }
+    
+    // Called on quit; the next of() re-resolves, picking up an id the model interned meanwhile
+    public static void forget(UUID uuid) {
+        PLAYERS.remove(uuid);
+    }
+    
+    public static int size() {
+        synchronized (IDS) {
+            return IDS.size();
+        }
+    }
+    
+    // Caller holds the IDS lock
+    private static String canonical(String id) {
+        WeakReference<String> ref = IDS.get(id);
+        return ref != null ? ref.get() : null;
+    }
+}
\ No newline at end of file
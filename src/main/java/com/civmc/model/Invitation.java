@@ -1,6 +1,6 @@
 package com.civmc.model;
 
-public class Invitation {
+public class Invitation extends Versioned {
     private String id;
     private String targetUUID;
     private String civId;
@@ -12,9 +12,9 @@ public class Invitation {
     
     public Invitation(String id, String targetUUID, String civId, String senderUUID, long expiresAt) {
         this.id = id;
-        this.targetUUID = targetUUID;
-        this.civId = civId;
-        this.senderUUID = senderUUID;
+        this.targetUUID = IdInterner.intern(targetUUID);
+        this.civId = IdInterner.intern(civId);
+        this.senderUUID = IdInterner.intern(senderUUID);
         this.sentAt = System.currentTimeMillis();
         this.expiresAt = expiresAt;
     }
@@ -45,7 +45,7 @@ public class Invitation {
     }
     
     public void setTargetUUID(String targetUUID) {
-        this.targetUUID = targetUUID;
+        this.targetUUID = IdInterner.intern(targetUUID);
     }
     
     public String getCivId() {
@@ -57,7 +57,7 @@ public class Invitation {
     }
     
     public void setCivId(String civId) {
-        this.civId = civId;
+        this.civId = IdInterner.intern(civId);
     }
     
     public String getSenderUUID() {
@@ -65,7 +65,7 @@ public class Invitation {
     }
     
     public void setSenderUUID(String senderUUID) {
-        this.senderUUID = senderUUID;
+        this.senderUUID = IdInterner.intern(senderUUID);
     }
     
     public long getSentAt() {
@@ -1,5 +1,7 @@
 package com.civmc.model;
 
+import java.util.Collection;
+
 public enum TrustFlag {
     BUILD("Build"),
     CONTAINER("Container Access"),
@@ -22,6 +24,22 @@ public enum TrustFlag {
         return displayName;
     }
     
+    // Every flag, ALL included
+    private static final int ALL_BITS = (1 << values().length) - 1;
+    
+    public int bit() {
+        return 1 << ordinal();
+    }
+    
+    // Holding ALL grants every flag; asking for ALL still requires ALL itself
+    public static int maskOf(Collection<TrustFlag> flags) {
+        int mask = 0;
+        for (TrustFlag flag : flags) {
+            mask |= flag == ALL ? ALL_BITS : flag.bit();
+        }
+        return mask;
+    }
+    
     public static TrustFlag fromString(String flag) {
         for (TrustFlag tf : values()) {
             if (tf.name().equalsIgnoreCase(flag)) {
@@ -0,0 +1,32 @@
+package com.civmc.model;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+// Change counter used by the delta autosave; transient so it never reaches the data files
+public abstract class Versioned {
+    
+    private static final AtomicLongFieldUpdater<Versioned> VERSION =
+            AtomicLongFieldUpdater.newUpdater(Versioned.class, "version");
+    
+    private transient volatile long version;
+    private transient volatile long persistedVersion;
+    
+    public void markDirty() {
+        VERSION.incrementAndGet(this);
+    }
+    
+    public boolean isDirty() {
+        return version != persistedVersion;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    // Pass the version read before writing, so changes made during the write stay dirty
+    public void markPersisted(long savedVersion) {
+        if (savedVersion > persistedVersion) {
+            persistedVersion = savedVersion;
+        }
+    }
+}
\ No newline at end of file
@@ -2,7 +2,7 @@ package com.civmc.model;
 
 import java.util.Set;
 
-public class War {
+public class War extends Versioned {
     private String id;
     private String civA;
     private String civB;
@@ -27,8 +27,8 @@ public class War {
     public War(String id, String civA, String civB, String reason) {
         this();
         this.id = id;
-        this.civA = civA;
-        this.civB = civB;
+        this.civA = IdInterner.intern(civA);
+        this.civB = IdInterner.intern(civB);
         this.reason = reason;
         this.startAt = System.currentTimeMillis();
     }
@@ -73,7 +73,7 @@ public class War {
     }
     
     public void setCivA(String civA) {
-        this.civA = civA;
+        this.civA = IdInterner.intern(civA);
     }
     
     public String getCivB() {
@@ -81,7 +81,7 @@ public class War {
     }
     
     public void setCivB(String civB) {
-        this.civB = civB;
+        this.civB = IdInterner.intern(civB);
     }
     
     public WarState getState() {
@@ -1,22 +1,56 @@
 package com.civmc.placeholders;
 
 import com.civmc.CivilizationMC;
+import com.civmc.data.index.Leaderboards;
 import com.civmc.model.Civilization;
 import com.civmc.model.CivRole;
 import com.civmc.model.Claim;
+import com.civmc.model.IdInterner;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class CivPlaceholders extends PlaceholderExpansion {
+/**
+ * PlaceholderAPI expansion for %civ_...% placeholders.
+ * Scoreboards and tab lists ask for the same few params for every player every few ticks, so each params
+ * string is compiled once into a {@link Resolver}; civilization values are rendered once per civilization
+ * version, and leader names come from a local cache rather than an offline player lookup.
+ */
+public class CivPlaceholders extends PlaceholderExpansion implements Listener {
+    
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd")
+            .withZone(ZoneId.systemDefault());
+    // Params come from other plugins' configs, so the set is small; the cap only guards against junk
+    private static final int MAX_RESOLVERS = 4096;
+    private static final Resolver EMPTY = (player, playerUUID) -> "";
     
     private final CivilizationMC plugin;
+    private final Map<String, Resolver> resolvers = new ConcurrentHashMap<>();
+    private final Map<String, Rendered> rendered = new ConcurrentHashMap<>();
+    // Player UUID -> last known name; filled on join and by background lookups for offline leaders
+    private final Map<String, String> names = new ConcurrentHashMap<>();
+    private final Set<String> pendingNames = ConcurrentHashMap.newKeySet();
     
     public CivPlaceholders() {
         this.plugin = CivilizationMC.getInstance();
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        for (Player online : plugin.getServer().getOnlinePlayers()) {
+            names.put(IdInterner.of(online.getUniqueId()), online.getName());
+        }
     }
     
     @Override
@@ -48,198 +82,300 @@ public class CivPlaceholders extends PlaceholderExpansion {
     public String onRequest(OfflinePlayer player, String params) {
         if (player == null) return "";
         
-        String playerUUID = player.getUniqueId().toString();
-        Civilization civ = plugin.getDataManager().getPlayerCivilization(playerUUID);
+        Resolver resolver = resolvers.get(params);
+        if (resolver == null) {
+            if (resolvers.size() >= MAX_RESOLVERS) {
+                resolvers.clear();
+            }
+            resolver = compile(params);
+            resolvers.put(params, resolver);
+        }
         
-        // Parse placeholder parameters
+        // Only online players are cached; offline lookups (leaderboards and the like) format the UUID
+        String playerUUID = player.isOnline() ? IdInterner.of(player.getUniqueId()) : player.getUniqueId().toString();
+        String value = resolver.resolve(player, playerUUID);
+        return value != null ? value : "";
+    }
+    
+    @Override
+    public String onPlaceholderRequest(Player player, String params) {
+        return onRequest(player, params);
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        // Also picks up name changes
+        names.put(IdInterner.of(event.getPlayer().getUniqueId()), event.getPlayer().getName());
+    }
+    
+    // Parses params once; unknown or malformed params compile to a resolver that returns ""
+    private Resolver compile(String params) {
         String[] parts = params.split("_");
-        String identifier = parts[0].toLowerCase();
+        String identifier = parts[0].toLowerCase(Locale.ROOT);
         
         switch (identifier) {
             // Player-specific placeholders
-            case "name":
-                return civ != null ? civ.getName() : "";
-            
             case "has":
-                return civ != null ? "true" : "false";
+                return (player, playerUUID) -> playerCivilization(playerUUID) != null ? "true" : "false";
             
             case "role":
-                if (civ == null) return "";
-                CivRole role = civ.getPlayerRole(playerUUID);
-                return role != null ? role.name().toLowerCase() : "";
+                return (player, playerUUID) -> {
+                    Civilization civ = playerCivilization(playerUUID);
+                    if (civ == null) return "";
+                    CivRole role = civ.getPlayerRole(playerUUID);
+                    return role != null ? role.name().toLowerCase() : "";
+                };
             
+            case "name":
             case "level":
-                return civ != null ? String.valueOf(civ.getLevel()) : "0";
-            
             case "bank":
-                if (civ == null) return "0";
-                return plugin.getEconomyManager().formatMoney(civ.getBankBalance());
-            
             case "members":
-                return civ != null ? String.valueOf(civ.getTotalMemberCount()) : "0";
-            
             case "claims":
-                return civ != null ? String.valueOf(civ.getClaims().size()) : "0";
-            
             case "created":
-                if (civ == null) return "";
-                SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-                return sdf.format(new Date(civ.getCreatedAt()));
-            
             case "leader":
-                if (civ == null) return "";
-                return plugin.getServer().getOfflinePlayer(java.util.UUID.fromString(civ.getLeaderUUID())).getName();
-            
             case "wars":
-                return civ != null ? String.valueOf(civ.getWars().size()) : "0";
-            
             case "allies":
-                return civ != null ? String.valueOf(civ.getAllies().size()) : "0";
+                Field field = Field.valueOf(identifier.toUpperCase(Locale.ROOT));
+                return (player, playerUUID) -> {
+                    Civilization civ = playerCivilization(playerUUID);
+                    return civ != null ? render(civ, field) : field.absent;
+                };
             
             // Location-based placeholders
             case "location":
-                if (parts.length < 2 || !(player instanceof Player)) return "";
-                Player onlinePlayer = (Player) player;
-                
-                switch (parts[1].toLowerCase()) {
-                    case "claimed":
-                        Claim claim = getClaim(onlinePlayer.getLocation());
-                        return claim != null ? "true" : "false";
-                    
-                    case "owner":
-                        claim = getClaim(onlinePlayer.getLocation());
-                        if (claim != null) {
-                            Civilization ownerCiv = plugin.getDataManager().getCivilization(claim.getCivId());
-                            return ownerCiv != null ? ownerCiv.getName() : "";
-                        }
-                        return "";
-                    
-                    case "trusted":
-                        claim = getClaim(onlinePlayer.getLocation());
-                        if (claim != null) {
-                            Civilization ownerCiv = plugin.getDataManager().getCivilization(claim.getCivId());
-                            if (ownerCiv != null && ownerCiv.isMember(playerUUID)) {
-                                return "true";
-                            }
-                            // Check trust flags would require more specific parameters
-                        }
-                        return "false";
-                }
-                break;
+                if (parts.length < 2) return EMPTY;
+                return compileLocation(parts[1].toLowerCase(Locale.ROOT));
             
             // Civilization-specific placeholders (by name)
             case "civ":
-                if (parts.length < 3) return "";
+                if (parts.length < 3) return EMPTY;
                 String civName = parts[1];
-                String civParam = parts[2].toLowerCase();
-                
-                Civilization targetCiv = plugin.getDataManager().getCivilizationByName(civName);
-                if (targetCiv == null) return "";
+                Field civField = Field.fromName(parts[2]);
+                if (civField == null || civField == Field.NAME) return EMPTY;
                 
-                switch (civParam) {
-                    case "level":
-                        return String.valueOf(targetCiv.getLevel());
-                    case "members":
-                        return String.valueOf(targetCiv.getTotalMemberCount());
-                    case "claims":
-                        return String.valueOf(targetCiv.getClaims().size());
-                    case "bank":
-                        return plugin.getEconomyManager().formatMoney(targetCiv.getBankBalance());
-                    case "leader":
-                        return plugin.getServer().getOfflinePlayer(java.util.UUID.fromString(targetCiv.getLeaderUUID())).getName();
-                    case "wars":
-                        return String.valueOf(targetCiv.getWars().size());
-                    case "allies":
-                        return String.valueOf(targetCiv.getAllies().size());
-                    case "created":
-                        SimpleDateFormat sdf2 = new SimpleDateFormat("yyyy-MM-dd");
-                        return sdf2.format(new Date(targetCiv.getCreatedAt()));
-                }
-                break;
+                return (player, playerUUID) -> {
+                    Civilization targetCiv = plugin.getDataManager().getCivilizationByName(civName);
+                    return targetCiv != null ? render(targetCiv, civField) : "";
+                };
             
-            // Top civilizations
+            // Top civilizations: %civ_top_<n>_<param>_<metric>%, ranked by members by default
             case "top":
-                if (parts.length < 3) return "";
-                
-                try {
-                    int position = Integer.parseInt(parts[1]) - 1; // Convert to 0-based index
-                    String topParam = parts[2].toLowerCase();
-                    
-                    var topCivs = plugin.getCivilizationManager().getTopCivilizations(10);
-                    if (position < 0 || position >= topCivs.size()) return "";
-                    
-                    Civilization topCiv = topCivs.get(position);
-                    
-                    switch (topParam) {
-                        case "name":
-                            return topCiv.getName();
-                        case "level":
-                            return String.valueOf(topCiv.getLevel());
-                        case "members":
-                            return String.valueOf(topCiv.getTotalMemberCount());
-                        case "claims":
-                            return String.valueOf(topCiv.getClaims().size());
-                        case "bank":
-                            return plugin.getEconomyManager().formatMoney(topCiv.getBankBalance());
-                        case "leader":
-                            return plugin.getServer().getOfflinePlayer(java.util.UUID.fromString(topCiv.getLeaderUUID())).getName();
-                    }
-                } catch (NumberFormatException e) {
-                    return "";
-                }
-                break;
+                if (parts.length < 3) return EMPTY;
+                return compileTop(parts);
             
             // Global statistics
             case "total":
-                if (parts.length < 2) return "";
+                if (parts.length < 2) return EMPTY;
                 
-                switch (parts[1].toLowerCase()) {
+                switch (parts[1].toLowerCase(Locale.ROOT)) {
                     case "civilizations":
-                        return String.valueOf(plugin.getDataManager().getAllCivilizations().size());
+                        return (player, playerUUID) -> String.valueOf(plugin.getDataManager().getCivilizationCount());
                     case "claims":
-                        return String.valueOf(plugin.getDataManager().getAllClaims().size());
+                        return (player, playerUUID) -> String.valueOf(plugin.getDataManager().getClaimCount());
                     case "wars":
-                        return String.valueOf(plugin.getDataManager().getAllWars().size());
+                        return (player, playerUUID) -> String.valueOf(plugin.getDataManager().getWarCount());
                     case "players":
-                        long totalPlayers = plugin.getDataManager().getAllCivilizations().values().stream()
-                                .mapToLong(Civilization::getTotalMemberCount)
-                                .sum();
-                        return String.valueOf(totalPlayers);
+                        return (player, playerUUID) -> String.valueOf(plugin.getDataManager().getTotalMemberCount());
                 }
-                break;
+                return EMPTY;
             
             // Server statistics
             case "server":
-                if (parts.length < 2) return "";
-                
-                switch (parts[1].toLowerCase()) {
-                    case "online":
-                        long onlineInCivs = plugin.getServer().getOnlinePlayers().stream()
-                                .mapToLong(p -> plugin.getDataManager().getPlayerCivilization(p.getUniqueId().toString()) != null ? 1 : 0)
-                                .sum();
-                        return String.valueOf(onlineInCivs);
-                }
-                break;
+                if (parts.length < 2 || !parts[1].equalsIgnoreCase("online")) return EMPTY;
                 
+                return (player, playerUUID) -> {
+                    long onlineInCivs = plugin.getServer().getOnlinePlayers().stream()
+                            .mapToLong(p -> plugin.getDataManager().getPlayerCivilization(IdInterner.of(p.getUniqueId())) != null ? 1 : 0)
+                            .sum();
+                    return String.valueOf(onlineInCivs);
+                };
+            
+            default:
+                return EMPTY;
+        }
+    }
+    
+    private Resolver compileLocation(String param) {
+        switch (param) {
+            case "claimed":
+                return (player, playerUUID) -> {
+                    if (!(player instanceof Player)) return "";
+                    return getClaim(((Player) player).getLocation()) != null ? "true" : "false";
+                };
+            
+            case "owner":
+                return (player, playerUUID) -> {
+                    if (!(player instanceof Player)) return "";
+                    Claim claim = getClaim(((Player) player).getLocation());
+                    if (claim == null) return "";
+                    Civilization ownerCiv = plugin.getDataManager().getCivilization(claim.getCivId());
+                    return ownerCiv != null ? ownerCiv.getName() : "";
+                };
+            
+            case "trusted":
+                return (player, playerUUID) -> {
+                    if (!(player instanceof Player)) return "";
+                    Claim claim = getClaim(((Player) player).getLocation());
+                    if (claim != null) {
+                        Civilization ownerCiv = plugin.getDataManager().getCivilization(claim.getCivId());
+                        if (ownerCiv != null && ownerCiv.isMember(playerUUID)) {
+                            return "true";
+                        }
+                        // Check trust flags would require more specific parameters
+                    }
+                    return "false";
+                };
+            
+            default:
+                return EMPTY;
+        }
+    }
+    
+    private Resolver compileTop(String[] parts) {
+        int position;
+        try {
+            position = Integer.parseInt(parts[1]) - 1; // Convert to 0-based index
+        } catch (NumberFormatException e) {
+            return EMPTY;
+        }
+        
+        Field field = Field.fromName(parts[2]);
+        Leaderboards.Metric metric = parts.length > 3 ? Leaderboards.Metric.fromName(parts[3]) : Leaderboards.Metric.MEMBERS;
+        if (position < 0 || metric == null || field == null || !field.ranked) return EMPTY;
+        
+        return (player, playerUUID) -> {
+            List<Civilization> topCivs = plugin.getCivilizationManager().getTopCivilizations(metric, position + 1);
+            return position < topCivs.size() ? render(topCivs.get(position), field) : "";
+        };
+    }
+    
+    private Civilization playerCivilization(String playerUUID) {
+        return plugin.getDataManager().getPlayerCivilization(playerUUID);
+    }
+    
+    private String render(Civilization civ, Field field) {
+        // Not version-bound: the leader's name can change without the civilization changing
+        if (field == Field.LEADER) {
+            return leaderName(civ.getLeaderUUID());
+        }
+        
+        // Every change to a civilization ends in a save, which bumps its version
+        long version = civ.getVersion();
+        Rendered entry = rendered.get(civ.getUuid());
+        if (entry == null || entry.version != version) {
+            if (rendered.size() > plugin.getDataManager().getCivilizationCount() + 64) {
+                // Drops entries of deleted civilizations
+                rendered.keySet().removeIf(civId -> plugin.getDataManager().getCivilization(civId) == null);
+            }
+            entry = new Rendered(version);
+            rendered.put(civ.getUuid(), entry);
+        }
+        
+        String value = entry.values[field.ordinal()];
+        if (value == null) {
+            value = format(civ, field);
+            entry.values[field.ordinal()] = value;
+        }
+        return value;
+    }
+    
+    private String format(Civilization civ, Field field) {
+        switch (field) {
+            case NAME:
+                return civ.getName();
+            case LEVEL:
+                return String.valueOf(civ.getLevel());
+            case BANK:
+                return plugin.getEconomyManager().formatMoney(civ.getBankBalance());
+            case MEMBERS:
+                return String.valueOf(civ.getTotalMemberCount());
+            case CLAIMS:
+                return String.valueOf(civ.getClaims().size());
+            case CREATED:
+                return DATE_FORMAT.format(Instant.ofEpochMilli(civ.getCreatedAt()));
+            case WARS:
+                return String.valueOf(civ.getWars().size());
+            case ALLIES:
+                return String.valueOf(civ.getAllies().size());
             default:
                 return "";
         }
+    }
+    
+    // Cached name, or "" while an offline leader's name is looked up off the calling thread
+    private String leaderName(String leaderUUID) {
+        if (leaderUUID == null) return "";
+        
+        String name = names.get(leaderUUID);
+        if (name != null) {
+            return name;
+        }
         
+        if (pendingNames.add(leaderUUID)) {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                try {
+                    String lookedUp = plugin.getServer().getOfflinePlayer(UUID.fromString(leaderUUID)).getName();
+                    if (lookedUp != null) {
+                        names.putIfAbsent(leaderUUID, lookedUp);
+                    }
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning("Invalid leader UUID: " + leaderUUID);
+                } finally {
+                    pendingNames.remove(leaderUUID);
+                }
+            });
+        }
         return "";
     }
     
-    @Override
-    public String onPlaceholderRequest(Player player, String params) {
-        return onRequest(player, params);
+    private Claim getClaim(org.bukkit.Location location) {
+        return plugin.getDataManager().getClaim(location);
     }
     
-    private Claim getClaim(org.bukkit.Location location) {
-        if (location == null || location.getWorld() == null) return null;
+    // A compiled params string
+    @FunctionalInterface
+    private interface Resolver {
+        String resolve(OfflinePlayer player, String playerUUID);
+    }
+    
+    // Civilization values a placeholder can show; absent is the value for players without a civilization
+    private enum Field {
+        NAME("", true),
+        LEVEL("0", true),
+        BANK("0", true),
+        MEMBERS("0", true),
+        CLAIMS("0", true),
+        CREATED("", false),
+        LEADER("", true),
+        WARS("0", false),
+        ALLIES("0", false);
+        
+        private final String absent;
+        // Offered by %civ_top_...%
+        private final boolean ranked;
         
-        int chunkX = location.getChunk().getX();
-        int chunkZ = location.getChunk().getZ();
-        String worldName = location.getWorld().getName();
+        Field(String absent, boolean ranked) {
+            this.absent = absent;
+            this.ranked = ranked;
+        }
         
-        return plugin.getDataManager().getClaim(worldName, chunkX, chunkZ);
+        // Null for unknown names
+        private static Field fromName(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+    
+    // Values rendered for one version of a civilization, indexed by Field ordinal
+    private static final class Rendered {
+        private final long version;
+        private final String[] values = new String[Field.values().length];
+        
+        private Rendered(long version) {
+            this.version = version;
+        }
     }
 }
\ No newline at end of file
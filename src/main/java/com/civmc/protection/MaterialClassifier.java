@@ -0,0 +1,100 @@
+package com.civmc.protection;
+
+import com.civmc.config.ConfigManager;
+import com.civmc.model.TrustFlag;
+import org.bukkit.Material;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Interaction categories of every {@link Material}, computed once from name patterns so that
+ * event handlers test a bit instead of matching strings. Patterns come from protection.materials
+ * in the config, falling back to the built-in lists; a leading or trailing * matches any text.
+ */
+public class MaterialClassifier {
+    
+    public enum Category {
+        CONTAINER("container", "*CHEST*", "*BARREL*", "*HOPPER*", "*DISPENSER*", "*DROPPER*", "*FURNACE*",
+                "*SHULKER_BOX*", "ENDER_CHEST", "BREWING_STAND", "ANVIL", "ENCHANTING_TABLE"),
+        REDSTONE("redstone", "*BUTTON*", "*LEVER*", "*PRESSURE_PLATE*", "*TRIPWIRE_HOOK*", "REPEATER", "COMPARATOR"),
+        DOOR("door", "*DOOR*", "*GATE*"),
+        LEAVES("leaves", "*LEAVES*"),
+        MELTABLE("meltable", "ICE", "SNOW_BLOCK", "SNOW");
+        
+        private final String configKey;
+        private final List<String> defaults;
+        
+        Category(String configKey, String... defaults) {
+            this.configKey = configKey;
+            this.defaults = Arrays.asList(defaults);
+        }
+        
+        private int bit() {
+            return 1 << ordinal();
+        }
+    }
+    
+    private final int[] categories;
+    private final TrustFlag[] interactionFlags;
+    
+    public MaterialClassifier(ConfigManager config) {
+        Material[] materials = Material.values();
+        this.categories = new int[materials.length];
+        this.interactionFlags = new TrustFlag[materials.length];
+        
+        for (Category category : Category.values()) {
+            List<String> patterns = config.getMaterialPatterns(category.configKey, category.defaults);
+            for (Material material : materials) {
+                if (matchesAny(material.name(), patterns)) {
+                    categories[material.ordinal()] |= category.bit();
+                }
+            }
+        }
+        
+        for (Material material : materials) {
+            interactionFlags[material.ordinal()] = resolveInteractionFlag(material);
+        }
+    }
+    
+    public boolean is(Material material, Category category) {
+        return (categories[material.ordinal()] & category.bit()) != 0;
+    }
+    
+    // Trust flag needed to right-click a block of this material inside someone else's claim
+    public TrustFlag getInteractionFlag(Material material) {
+        return interactionFlags[material.ordinal()];
+    }
+    
+    private TrustFlag resolveInteractionFlag(Material material) {
+        // Containers and redstone components require USE, doors require ACCESS, anything else USE
+        if (is(material, Category.CONTAINER) || is(material, Category.REDSTONE)) {
+            return TrustFlag.USE;
+        }
+        if (is(material, Category.DOOR)) {
+            return TrustFlag.ACCESS;
+        }
+        return TrustFlag.USE;
+    }
+    
+    private static boolean matchesAny(String name, List<String> patterns) {
+        for (String pattern : patterns) {
+            if (matches(name, pattern.trim().toUpperCase(Locale.ROOT))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static boolean matches(String name, String pattern) {
+        boolean leading = pattern.startsWith("*");
+        boolean trailing = pattern.length() > 1 && pattern.endsWith("*");
+        String core = pattern.substring(leading ? 1 : 0, pattern.length() - (trailing ? 1 : 0));
+        
+        if (leading && trailing) return name.contains(core);
+        if (leading) return name.endsWith(core);
+        if (trailing) return name.startsWith(core);
+        return name.equals(core);
+    }
+}
\ No newline at end of file
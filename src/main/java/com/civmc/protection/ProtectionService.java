@@ -0,0 +1,288 @@
+package com.civmc.protection;
+
+import com.civmc.CivilizationMC;
+import com.civmc.data.DataManager;
+import com.civmc.data.index.ClaimIndex;
+import com.civmc.model.Civilization;
+import com.civmc.model.Claim;
+import com.civmc.model.IdInterner;
+import com.civmc.model.TrustFlag;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single entry point for "may this player do X here" checks used by the listeners.
+ * Decisions are cached per player and chunk until claims, trusts or memberships change
+ * (tracked by {@link DataManager#getProtectionEpoch()}), the player changes world, or a trust expires.
+ */
+public class ProtectionService {
+    
+    private static final String BYPASS_PERMISSION = "civilization.bypass.protection";
+    // Permission plugins fire no change event, so the bypass result is re-checked after this long
+    private static final long BYPASS_RECHECK_MILLIS = 1000;
+    private static final int MAX_CACHED_CHUNKS = 256;
+    
+    // Cached decision layout: bits 16+ = flags decided, bits 0-15 = flags allowed; -1 = wilderness
+    private static final int WILDERNESS = -1;
+    private static final int ALL_FLAGS = (1 << TrustFlag.values().length) - 1;
+    
+    private final CivilizationMC plugin;
+    private final Map<UUID, PlayerCache> players = new ConcurrentHashMap<>();
+    private volatile boolean allowWildernessBuilding;
+    private volatile boolean allowWildernessInteraction;
+    private volatile MaterialClassifier materials;
+    
+    // Metrics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final Map<String, LongAdder> spawnVetoes = new ConcurrentHashMap<>();
+    
+    public ProtectionService(CivilizationMC plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+    
+    public void reload() {
+        allowWildernessBuilding = plugin.getConfigManager().isWildernessBuildingAllowed();
+        allowWildernessInteraction = plugin.getConfigManager().isWildernessInteractionAllowed();
+        materials = new MaterialClassifier(plugin.getConfigManager());
+        players.clear();
+    }
+    
+    public MaterialClassifier getMaterials() {
+        return materials;
+    }
+    
+    // Block placement and breaking; unclaimed land follows protection.allow-wilderness-building
+    public boolean canBuild(Player player, Location location, TrustFlag flag) {
+        World world = location.getWorld();
+        return world == null || check(player, world, location.getBlockX() >> 4, location.getBlockZ() >> 4, flag,
+                allowWildernessBuilding);
+    }
+    
+    public boolean canBuild(Player player, Block block, TrustFlag flag) {
+        return check(player, block.getWorld(), block.getX() >> 4, block.getZ() >> 4, flag, allowWildernessBuilding);
+    }
+    
+    // Everything else; unclaimed land follows protection.allow-wilderness-interaction
+    public boolean canInteract(Player player, Location location, TrustFlag flag) {
+        World world = location.getWorld();
+        return world == null || check(player, world, location.getBlockX() >> 4, location.getBlockZ() >> 4, flag,
+                allowWildernessInteraction);
+    }
+    
+    // Drops blocks in claims that forbid explosions; a blast covers hundreds of blocks but only a few chunks
+    public void removeExplosionProtected(List<Block> blocks) {
+        if (blocks.isEmpty()) return;
+        
+        ChunkClaims chunks = new ChunkClaims(plugin.getDataManager(), blocks.get(0).getWorld());
+        blocks.removeIf(block -> {
+            Claim claim = chunks.get(block.getX() >> 4, block.getZ() >> 4);
+            return claim != null && !claim.getFlags().isExplosions();
+        });
+    }
+    
+    // True when any block moved by a piston would land in claimed territory
+    public boolean isPistonMoveProtected(List<Block> blocks, BlockFace direction) {
+        if (blocks.isEmpty()) return false;
+        
+        ChunkClaims chunks = new ChunkClaims(plugin.getDataManager(), blocks.get(0).getWorld());
+        int dx = direction.getModX();
+        int dz = direction.getModZ();
+        for (Block block : blocks) {
+            if (chunks.get((block.getX() + dx) >> 4, (block.getZ() + dz) >> 4) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // Natural spawns refused by the chunk's compiled spawn policy; only a refusal resolves the claim, for the counter
+    public boolean isSpawnBlocked(Location location, boolean monster) {
+        World world = location.getWorld();
+        int chunkX = location.getBlockX() >> 4;
+        int chunkZ = location.getBlockZ() >> 4;
+        DataManager dataManager = plugin.getDataManager();
+        boolean blocked = monster
+                ? dataManager.isMonsterSpawnBlocked(world, chunkX, chunkZ)
+                : dataManager.isAnimalSpawnBlocked(world, chunkX, chunkZ);
+        
+        if (blocked) {
+            Claim claim = dataManager.getClaim(world, chunkX, chunkZ);
+            if (claim != null) {
+                spawnVetoes.computeIfAbsent(claim.getCivId(), id -> new LongAdder()).increment();
+            }
+        }
+        return blocked;
+    }
+    
+    public void forget(Player player) {
+        players.remove(player.getUniqueId());
+    }
+    
+    private boolean check(Player player, World world, int chunkX, int chunkZ, TrustFlag flag, boolean wildernessAllowed) {
+        PlayerCache cache = players.computeIfAbsent(player.getUniqueId(), id -> new PlayerCache(IdInterner.of(id)));
+        DataManager dataManager = plugin.getDataManager();
+        
+        synchronized (cache) {
+            long now = System.currentTimeMillis();
+            if (now - cache.bypassCheckedAt >= BYPASS_RECHECK_MILLIS) {
+                cache.bypass = player.hasPermission(BYPASS_PERMISSION);
+                cache.bypassCheckedAt = now;
+            }
+            if (cache.bypass) {
+                bypassed.increment();
+                return true;
+            }
+            
+            long epoch = dataManager.getProtectionEpoch();
+            if (cache.epoch != epoch || cache.world != world || now > cache.expiresAt
+                    || cache.decisions.size() >= MAX_CACHED_CHUNKS) {
+                if (!cache.decisions.isEmpty()) {
+                    invalidations.increment();
+                }
+                cache.reset(epoch, world);
+            }
+            
+            long key = ClaimIndex.chunkKey(chunkX, chunkZ);
+            int bit = 1 << flag.ordinal();
+            Integer cached = cache.decisions.get(key);
+            if (cached != null) {
+                if (cached == WILDERNESS) {
+                    hits.increment();
+                    return wildernessAllowed;
+                }
+                if (((cached >>> 16) & bit) != 0) {
+                    hits.increment();
+                    return (cached & bit) != 0;
+                }
+            }
+            misses.increment();
+            
+            Claim claim = dataManager.getClaim(world, chunkX, chunkZ);
+            if (claim == null) {
+                cache.decisions.put(key, WILDERNESS);
+                return wildernessAllowed;
+            }
+            
+            int decided;
+            int allowed;
+            Civilization civ = dataManager.getCivilization(claim.getCivId());
+            if (civ != null && civ.isMember(cache.playerUUID)) {
+                // Members may do anything in their own territory
+                decided = ALL_FLAGS;
+                allowed = ALL_FLAGS;
+            } else {
+                decided = bit;
+                allowed = claim.isTrusted(cache.playerUUID, flag) ? bit : 0;
+                cache.expiresAt = Math.min(cache.expiresAt, claim.getNextTrustExpiry());
+            }
+            
+            int previous = cached != null ? cached : 0;
+            cache.decisions.put(key, (((previous >>> 16) | decided) << 16) | (previous & 0xFFFF) | allowed);
+            return allowed != 0;
+        }
+    }
+    
+    public long getHits() {
+        return hits.sum();
+    }
+    
+    public long getMisses() {
+        return misses.sum();
+    }
+    
+    public long getBypassed() {
+        return bypassed.sum();
+    }
+    
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+    
+    public int getCachedPlayers() {
+        return players.size();
+    }
+    
+    public long getSpawnVetoes(String civId) {
+        LongAdder vetoes = spawnVetoes.get(civId);
+        return vetoes != null ? vetoes.sum() : 0;
+    }
+    
+    public long getTotalSpawnVetoes() {
+        long total = 0;
+        for (LongAdder vetoes : spawnVetoes.values()) {
+            total += vetoes.sum();
+        }
+        return total;
+    }
+    
+    // Claims of the chunks touched by one event, each resolved once; blocks arrive mostly grouped by chunk
+    private static final class ChunkClaims {
+        private final DataManager dataManager;
+        private final World world;
+        private final Map<Long, Claim> resolved = new HashMap<>();
+        private long lastKey;
+        private Claim lastClaim;
+        private boolean hasLast;
+        
+        private ChunkClaims(DataManager dataManager, World world) {
+            this.dataManager = dataManager;
+            this.world = world;
+        }
+        
+        private Claim get(int chunkX, int chunkZ) {
+            long key = ClaimIndex.chunkKey(chunkX, chunkZ);
+            if (hasLast && key == lastKey) {
+                return lastClaim;
+            }
+            
+            Claim claim;
+            if (resolved.containsKey(key)) {
+                claim = resolved.get(key);
+            } else {
+                claim = dataManager.getClaim(world, chunkX, chunkZ);
+                resolved.put(key, claim);
+            }
+            lastKey = key;
+            lastClaim = claim;
+            hasLast = true;
+            return claim;
+        }
+    }
+    
+    private static final class PlayerCache {
+        private final String playerUUID;
+        private boolean bypass;
+        private long bypassCheckedAt;
+        
+        private long epoch = -1;
+        private World world;
+        // Earliest trust expiry among the cached decisions
+        private long expiresAt = Long.MAX_VALUE;
+        private final Map<Long, Integer> decisions = new HashMap<>();
+        
+        private PlayerCache(String playerUUID) {
+            this.playerUUID = playerUUID;
+        }
+        
+        private void reset(long epoch, World world) {
+            this.epoch = epoch;
+            this.world = world;
+            this.expiresAt = Long.MAX_VALUE;
+            decisions.clear();
+        }
+    }
+}
\ No newline at end of file